@@ -1,4 +1,4 @@
-import axios from 'axios';
+import axios, { type AxiosResponse } from 'axios';
 
 const API_URL = 'http://localhost:8080/api';
 
@@ -22,6 +22,23 @@ api.interceptors.request.use(
   (error) => Promise.reject(error)
 );
 
+// List endpoints are keyset-paginated: each call returns up to `limit` rows ordered by id, and a full page
+// carries the id to continue after in the X-Next-After header. Follows the pages and resolves with every row.
+const PAGE_LIMIT = 1000;
+const NEXT_AFTER_HEADER = 'x-next-after';
+
+const getAllPages = async <T = any>(url: string): Promise<AxiosResponse<T[]>> => {
+  const rows: T[] = [];
+  let after: string | undefined;
+  let response: AxiosResponse<T[]>;
+  do {
+    response = await api.get<T[]>(url, { params: { after, limit: PAGE_LIMIT } });
+    rows.push(...response.data);
+    after = response.headers[NEXT_AFTER_HEADER];
+  } while (after);
+  return { ...response, data: rows };
+};
+
 // Authentication services
 export const authService = {
   login: async (email: string, password: string) => {
@@ -41,7 +58,7 @@ export const authService = {
 
 // Member services
 export const memberService = {
-  getAll: () => api.get('/members'),
+  getAll: () => getAllPages('/members'),
   getById: (id: number) => api.get(`/members/${id}`),
   create: (member: any) => api.post('/members', member),
   update: (id: number, member: any) => api.put(`/members/${id}`, member),
@@ -49,13 +66,13 @@ export const memberService = {
     api.patch(`/members/${id}/vetting?status=${status}`),
   assignPastor: (memberId: number, pastorId: number) => 
     api.patch(`/members/${memberId}/assign-pastor/${pastorId}`),
-  getByVettingStatus: (status: string) => api.get(`/members/vetting/${status}`),
-  getByPastor: (pastorId: number) => api.get(`/members/pastor/${pastorId}`)
+  getByVettingStatus: (status: string) => getAllPages(`/members/vetting/${status}`),
+  getByPastor: (pastorId: number) => getAllPages(`/members/pastor/${pastorId}`)
 };
 
 // Pastor services
 export const pastorService = {
-  getAll: () => api.get('/pastors'),
+  getAll: () => getAllPages('/pastors'),
   getById: (id: number) => api.get(`/pastors/${id}`),
   create: (pastor: any) => api.post('/pastors', pastor),
   getByChurchBranch: (branch: string) => api.get(`/pastors/branch/${branch}`),
@@ -64,7 +81,7 @@ export const pastorService = {
 
 // Donation services
 export const donationService = {
-  getAll: () => api.get('/donations'),
+  getAll: () => getAllPages('/donations'),
   getById: (id: number) => api.get(`/donations/${id}`),
   create: (donation: any) => api.post('/donations', donation),
   getByMember: (memberId: number) => api.get(`/donations/member/${memberId}`),
@@ -76,7 +93,7 @@ export const donationService = {
 
 // Room services
 export const roomService = {
-  getAll: () => api.get('/rooms'),
+  getAll: () => getAllPages('/rooms'),
   getById: (id: number) => api.get(`/rooms/${id}`),
   getByNumber: (roomNumber: string) => api.get(`/rooms/number/${roomNumber}`),
   create: (room: any) => api.post('/rooms', room),
@@ -91,7 +108,7 @@ export const roomService = {
 
 // Booking services
 export const bookingService = {
-  getAll: () => api.get('/bookings'),
+  getAll: () => getAllPages('/bookings'),
   getById: (id: number) => api.get(`/bookings/${id}`),
   getByReference: (reference: string) => api.get(`/bookings/reference/${reference}`),
   create: (booking: any) => api.post('/bookings', booking),
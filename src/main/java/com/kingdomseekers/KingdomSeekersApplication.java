@@ -3,9 +3,11 @@ package com.kingdomseekers;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableAsync
+@EnableScheduling
 public class KingdomSeekersApplication {
     public static void main(String[] args) {
         SpringApplication.run(KingdomSeekersApplication.class, args);
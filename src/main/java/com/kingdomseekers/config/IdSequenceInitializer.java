@@ -0,0 +1,47 @@
+package com.kingdomseekers.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Members, rooms and donations moved from identity columns to pooled sequences (allocation size 50) so
+ * inserts can be JDBC-batched. The baseline migration creates the sequences starting at 1; this moves each
+ * one past the ids already in its table, never backwards.
+ */
+@Component
+public class IdSequenceInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "member_seq", "members",
+            "room_seq", "rooms",
+            "donation_seq", "donations");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public IdSequenceInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void alignSequences() {
+        SEQUENCES.forEach((sequence, table) -> {
+            Long value = jdbcTemplate.queryForObject(
+                    "SELECT setval('" + sequence + "', GREATEST((SELECT COALESCE(MAX(id), 0) FROM " + table + ") + 50, " +
+                    "(SELECT last_value FROM " + sequence + ")))", Long.class);
+            log.debug("Sequence {} aligned to {}", sequence, value);
+        });
+    }
+}
@@ -0,0 +1,130 @@
+package com.kingdomseekers.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * EXPLAINs the SQL shape of each indexed repository query with sequential scans disabled. The planner then
+ * only picks a sequential scan when no index can serve the query, so any that does points at a missing or
+ * invalid index from the migrations. Runs at startup against the live database, and in the tests against an
+ * embedded Postgres with the migrations applied.
+ */
+@Component
+@ConditionalOnProperty(name = "schema.verify-query-plans", havingValue = "true", matchIfMissing = true)
+public class QueryPlanVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryPlanVerifier.class);
+
+    /** Literal-parameter versions of the repository queries the migration indexes were built for. */
+    static final List<Check> CHECKS = List.of(
+            new Check("bookings checking in on a date",
+                    "SELECT * FROM bookings WHERE check_in_date = DATE '2025-01-01' AND status IN ('CONFIRMED', 'CHECKED_IN')"),
+            new Check("bookings checking out on a date",
+                    "SELECT * FROM bookings WHERE check_out_date = DATE '2025-01-01' AND status IN ('CONFIRMED', 'CHECKED_IN')"),
+            new Check("front-desk manifest",
+                    "SELECT * FROM bookings WHERE check_in_date <= DATE '2025-01-01' AND check_out_date >= DATE '2025-01-01' " +
+                    "AND status IN ('CONFIRMED', 'CHECKED_IN')"),
+            new Check("bookings for a room", "SELECT * FROM bookings WHERE room_id = 1"),
+            new Check("overlapping stays for a room",
+                    "SELECT COUNT(*) FROM bookings WHERE room_id = 1 AND status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN') " +
+                    "AND check_in_date < DATE '2025-01-05' AND check_out_date > DATE '2025-01-01' AND id <> 0"),
+            new Check("bookings for a guest", "SELECT * FROM bookings WHERE guest_email = 'guest@example.com'"),
+            new Check("pending booking holds", "SELECT id, updated_at FROM bookings WHERE status = 'PENDING' AND id > 0"),
+            new Check("payments by status and date",
+                    "SELECT * FROM payments WHERE status = 'COMPLETED' " +
+                    "AND payment_date BETWEEN TIMESTAMPTZ '2025-01-01' AND TIMESTAMPTZ '2025-02-01'"),
+            new Check("payments by date",
+                    "SELECT * FROM payments WHERE payment_date BETWEEN TIMESTAMPTZ '2025-01-01' AND TIMESTAMPTZ '2025-02-01'"),
+            new Check("payments paid in a range",
+                    "SELECT payment_method, status, COUNT(*), SUM(amount) FROM payments " +
+                    "WHERE COALESCE(payment_date, created_at) >= TIMESTAMPTZ '2025-01-01' " +
+                    "AND COALESCE(payment_date, created_at) < TIMESTAMPTZ '2025-02-01' GROUP BY payment_method, status"),
+            new Check("payments for a booking", "SELECT * FROM payments WHERE booking_id = 1"),
+            new Check("payment by provider reference", "SELECT * FROM payments WHERE payment_reference = 'PAY-1'"),
+            new Check("open payment holds",
+                    "SELECT id, updated_at FROM payments WHERE status IN ('PENDING', 'PROCESSING') AND id > 0"),
+            new Check("donations by member and date",
+                    "SELECT * FROM donations WHERE member_id BETWEEN 1 AND 1000 " +
+                    "AND donation_date >= TIMESTAMPTZ '2025-01-01' AND donation_date < TIMESTAMPTZ '2026-01-01'"),
+            new Check("donations for a campaign", "SELECT * FROM donations WHERE campaign_code = 'BUILD'"),
+            new Check("donations in a date range",
+                    "SELECT currency, SUM(amount) FROM donations " +
+                    "WHERE donation_date >= TIMESTAMPTZ '2025-01-01' AND donation_date < TIMESTAMPTZ '2025-02-01' GROUP BY currency"),
+            new Check("members of a pastor",
+                    "SELECT * FROM members WHERE assigned_pastor_id = 1 AND id > 0 ORDER BY id LIMIT 100"),
+            new Check("members by vetting status",
+                    "SELECT * FROM members WHERE vetting_status = 'APPROVED' AND id > 0 ORDER BY id LIMIT 100"),
+            new Check("vetting queue claim",
+                    "SELECT * FROM members WHERE vetting_status = 'PENDING' " +
+                    "AND (vetting_claim_expires_at IS NULL OR vetting_claim_expires_at < now()) " +
+                    "ORDER BY created_at, id LIMIT 20"),
+            new Check("members by country", "SELECT * FROM members WHERE country_of_residence = 'KE'"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public QueryPlanVerifier(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyAtStartup() {
+        try {
+            List<String> unindexed = findSequentialScans();
+            if (unindexed.isEmpty()) {
+                log.info("All {} checked queries have an index path", CHECKS.size());
+            } else {
+                log.warn("Queries without an index path (check the db/migration indexes): {}", unindexed);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not verify query plans: {}", e.getMessage());
+        }
+    }
+
+    /** Names of the checks whose plan still contains a sequential scan. */
+    public List<String> findSequentialScans() {
+        return jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+            List<String> unindexed = new ArrayList<>();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                try {
+                    for (Check check : CHECKS) {
+                        if (explain(statement, check.sql()).contains("Seq Scan")) {
+                            unindexed.add(check.name());
+                        }
+                    }
+                } finally {
+                    statement.execute("RESET enable_seqscan");
+                }
+            }
+            return unindexed;
+        });
+    }
+
+    private static String explain(Statement statement, String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (ResultSet rows = statement.executeQuery("EXPLAIN " + sql)) {
+            while (rows.next()) {
+                plan.append(rows.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    record Check(String name, String sql) {
+    }
+}
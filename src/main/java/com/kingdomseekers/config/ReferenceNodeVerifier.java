@@ -0,0 +1,31 @@
+package com.kingdomseekers.config;
+
+import com.kingdomseekers.entity.ReferenceGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks the reference id node at startup rather than on the first booking. In prod NODE_ID is required:
+ * the HOSTNAME fallback hashes into only 1024 node ids, so two replicas can end up issuing the same ids.
+ */
+@Component
+public class ReferenceNodeVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceNodeVerifier.class);
+
+    @Autowired
+    public ReferenceNodeVerifier(Environment environment) {
+        long node = ReferenceGenerator.defaultNodeId();
+        if (ReferenceGenerator.hasConfiguredNodeId()) {
+            log.info("Reference ids are issued as node {}", node);
+        } else if (environment.acceptsProfiles(Profiles.of("prod"))) {
+            throw new IllegalStateException("NODE_ID must be set to a distinct value per replica in prod");
+        } else {
+            log.warn("NODE_ID is not set; reference ids use node {} derived from HOSTNAME", node);
+        }
+    }
+}
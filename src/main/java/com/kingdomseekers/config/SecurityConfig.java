@@ -25,7 +25,8 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.POST, "/members").permitAll()
                 .requestMatchers(HttpMethod.POST, "/webhooks/**").permitAll()
                 .requestMatchers(HttpMethod.POST, "/donations").authenticated()
-                .requestMatchers(HttpMethod.POST, "/members/*/vetting/approve").hasRole("PASTOR")
+                .requestMatchers(HttpMethod.POST, "/api/members/vetting/queue/**").hasRole("PASTOR")
+                .requestMatchers(HttpMethod.PATCH, "/api/members/*/vetting").hasRole("PASTOR")
                 .anyRequest().authenticated()
             );
         return http.build();
@@ -1,14 +1,21 @@
 package com.kingdomseekers.controller;
 
+import com.kingdomseekers.dto.BookingSummary;
+import com.kingdomseekers.dto.FrontDeskManifest;
 import com.kingdomseekers.entity.Booking;
 import com.kingdomseekers.service.BookingService;
+import com.kingdomseekers.service.EntityStreamService;
+import com.kingdomseekers.service.FrontDeskManifestService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import jakarta.validation.Valid;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -18,15 +25,36 @@ import java.util.Map;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final EntityStreamService entityStreamService;
+    private final FrontDeskManifestService manifestService;
 
     @Autowired
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, EntityStreamService entityStreamService,
+                             FrontDeskManifestService manifestService) {
         this.bookingService = bookingService;
+        this.entityStreamService = entityStreamService;
+        this.manifestService = manifestService;
     }
 
     @GetMapping
-    public ResponseEntity<List<Booking>> getAllBookings() {
-        return ResponseEntity.ok(bookingService.getAllBookings());
+    public ResponseEntity<List<Booking>> getAllBookings(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return KeysetResponses.page(bookingService.getBookingsAfter(after, limit), limit, Booking::getId);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllBookings() {
+        return entityStreamService.reserve(out -> entityStreamService.writeNdjson(bookingService::streamAllBookings, out))
+                .map(KeysetResponses::ndjson)
+                .orElseGet(KeysetResponses::busy);
+    }
+
+    @GetMapping("/summaries")
+    public ResponseEntity<List<BookingSummary>> getBookingSummaries(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return KeysetResponses.page(bookingService.getBookingSummariesAfter(after, limit), limit, BookingSummary::id);
     }
 
     @GetMapping("/{id}")
@@ -55,16 +83,29 @@ public class BookingController {
 
     @PutMapping("/{id}")
     public ResponseEntity<Booking> updateBooking(@PathVariable Long id, @Valid @RequestBody Booking booking) {
-        return bookingService.updateBooking(id, booking)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        try {
+            return bookingService.updateBooking(id, booking)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            // Changed underneath us, e.g. cancelled when its hold lapsed
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     @PatchMapping("/{id}/status")
     public ResponseEntity<Booking> updateBookingStatus(@PathVariable Long id, @RequestParam Booking.BookingStatus status) {
-        return bookingService.updateBookingStatus(id, status)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        try {
+            return bookingService.updateBookingStatus(id, status)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -95,6 +136,12 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.getActiveBookingsOnDate(date));
     }
 
+    @GetMapping("/manifest")
+    public ResponseEntity<FrontDeskManifest> getManifest(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(manifestService.getManifest(date != null ? date : LocalDate.now()));
+    }
+
     @GetMapping("/check-ins")
     public ResponseEntity<List<Booking>> getCheckInsForDate(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
         return ResponseEntity.ok(bookingService.getCheckInsForDate(date));
@@ -108,10 +155,11 @@ public class BookingController {
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getBookingStats() {
         Map<String, Object> stats = Map.of(
-            "totalBookings", bookingService.getAllBookings().size(),
+            "totalBookings", bookingService.getTotalBookingCount(),
             "confirmedBookings", bookingService.getBookingCountByStatus(Booking.BookingStatus.CONFIRMED),
             "pendingBookings", bookingService.getBookingCountByStatus(Booking.BookingStatus.PENDING),
-            "checkedInBookings", bookingService.getBookingCountByStatus(Booking.BookingStatus.CHECKED_IN)
+            "checkedInBookings", bookingService.getBookingCountByStatus(Booking.BookingStatus.CHECKED_IN),
+            "bookingsByStatus", bookingService.getBookingCountsByStatus()
         );
         return ResponseEntity.ok(stats);
     }
@@ -120,11 +168,11 @@ public class BookingController {
     public ResponseEntity<Map<String, Object>> getRevenueForPeriod(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        Double revenue = bookingService.getTotalRevenueForPeriod(startDate, endDate);
         Map<String, Object> revenueData = Map.of(
             "startDate", startDate,
             "endDate", endDate,
-            "totalRevenue", revenue
+            "totalRevenue", bookingService.getTotalRevenueForPeriod(startDate, endDate),
+            "collectedPayments", bookingService.getCollectedPaymentsForPeriod(startDate, endDate)
         );
         return ResponseEntity.ok(revenueData);
     }
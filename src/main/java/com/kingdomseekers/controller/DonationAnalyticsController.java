@@ -0,0 +1,40 @@
+package com.kingdomseekers.controller;
+
+import com.kingdomseekers.dto.DonationTimeSeries;
+import com.kingdomseekers.entity.Donation;
+import com.kingdomseekers.service.DonationAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/donations")
+public class DonationAnalyticsController {
+
+    private final DonationAnalyticsService donationAnalyticsService;
+
+    @Autowired
+    public DonationAnalyticsController(DonationAnalyticsService donationAnalyticsService) {
+        this.donationAnalyticsService = donationAnalyticsService;
+    }
+
+    @GetMapping("/analytics")
+    public ResponseEntity<DonationTimeSeries> getTimeSeries(
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(defaultValue = "none") String groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Donation.DonationType type,
+            @RequestParam(required = false) String campaignCode) {
+        try {
+            return ResponseEntity.ok(donationAnalyticsService.getTimeSeries(
+                    DonationAnalyticsService.Granularity.of(granularity), DonationAnalyticsService.GroupBy.of(groupBy),
+                    from, to, type, campaignCode));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -1,14 +1,25 @@
 package com.kingdomseekers.controller;
 
+import com.kingdomseekers.dto.BulkImportReport;
+import com.kingdomseekers.dto.CampaignSummary;
 import com.kingdomseekers.entity.Donation;
+import com.kingdomseekers.service.BulkImportService;
+import com.kingdomseekers.service.CampaignTotalsService;
+import com.kingdomseekers.service.DonationExportService;
 import com.kingdomseekers.service.DonationService;
+import com.kingdomseekers.service.EntityStreamService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
@@ -19,15 +30,53 @@ import java.util.List;
 public class DonationController {
 
     private final DonationService donationService;
+    private final EntityStreamService entityStreamService;
+    private final DonationExportService donationExportService;
+    private final CampaignTotalsService campaignTotalsService;
 
     @Autowired
-    public DonationController(DonationService donationService) {
+    public DonationController(DonationService donationService, EntityStreamService entityStreamService,
+                              DonationExportService donationExportService, CampaignTotalsService campaignTotalsService) {
         this.donationService = donationService;
+        this.entityStreamService = entityStreamService;
+        this.donationExportService = donationExportService;
+        this.campaignTotalsService = campaignTotalsService;
     }
 
     @GetMapping
-    public ResponseEntity<List<Donation>> getAllDonations() {
-        return ResponseEntity.ok(donationService.getAllDonations());
+    public ResponseEntity<List<Donation>> getAllDonations(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return KeysetResponses.page(donationService.getDonationsAfter(after, limit), limit, Donation::getId);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllDonations() {
+        return entityStreamService.reserve(out -> entityStreamService.writeNdjson(donationService::streamAllDonations, out))
+                .map(KeysetResponses::ndjson)
+                .orElseGet(KeysetResponses::busy);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDonations(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        DonationExportService.Format exportFormat;
+        try {
+            exportFormat = DonationExportService.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        Instant fromInstant = from != null ? from.atStartOfDay(ZoneId.systemDefault()).toInstant() : null;
+        Instant toInstant = to != null ? to.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant() : null;
+        return entityStreamService.reserve(out -> donationExportService.export(exportFormat, fromInstant, toInstant, out))
+                .map(body -> ResponseEntity.ok()
+                        .contentType(exportFormat.getMediaType())
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                "attachment; filename=\"donations." + exportFormat.getExtension() + "\"")
+                        .body(body))
+                .orElseGet(KeysetResponses::busy);
     }
 
     @GetMapping("/{id}")
@@ -43,6 +92,13 @@ public class DonationController {
                 .body(donationService.createDonation(donation));
     }
 
+    @PostMapping(value = "/bulk", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkImportReport> importDonations(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        return ResponseEntity.ok(donationService.importDonations(body, BulkImportService.Format.fromContentType(contentType)));
+    }
+
     @GetMapping("/member/{memberId}")
     public ResponseEntity<List<Donation>> getDonationsByMember(@PathVariable Long memberId) {
         return ResponseEntity.ok(donationService.getDonationsByMember(memberId));
@@ -60,6 +116,15 @@ public class DonationController {
         return ResponseEntity.ok(donationService.getDonationsByCampaign(campaignCode));
     }
 
+    @GetMapping("/campaign/{campaignCode}/summary")
+    public ResponseEntity<CampaignSummary> getCampaignSummary(
+            @PathVariable String campaignCode,
+            @RequestParam(defaultValue = "10") int top) {
+        return campaignTotalsService.getSummary(campaignCode, top)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/date-range")
     public ResponseEntity<List<Donation>> getDonationsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
@@ -0,0 +1,71 @@
+package com.kingdomseekers.controller;
+
+import com.kingdomseekers.dto.ConvertedTotals;
+import com.kingdomseekers.dto.FxRateTable;
+import com.kingdomseekers.service.DonationTotalsService;
+import com.kingdomseekers.service.FxRateService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+@RestController
+@RequestMapping("/api/donations")
+public class DonationTotalsController {
+
+    private final DonationTotalsService donationTotalsService;
+    private final FxRateService fxRateService;
+
+    @Autowired
+    public DonationTotalsController(DonationTotalsService donationTotalsService, FxRateService fxRateService) {
+        this.donationTotalsService = donationTotalsService;
+        this.fxRateService = fxRateService;
+    }
+
+    @GetMapping("/totals")
+    public ResponseEntity<ConvertedTotals> getTotals(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(donationTotalsService.getTotalsByCurrency(startOf(from), endOf(to)));
+    }
+
+    @GetMapping("/totals/by-type")
+    public ResponseEntity<ConvertedTotals> getTotalsByType(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(donationTotalsService.getTotalsByType(startOf(from), endOf(to)));
+    }
+
+    @GetMapping("/totals/by-campaign")
+    public ResponseEntity<ConvertedTotals> getTotalsByCampaign(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(donationTotalsService.getTotalsByCampaign(startOf(from), endOf(to)));
+    }
+
+    @GetMapping("/fx-rates")
+    public ResponseEntity<FxRateTable> getFxRates() {
+        return ResponseEntity.ok(fxRateService.getTable());
+    }
+
+    @PostMapping("/fx-rates/reload")
+    public ResponseEntity<FxRateTable> reloadFxRates() {
+        try {
+            return ResponseEntity.ok(fxRateService.reload());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private static Instant startOf(LocalDate from) {
+        return from != null ? from.atStartOfDay(ZoneId.systemDefault()).toInstant() : null;
+    }
+
+    private static Instant endOf(LocalDate to) {
+        return to != null ? to.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant() : null;
+    }
+}
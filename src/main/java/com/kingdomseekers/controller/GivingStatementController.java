@@ -0,0 +1,54 @@
+package com.kingdomseekers.controller;
+
+import com.kingdomseekers.dto.GivingStatementJobStatus;
+import com.kingdomseekers.service.GivingStatementService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/donations/statements")
+public class GivingStatementController {
+
+    private final GivingStatementService givingStatementService;
+
+    @Autowired
+    public GivingStatementController(GivingStatementService givingStatementService) {
+        this.givingStatementService = givingStatementService;
+    }
+
+    @PostMapping("/{year}")
+    public ResponseEntity<GivingStatementJobStatus> generateStatements(@PathVariable int year,
+                                                                       @RequestParam(defaultValue = "false") boolean rerun) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(givingStatementService.start(year, rerun));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<GivingStatementJobStatus> getStatus() {
+        return givingStatementService.getStatus()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{year}/status")
+    public ResponseEntity<GivingStatementJobStatus> getStatus(@PathVariable int year) {
+        return givingStatementService.getStatus(year)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/{year}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> downloadStatements(@PathVariable int year) {
+        if (givingStatementService.getStatus(year).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return KeysetResponses.ndjson(out -> givingStatementService.writeStatements(year, out));
+    }
+}
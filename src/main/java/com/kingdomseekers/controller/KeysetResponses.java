@@ -0,0 +1,46 @@
+package com.kingdomseekers.controller;
+
+import com.kingdomseekers.service.Keyset;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Response helpers shared by the keyset-paginated list endpoints. A full page carries the id to pass as
+ * {@code after} for the next page in the {@value #NEXT_AFTER_HEADER} header.
+ */
+final class KeysetResponses {
+
+    static final String NEXT_AFTER_HEADER = "X-Next-After";
+    /** Seconds a client turned away by {@link #busy()} is asked to wait before retrying. */
+    static final String BUSY_RETRY_AFTER = "30";
+
+    private KeysetResponses() {
+    }
+
+    static <T> ResponseEntity<List<T>> page(List<T> rows, int limit, Function<T, Long> id) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!rows.isEmpty() && rows.size() >= Keyset.clamp(limit)) {
+            response.header(NEXT_AFTER_HEADER, String.valueOf(id.apply(rows.get(rows.size() - 1))));
+        }
+        return response.body(rows);
+    }
+
+    static ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /** Every stream slot is taken; see {@link com.kingdomseekers.service.EntityStreamService#reserve}. */
+    static <T> ResponseEntity<T> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, BUSY_RETRY_AFTER)
+                .build();
+    }
+}
@@ -1,13 +1,27 @@
 package com.kingdomseekers.controller;
 
+import com.kingdomseekers.dto.BulkImportReport;
+import com.kingdomseekers.dto.MemberSearchHit;
+import com.kingdomseekers.dto.VettingBatchResult;
+import com.kingdomseekers.dto.VettingDecision;
+import com.kingdomseekers.dto.VettingQueueStats;
 import com.kingdomseekers.entity.Member;
+import com.kingdomseekers.service.BulkImportService;
+import com.kingdomseekers.service.EntityStreamService;
 import com.kingdomseekers.service.MemberService;
+import com.kingdomseekers.service.VettingQueueService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -15,15 +29,46 @@ import java.util.List;
 public class MemberController {
 
     private final MemberService memberService;
+    private final EntityStreamService entityStreamService;
+    private final VettingQueueService vettingQueueService;
 
     @Autowired
-    public MemberController(MemberService memberService) {
+    public MemberController(MemberService memberService, EntityStreamService entityStreamService,
+                            VettingQueueService vettingQueueService) {
         this.memberService = memberService;
+        this.entityStreamService = entityStreamService;
+        this.vettingQueueService = vettingQueueService;
     }
 
     @GetMapping
-    public ResponseEntity<List<Member>> getAllMembers() {
-        return ResponseEntity.ok(memberService.getAllMembers());
+    public ResponseEntity<List<Member>> getAllMembers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return KeysetResponses.page(memberService.getMembersAfter(after, limit), limit, Member::getId);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllMembers() {
+        return entityStreamService.reserve(out -> entityStreamService.writeNdjson(memberService::streamAllMembers, out))
+                .map(KeysetResponses::ndjson)
+                .orElseGet(KeysetResponses::busy);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<MemberSearchHit>> searchMembers(
+            @RequestParam String q,
+            @RequestParam(required = false) Member.VettingStatus vettingStatus,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) Long pastorId,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > 100) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(memberService.searchMembers(q, vettingStatus, country, pastorId, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
@@ -33,12 +78,26 @@ public class MemberController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/email/{email}")
+    public ResponseEntity<Member> getMemberByEmail(@PathVariable String email) {
+        return memberService.getMemberByEmail(email)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping
     public ResponseEntity<Member> createMember(@Valid @RequestBody Member member) {
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(memberService.createMember(member));
     }
 
+    @PostMapping(value = "/bulk", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkImportReport> importMembers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        return ResponseEntity.ok(memberService.importMembers(body, BulkImportService.Format.fromContentType(contentType)));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Member> updateMember(@PathVariable Long id, @Valid @RequestBody Member member) {
         return memberService.updateMember(id, member)
@@ -48,11 +107,16 @@ public class MemberController {
 
     @PatchMapping("/{id}/vetting")
     public ResponseEntity<Member> updateVettingStatus(
+            Principal reviewer,
             @PathVariable Long id,
             @RequestParam Member.VettingStatus status) {
-        return memberService.updateVettingStatus(id, status)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        try {
+            return memberService.updateVettingStatus(id, status, reviewer.getName())
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     @PatchMapping("/{id}/assign-pastor/{pastorId}")
@@ -66,12 +130,44 @@ public class MemberController {
 
     @GetMapping("/vetting/{status}")
     public ResponseEntity<List<Member>> getMembersByVettingStatus(
-            @PathVariable Member.VettingStatus status) {
-        return ResponseEntity.ok(memberService.getMembersByVettingStatus(status));
+            @PathVariable Member.VettingStatus status,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return KeysetResponses.page(memberService.getMembersByVettingStatus(status, after, limit), limit, Member::getId);
+    }
+
+    @GetMapping("/vetting/queue")
+    public ResponseEntity<VettingQueueStats> getVettingQueueStats() {
+        return ResponseEntity.ok(vettingQueueService.getStats());
+    }
+
+    @PostMapping("/vetting/queue/claim")
+    public ResponseEntity<List<Member>> claimVettingBatch(
+            Principal reviewer,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(vettingQueueService.claim(reviewer.getName(), limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/vetting/queue/decisions")
+    public ResponseEntity<VettingBatchResult> submitVettingDecisions(
+            Principal reviewer,
+            @RequestBody List<VettingDecision> decisions) {
+        try {
+            return ResponseEntity.ok(vettingQueueService.decide(reviewer.getName(), decisions));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/pastor/{pastorId}")
-    public ResponseEntity<List<Member>> getMembersByPastor(@PathVariable Long pastorId) {
-        return ResponseEntity.ok(memberService.getMembersByPastor(pastorId));
+    public ResponseEntity<List<Member>> getMembersByPastor(
+            @PathVariable Long pastorId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return KeysetResponses.page(memberService.getMembersByPastor(pastorId, after, limit), limit, Member::getId);
     }
 }
\ No newline at end of file
@@ -1,13 +1,19 @@
 package com.kingdomseekers.controller;
 
+import com.kingdomseekers.dto.CaseloadRebalance;
+import com.kingdomseekers.dto.PastorCaseload;
 import com.kingdomseekers.entity.Pastor;
+import com.kingdomseekers.service.EntityStreamService;
+import com.kingdomseekers.service.PastorAssignmentService;
 import com.kingdomseekers.service.PastorService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import jakarta.validation.Valid;
 import java.util.List;
 
 @RestController
@@ -15,15 +21,53 @@ import java.util.List;
 public class PastorController {
 
     private final PastorService pastorService;
+    private final EntityStreamService entityStreamService;
+    private final PastorAssignmentService pastorAssignment;
 
     @Autowired
-    public PastorController(PastorService pastorService) {
+    public PastorController(PastorService pastorService, EntityStreamService entityStreamService,
+                            PastorAssignmentService pastorAssignment) {
         this.pastorService = pastorService;
+        this.entityStreamService = entityStreamService;
+        this.pastorAssignment = pastorAssignment;
     }
 
     @GetMapping
-    public ResponseEntity<List<Pastor>> getAllPastors() {
-        return ResponseEntity.ok(pastorService.getAllPastors());
+    public ResponseEntity<List<Pastor>> getAllPastors(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return KeysetResponses.page(pastorService.getPastorsAfter(after, limit), limit, Pastor::getId);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllPastors() {
+        return entityStreamService.reserve(out -> entityStreamService.writeNdjson(pastorService::streamAllPastors, out))
+                .map(KeysetResponses::ndjson)
+                .orElseGet(KeysetResponses::busy);
+    }
+
+    @GetMapping("/caseloads")
+    public ResponseEntity<List<PastorCaseload>> getCaseloads(
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) String branch) {
+        try {
+            return ResponseEntity.ok(pastorAssignment.getCaseloads(country, branch));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/caseloads/rebalance")
+    public ResponseEntity<CaseloadRebalance> rebalanceCaseloads(
+            @RequestParam String country,
+            @RequestParam(required = false) String branch) {
+        try {
+            return ResponseEntity.ok(pastorAssignment.rebalance(country, branch));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     @GetMapping("/{id}")
@@ -33,6 +77,13 @@ public class PastorController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/email/{email}")
+    public ResponseEntity<Pastor> getPastorByEmail(@PathVariable String email) {
+        return pastorService.getPastorByEmail(email)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping
     public ResponseEntity<Pastor> createPastor(@Valid @RequestBody Pastor pastor) {
         return ResponseEntity.status(HttpStatus.CREATED)
@@ -0,0 +1,56 @@
+package com.kingdomseekers.controller;
+
+import com.kingdomseekers.dto.PaymentAnalytics;
+import com.kingdomseekers.dto.ReconciliationReport;
+import com.kingdomseekers.service.PaymentAnalyticsService;
+import com.kingdomseekers.service.PaymentReconciliationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+@RestController
+@RequestMapping("/api/payments")
+public class PaymentController {
+
+    private final PaymentReconciliationService reconciliationService;
+    private final PaymentAnalyticsService analyticsService;
+
+    @Autowired
+    public PaymentController(PaymentReconciliationService reconciliationService,
+                             PaymentAnalyticsService analyticsService) {
+        this.reconciliationService = reconciliationService;
+        this.analyticsService = analyticsService;
+    }
+
+    @GetMapping("/analytics")
+    public ResponseEntity<PaymentAnalytics> getAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(analyticsService.getAnalytics(
+                from != null ? from.atStartOfDay(ZoneId.systemDefault()).toInstant() : null,
+                to != null ? to.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant() : null));
+    }
+
+    @PostMapping(value = "/reconciliation", consumes = {"text/csv", "text/plain", "application/octet-stream"})
+    public ResponseEntity<ReconciliationReport> reconcile(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            InputStream statement) throws IOException {
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(reconciliationService.reconcile(statement,
+                    from.atStartOfDay(ZoneId.systemDefault()).toInstant(),
+                    to.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
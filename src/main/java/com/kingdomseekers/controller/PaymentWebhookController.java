@@ -0,0 +1,54 @@
+package com.kingdomseekers.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.kingdomseekers.service.PaymentWebhookService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Provider callbacks. A callback is authenticated and acknowledged as soon as it is journaled; payments and
+ * bookings are updated asynchronously.
+ */
+@RestController
+@RequestMapping("/webhooks/payments")
+public class PaymentWebhookController {
+
+    private final PaymentWebhookService paymentWebhookService;
+
+    @Autowired
+    public PaymentWebhookController(PaymentWebhookService paymentWebhookService) {
+        this.paymentWebhookService = paymentWebhookService;
+    }
+
+    @PostMapping
+    public ResponseEntity<Void> receivePaymentCallback(
+            @RequestBody byte[] body,
+            @RequestHeader(value = PaymentWebhookService.SIGNATURE_HEADER, required = false) String signature) throws IOException {
+        try {
+            paymentWebhookService.acceptCallback(body, signature);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/mpesa")
+    public ResponseEntity<Map<String, Object>> receiveMpesaConfirmation(@RequestBody JsonNode body,
+                                                                        @RequestParam(required = false) String token) throws IOException {
+        try {
+            paymentWebhookService.acceptMpesaConfirmation(body, token);
+            return ResponseEntity.ok(Map.of("ResultCode", 0, "ResultDesc", "Accepted"));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("ResultCode", 1, "ResultDesc", "Rejected"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("ResultCode", 1, "ResultDesc", e.getMessage()));
+        }
+    }
+}
@@ -1,30 +1,52 @@
 package com.kingdomseekers.controller;
 
+import com.kingdomseekers.dto.BulkImportReport;
+import com.kingdomseekers.dto.RoomStatsSnapshot;
 import com.kingdomseekers.entity.Room;
+import com.kingdomseekers.service.BulkImportService;
+import com.kingdomseekers.service.EntityStreamService;
 import com.kingdomseekers.service.RoomService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/api/rooms")
 public class RoomController {
 
     private final RoomService roomService;
+    private final EntityStreamService entityStreamService;
 
     @Autowired
-    public RoomController(RoomService roomService) {
+    public RoomController(RoomService roomService, EntityStreamService entityStreamService) {
         this.roomService = roomService;
+        this.entityStreamService = entityStreamService;
     }
 
     @GetMapping
-    public ResponseEntity<List<Room>> getAllRooms() {
-        return ResponseEntity.ok(roomService.getAllRooms());
+    public ResponseEntity<List<Room>> getAllRooms(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return KeysetResponses.page(roomService.getRoomsAfter(after, limit), limit, Room::getId);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllRooms() {
+        return entityStreamService.reserve(out -> entityStreamService.writeNdjson(roomService::streamAllRooms, out))
+                .map(KeysetResponses::ndjson)
+                .orElseGet(KeysetResponses::busy);
     }
 
     @GetMapping("/{id}")
@@ -51,6 +73,13 @@ public class RoomController {
         }
     }
 
+    @PostMapping(value = "/bulk", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkImportReport> importRooms(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        return ResponseEntity.ok(roomService.importRooms(body, BulkImportService.Format.fromContentType(contentType)));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Room> updateRoom(@PathVariable Long id, @Valid @RequestBody Room room) {
         return roomService.updateRoom(id, room)
@@ -86,14 +115,23 @@ public class RoomController {
         return ResponseEntity.ok(roomService.getAvailableRoomsByType(type));
     }
 
+    @GetMapping("/availability")
+    public ResponseEntity<List<Room>> searchAvailability(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+            @RequestParam(required = false) Room.RoomType type,
+            @RequestParam(required = false) Integer minCapacity,
+            @RequestParam(required = false) Room.PackageType packageType,
+            @RequestParam(required = false) BigDecimal maxPrice) {
+        try {
+            return ResponseEntity.ok(roomService.searchAvailableRooms(checkIn, checkOut, type, minCapacity, packageType, maxPrice));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getRoomStats() {
-        Map<String, Object> stats = Map.of(
-            "totalRooms", roomService.getTotalRoomCount(),
-            "availableRooms", roomService.getAvailableRoomCount(),
-            "occupiedRooms", roomService.getOccupiedRoomCount(),
-            "occupancyRate", roomService.getOccupancyRate()
-        );
-        return ResponseEntity.ok(stats);
+    public ResponseEntity<RoomStatsSnapshot> getRoomStats() {
+        return ResponseEntity.ok(roomService.getRoomStats());
     }
 }
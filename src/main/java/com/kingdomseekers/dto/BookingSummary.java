@@ -0,0 +1,26 @@
+package com.kingdomseekers.dto;
+
+import com.kingdomseekers.entity.Booking;
+import com.kingdomseekers.entity.Room;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Flat read model for booking lists; built by a single constructor query so serialization never touches
+ * lazy associations.
+ */
+public record BookingSummary(
+        Long id,
+        String bookingReference,
+        Long roomId,
+        String roomNumber,
+        Room.RoomType roomType,
+        String guestName,
+        String guestEmail,
+        LocalDate checkInDate,
+        LocalDate checkOutDate,
+        Integer numberOfNights,
+        BigDecimal totalAmount,
+        Booking.BookingStatus status) {
+}
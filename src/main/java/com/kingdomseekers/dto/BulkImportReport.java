@@ -0,0 +1,13 @@
+package com.kingdomseekers.dto;
+
+import java.util.List;
+
+/**
+ * Counts for the whole upload plus the first {@code bulk-import.max-reported-failures} failed rows;
+ * {@code omittedFailures} says how many more failed without being listed.
+ */
+public record BulkImportReport(int totalRows, int imported, int failed, List<RowFailure> failures, int omittedFailures) {
+
+    public record RowFailure(int row, String error) {
+    }
+}
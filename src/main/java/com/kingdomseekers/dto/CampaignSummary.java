@@ -0,0 +1,28 @@
+package com.kingdomseekers.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Running totals for one campaign. Amounts are never converted, so each currency carries its own total,
+ * donor count and leaderboard.
+ */
+public record CampaignSummary(
+        String campaignCode,
+        long gifts,
+        long donors,
+        List<CurrencyTotal> currencies,
+        Instant asOf) {
+
+    public record CurrencyTotal(
+            String currency,
+            BigDecimal total,
+            long gifts,
+            long donors,
+            List<TopDonor> topDonors) {
+    }
+
+    public record TopDonor(Long memberId, BigDecimal total, long gifts) {
+    }
+}
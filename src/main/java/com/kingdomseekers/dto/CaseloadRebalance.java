@@ -0,0 +1,9 @@
+package com.kingdomseekers.dto;
+
+import java.util.List;
+
+public record CaseloadRebalance(String countryCode, String churchBranch, long membersMoved, List<Move> moves) {
+
+    public record Move(Long fromPastorId, Long toPastorId, long members) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.kingdomseekers.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Donation totals normalized to one currency with the rate table version used. Amounts in currencies the
+ * table does not know are left out of the converted totals and listed in {@code unconvertedCurrencies}.
+ */
+public record ConvertedTotals(
+        String baseCurrency,
+        String rateVersion,
+        Instant from,
+        Instant to,
+        BigDecimal total,
+        long gifts,
+        List<Group> groups,
+        List<String> unconvertedCurrencies) {
+
+    public record Group(
+            String key,
+            BigDecimal total,
+            long gifts,
+            Map<String, BigDecimal> byCurrency) {
+    }
+}
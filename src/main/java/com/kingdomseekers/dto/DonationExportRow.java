@@ -0,0 +1,36 @@
+package com.kingdomseekers.dto;
+
+import com.kingdomseekers.entity.Donation;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One line of a donation export; built by a constructor query joined to the donor so streaming never
+ * materializes {@code Donation} or {@code Member} entities.
+ */
+public record DonationExportRow(
+        Long id,
+        Instant donationDate,
+        BigDecimal amount,
+        String currency,
+        Donation.DonationType type,
+        String campaignCode,
+        String transactionReference,
+        String paymentMethod,
+        Long memberId,
+        String memberFirstName,
+        String memberLastName,
+        String memberEmail) {
+
+    public static final List<String> CSV_HEADER = List.of(
+            "id", "donationDate", "amount", "currency", "type", "campaignCode", "transactionReference",
+            "paymentMethod", "memberId", "memberFirstName", "memberLastName", "memberEmail");
+
+    public List<Object> csvValues() {
+        return Arrays.asList(id, donationDate, amount, currency, type, campaignCode, transactionReference,
+                paymentMethod, memberId, memberFirstName, memberLastName, memberEmail);
+    }
+}
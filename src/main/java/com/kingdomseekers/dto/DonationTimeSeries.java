@@ -0,0 +1,31 @@
+package com.kingdomseekers.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Donation buckets over time, one series per group. Amounts are converted to {@code baseCurrency} with FX
+ * table {@code rateVersion}; only non-empty buckets are listed.
+ */
+public record DonationTimeSeries(
+        String granularity,
+        String groupBy,
+        String baseCurrency,
+        String rateVersion,
+        LocalDate from,
+        LocalDate to,
+        List<Series> series,
+        List<String> unconvertedCurrencies) {
+
+    public record Series(String key, List<Bucket> buckets) {
+    }
+
+    public record Bucket(
+            LocalDate start,
+            long gifts,
+            BigDecimal total,
+            BigDecimal average,
+            long donors) {
+    }
+}
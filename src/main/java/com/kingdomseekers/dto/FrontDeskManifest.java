@@ -0,0 +1,32 @@
+package com.kingdomseekers.dto;
+
+import com.kingdomseekers.entity.Booking;
+import com.kingdomseekers.entity.Room;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+public record FrontDeskManifest(
+        LocalDate date,
+        List<Stay> arrivals,
+        List<Stay> departures,
+        List<Stay> inHouse,
+        Instant generatedAt) {
+
+    public record Stay(
+            Long bookingId,
+            String bookingReference,
+            Long roomId,
+            String roomNumber,
+            Room.RoomType roomType,
+            String guestName,
+            String guestEmail,
+            String guestPhone,
+            LocalDate checkInDate,
+            LocalDate checkOutDate,
+            Integer numberOfNights,
+            Booking.BookingStatus status,
+            String specialRequests) {
+    }
+}
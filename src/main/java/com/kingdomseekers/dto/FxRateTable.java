@@ -0,0 +1,33 @@
+package com.kingdomseekers.dto;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of FX rates: {@code rates} maps a currency code to the value of one unit in
+ * {@code baseCurrency}.
+ */
+public record FxRateTable(
+        String version,
+        String baseCurrency,
+        Map<String, BigDecimal> rates,
+        Instant loadedAt) {
+
+    public FxRateTable {
+        rates = Map.copyOf(rates);
+    }
+
+    public static String normalize(String currency) {
+        return currency == null ? null : currency.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /** Converts an amount into the base currency, or returns null when the currency has no rate. */
+    public BigDecimal toBase(String currency, BigDecimal amount) {
+        String code = normalize(currency);
+        BigDecimal rate = code != null ? rates.get(code) : null;
+        return rate != null ? amount.multiply(rate, MathContext.DECIMAL64) : null;
+    }
+}
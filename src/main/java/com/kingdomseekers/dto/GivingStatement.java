@@ -0,0 +1,26 @@
+package com.kingdomseekers.dto;
+
+import com.kingdomseekers.entity.Donation;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A member's giving for one calendar year, with a total per currency broken down by donation type.
+ */
+public record GivingStatement(
+        Long memberId,
+        String firstName,
+        String lastName,
+        String email,
+        int year,
+        List<CurrencyTotal> totals) {
+
+    public record CurrencyTotal(
+            String currency,
+            Map<Donation.DonationType, BigDecimal> byType,
+            BigDecimal total,
+            long gifts) {
+    }
+}
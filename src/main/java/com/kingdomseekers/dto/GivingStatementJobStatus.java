@@ -0,0 +1,20 @@
+package com.kingdomseekers.dto;
+
+import java.time.Instant;
+
+public record GivingStatementJobStatus(
+        int year,
+        State state,
+        int totalPartitions,
+        int completedPartitions,
+        int skippedPartitions,
+        int failedPartitions,
+        long statementsWritten,
+        String startedBy,
+        Instant startedAt,
+        Instant finishedAt) {
+
+    public enum State {
+        RUNNING, COMPLETED, FAILED
+    }
+}
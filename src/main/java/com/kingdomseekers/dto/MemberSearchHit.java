@@ -0,0 +1,15 @@
+package com.kingdomseekers.dto;
+
+import com.kingdomseekers.entity.Member;
+
+public record MemberSearchHit(
+        Long id,
+        String firstName,
+        String lastName,
+        String email,
+        String phone,
+        Member.VettingStatus vettingStatus,
+        String countryOfResidence,
+        Long assignedPastorId,
+        int score) {
+}
@@ -0,0 +1,4 @@
+package com.kingdomseekers.dto;
+
+public record PastorCaseload(Long pastorId, String countryCode, String churchBranch, long members) {
+}
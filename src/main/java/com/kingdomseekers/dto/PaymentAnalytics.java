@@ -0,0 +1,39 @@
+package com.kingdomseekers.dto;
+
+import com.kingdomseekers.entity.Payment;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Payment counts and amounts per method and status. Averages are over completed payments; the failure rate is
+ * the percentage of settled attempts (completed or failed) that failed.
+ */
+public record PaymentAnalytics(
+        Instant from,
+        Instant to,
+        long payments,
+        BigDecimal completedAmount,
+        double failureRate,
+        Map<Payment.PaymentMethod, MethodStats> byMethod,
+        Instant computedAt) {
+
+    public record MethodStats(
+            long payments,
+            long completed,
+            long failed,
+            BigDecimal completedAmount,
+            BigDecimal averageAmount,
+            double failureRate,
+            Map<Payment.PaymentStatus, StatusTotal> byStatus) {
+    }
+
+    public record StatusTotal(long payments, BigDecimal amount) {
+    }
+
+    public static double failureRate(long failed, long completed) {
+        long settled = failed + completed;
+        return settled == 0 ? 0.0 : (failed * 100.0) / settled;
+    }
+}
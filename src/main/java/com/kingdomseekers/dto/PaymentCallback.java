@@ -0,0 +1,26 @@
+package com.kingdomseekers.dto;
+
+import com.kingdomseekers.entity.Payment;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A provider payment notification normalized from its wire format. {@code transactionReference} is the
+ * provider's id for the transaction; {@code paymentReference} or {@code bookingReference} identify what it
+ * pays for. {@code currency} is null in records journaled before it was captured.
+ */
+public record PaymentCallback(
+        Payment.PaymentMethod paymentMethod,
+        String transactionReference,
+        String paymentReference,
+        String bookingReference,
+        boolean successful,
+        BigDecimal amount,
+        String currency,
+        String receiptNumber,
+        String phoneNumber,
+        String bankReference,
+        String failureReason,
+        Instant receivedAt) {
+}
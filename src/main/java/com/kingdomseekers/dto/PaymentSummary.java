@@ -0,0 +1,21 @@
+package com.kingdomseekers.dto;
+
+import com.kingdomseekers.entity.Payment;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Flat read model for payment lists, carrying the booking reference instead of the lazy booking.
+ */
+public record PaymentSummary(
+        Long id,
+        Long bookingId,
+        String bookingReference,
+        String transactionReference,
+        String paymentReference,
+        BigDecimal amount,
+        Payment.PaymentMethod paymentMethod,
+        Payment.PaymentStatus status,
+        Instant paymentDate) {
+}
@@ -0,0 +1,37 @@
+package com.kingdomseekers.dto;
+
+import com.kingdomseekers.entity.Payment;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Outcome of reconciling a statement against the payments of a period. Clean matches are only counted; every
+ * exception is listed.
+ */
+public record ReconciliationReport(
+        Instant from,
+        Instant to,
+        long linesRead,
+        long linesIgnored,
+        long matched,
+        List<AmountMismatch> amountMismatches,
+        List<StatusMismatch> statusMismatches,
+        List<StatementLine> duplicateLines,
+        List<StatementLine> unmatchedLines,
+        List<UnmatchedPayment> unmatchedPayments) {
+
+    public record StatementLine(long line, String reference, BigDecimal amount, String date) {
+    }
+
+    public record AmountMismatch(StatementLine line, Long paymentId, String paymentReference, BigDecimal paymentAmount) {
+    }
+
+    public record StatusMismatch(StatementLine line, Long paymentId, String paymentReference, Payment.PaymentStatus status) {
+    }
+
+    public record UnmatchedPayment(Long paymentId, String paymentReference, String transactionReference,
+                                   BigDecimal amount, Instant paidAt) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.kingdomseekers.dto;
+
+import com.kingdomseekers.entity.Room;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record RoomStatsSnapshot(
+        long totalRooms,
+        long availableRooms,
+        long occupiedRooms,
+        double occupancyRate,
+        Map<Room.RoomType, Occupancy> occupancyByType,
+        Map<Room.PackageType, Occupancy> occupancyByPackageType,
+        Instant computedAt) {
+
+    public record Occupancy(long totalRooms, long occupiedRooms, double occupancyRate) {
+
+        public static Occupancy of(long totalRooms, long occupiedRooms) {
+            return new Occupancy(totalRooms, occupiedRooms, rate(occupiedRooms, totalRooms));
+        }
+    }
+
+    public static double rate(long occupied, long total) {
+        return total == 0 ? 0.0 : (occupied * 100.0) / total;
+    }
+}
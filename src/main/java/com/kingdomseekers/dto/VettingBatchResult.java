@@ -0,0 +1,7 @@
+package com.kingdomseekers.dto;
+
+import java.util.List;
+
+/** Outcome of a bulk vetting submission; {@code notClaimed} lists members the reviewer no longer held. */
+public record VettingBatchResult(int approved, int rejected, List<Long> notClaimed) {
+}
@@ -0,0 +1,6 @@
+package com.kingdomseekers.dto;
+
+import com.kingdomseekers.entity.Member;
+
+public record VettingDecision(Long memberId, Member.VettingStatus status) {
+}
@@ -0,0 +1,6 @@
+package com.kingdomseekers.dto;
+
+import java.time.Instant;
+
+public record VettingQueueStats(long pending, long claimed, Instant oldestPendingSince, Instant asOf) {
+}
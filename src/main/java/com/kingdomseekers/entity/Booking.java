@@ -1,5 +1,7 @@
 package com.kingdomseekers.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.kingdomseekers.event.BookingEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -11,10 +13,14 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "bookings")
+@EntityListeners(BookingEntityListener.class)
+@NamedEntityGraph(name = Booking.WITH_ROOM, attributeNodes = @NamedAttributeNode("room"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Booking {
+    public static final String WITH_ROOM = "Booking.withRoom";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -64,6 +70,16 @@ public class Booking {
     @Column(name = "updated_at")
     private Instant updatedAt = Instant.now();
     
+    @Version
+    @Column(nullable = false)
+    @JsonIgnore
+    private Long version;
+    
+    /** State as last read from or written to the database, used to publish status transitions. */
+    @Transient
+    @JsonIgnore
+    private State persistedState;
+    
     public enum PaymentMethod {
         M_PESA, BANK_TRANSFER, CASH, CREDIT_CARD
     }
@@ -72,10 +88,18 @@ public class Booking {
         PENDING, CONFIRMED, CHECKED_IN, CHECKED_OUT, CANCELLED, NO_SHOW
     }
     
+    public record State(BookingStatus status, Long roomId, LocalDate checkInDate, LocalDate checkOutDate,
+                        BigDecimal totalAmount) {
+        public static State of(Booking booking) {
+            return new State(booking.getStatus(), booking.getRoom() != null ? booking.getRoom().getId() : null,
+                    booking.getCheckInDate(), booking.getCheckOutDate(), booking.getTotalAmount());
+        }
+    }
+    
     @PrePersist
     public void prePersist() {
         if (this.bookingReference == null) {
-            this.bookingReference = "HG-" + System.currentTimeMillis();
+            this.bookingReference = ReferenceGenerator.next("HG");
         }
         if (this.checkInDate != null && this.checkOutDate != null) {
             this.numberOfNights = (int) java.time.temporal.ChronoUnit.DAYS.between(this.checkInDate, this.checkOutDate);
@@ -0,0 +1,33 @@
+package com.kingdomseekers.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One row per day of recognised booking revenue (by check-in date) and completed payments (by payment date).
+ */
+@Entity
+@Table(name = "daily_revenue")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyRevenue {
+    @Id
+    @Column(name = "revenue_date")
+    private LocalDate revenueDate;
+    
+    @Column(name = "booking_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal bookingRevenue = BigDecimal.ZERO;
+    
+    @Column(name = "payment_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal paymentRevenue = BigDecimal.ZERO;
+    
+    @Column(name = "updated_at")
+    private Instant updatedAt = Instant.now();
+}
@@ -1,5 +1,7 @@
 package com.kingdomseekers.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.kingdomseekers.event.DonationEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -10,12 +12,14 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "donations")
+@EntityListeners(DonationEntityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Donation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "donation_seq")
+    @SequenceGenerator(name = "donation_seq", sequenceName = "donation_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
@@ -32,7 +36,28 @@ public class Donation {
     private String paymentMethod;
     private Instant donationDate = Instant.now();
     
+    /** State as last read from or written to the database, used to keep campaign totals and analytics current. */
+    @Transient
+    @JsonIgnore
+    private State persistedState;
+    
     public enum DonationType {
         TITHE, OFFERING, SPECIAL_PROJECT, MISSIONARY, OTHER
     }
+    
+    public record State(String campaignCode, String currency, Long memberId, BigDecimal amount,
+                        DonationType type, Instant donationDate) {
+        public static State of(Donation donation) {
+            return new State(donation.getCampaignCode(), donation.getCurrency(),
+                    donation.getMember() != null ? donation.getMember().getId() : null, donation.getAmount(),
+                    donation.getType(), donation.getDonationDate());
+        }
+    }
+    
+    @PrePersist
+    public void prePersist() {
+        if (this.transactionReference == null) {
+            this.transactionReference = ReferenceGenerator.next("DON");
+        }
+    }
 }
\ No newline at end of file
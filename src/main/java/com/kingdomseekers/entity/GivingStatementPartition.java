@@ -0,0 +1,51 @@
+package com.kingdomseekers.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * The rendered statements (NDJSON, one member per line) for one member-id range of a year's run.
+ */
+@Entity
+@Table(name = "giving_statement_partitions")
+@IdClass(GivingStatementPartition.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GivingStatementPartition {
+    @Id
+    @Column(name = "statement_year")
+    private Integer year;
+    
+    @Id
+    @Column(name = "first_id")
+    private Long firstId;
+    
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+    
+    @Column(name = "statements", nullable = false)
+    private int statements;
+    
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    @Column(name = "content", nullable = false)
+    private String content;
+    
+    @Column(name = "rendered_at", nullable = false)
+    private Instant renderedAt;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Integer year;
+        private Long firstId;
+    }
+}
@@ -0,0 +1,54 @@
+package com.kingdomseekers.entity;
+
+import com.kingdomseekers.dto.GivingStatementJobStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * The latest giving statement run for a calendar year, written by the replica running it as partitions finish.
+ */
+@Entity
+@Table(name = "giving_statement_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GivingStatementRun {
+    @Id
+    @Column(name = "statement_year")
+    private Integer year;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "state", nullable = false, length = 20)
+    private GivingStatementJobStatus.State state;
+    
+    @Column(name = "total_partitions", nullable = false)
+    private int totalPartitions;
+    
+    @Column(name = "completed_partitions", nullable = false)
+    private int completedPartitions;
+    
+    @Column(name = "skipped_partitions", nullable = false)
+    private int skippedPartitions;
+    
+    @Column(name = "failed_partitions", nullable = false)
+    private int failedPartitions;
+    
+    @Column(name = "statements_written", nullable = false)
+    private long statementsWritten;
+    
+    @Column(name = "started_by")
+    private String startedBy;
+    
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+    
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+}
@@ -1,24 +1,36 @@
 package com.kingdomseekers.entity;
 
+import com.kingdomseekers.event.CacheInvalidationListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.Instant;
 
 @Entity
 @Table(name = "members")
+@EntityListeners(CacheInvalidationListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "members")
+@NaturalIdCache(region = "member-emails")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Member {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq")
+    @SequenceGenerator(name = "member_seq", sequenceName = "member_seq", allocationSize = 50)
     private Long id;
     
     private String firstName;
     private String lastName;
+    @NaturalId(mutable = true)
     private String email;
     private String nationality;
     private String countryOfResidence;
@@ -27,9 +39,15 @@ public class Member {
     @Enumerated(EnumType.STRING)
     private VettingStatus vettingStatus = VettingStatus.PENDING;
     
+    // Resolved by id so a cached member picks up its pastor from the pastors region instead of a join
     @ManyToOne
+    @Fetch(FetchMode.SELECT)
     private Pastor assignedPastor;
     
+    /** The reviewer holding this member in their vetting batch, until {@link #vettingClaimExpiresAt}. */
+    private String vettingClaimedBy;
+    private Instant vettingClaimExpiresAt;
+    
     private Instant approvedAt;
     private Instant createdAt = Instant.now();
     
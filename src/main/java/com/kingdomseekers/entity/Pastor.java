@@ -1,14 +1,22 @@
 package com.kingdomseekers.entity;
 
+import com.kingdomseekers.event.CacheInvalidationListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.Instant;
 
 @Entity
 @Table(name = "pastors")
+@EntityListeners(CacheInvalidationListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pastors")
+@NaturalIdCache(region = "pastor-emails")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,6 +27,7 @@ public class Pastor {
     
     private String firstName;
     private String lastName;
+    @NaturalId(mutable = true)
     private String email;
     private String churchBranch;
     private String countryCode;
@@ -1,5 +1,7 @@
 package com.kingdomseekers.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.kingdomseekers.event.PaymentEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -10,10 +12,16 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "payments")
+@EntityListeners(PaymentEntityListener.class)
+@NamedEntityGraph(name = Payment.WITH_BOOKING,
+        attributeNodes = @NamedAttributeNode(value = "booking", subgraph = "booking"),
+        subgraphs = @NamedSubgraph(name = "booking", attributeNodes = @NamedAttributeNode("room")))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Payment {
+    public static final String WITH_BOOKING = "Payment.withBooking";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -60,6 +68,11 @@ public class Payment {
     @Column(name = "updated_at")
     private Instant updatedAt = Instant.now();
     
+    /** State as last read from or written to the database, used to publish status transitions. */
+    @Transient
+    @JsonIgnore
+    private State persistedState;
+    
     public enum PaymentMethod {
         M_PESA, BANK_TRANSFER, CASH, CREDIT_CARD
     }
@@ -68,6 +81,21 @@ public class Payment {
         PENDING, PROCESSING, COMPLETED, FAILED, CANCELLED, REFUNDED
     }
     
+    /** {@code paidAt} is the payment date, or the creation time for payments recorded without one. */
+    public record State(PaymentStatus status, PaymentMethod paymentMethod, BigDecimal amount, Instant paidAt) {
+        public static State of(Payment payment) {
+            return new State(payment.getStatus(), payment.getPaymentMethod(), payment.getAmount(),
+                    payment.getPaymentDate() != null ? payment.getPaymentDate() : payment.getCreatedAt());
+        }
+    }
+    
+    @PrePersist
+    public void prePersist() {
+        if (this.paymentReference == null) {
+            this.paymentReference = ReferenceGenerator.next("PAY");
+        }
+    }
+    
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = Instant.now();
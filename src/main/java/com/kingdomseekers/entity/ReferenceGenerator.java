@@ -0,0 +1,113 @@
+package com.kingdomseekers.entity;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style reference ids: 41 bits of milliseconds since 2024-01-01, 10 bits of node id and a
+ * 12 bit per-millisecond sequence, rendered in base 36. Ids are unique across JVMs and restarts as long as
+ * each replica runs with a distinct node id (NODE_ID, required in prod; elsewhere a hash of HOSTNAME) and
+ * the clock does not step back across a restart. Timestamps are never issued ahead of the clock: an
+ * exhausted sequence waits for the next millisecond, and a clock that stepped back is waited out.
+ */
+public final class ReferenceGenerator {
+
+    private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    /** Longest backwards clock step waited out; a larger one fails the call rather than stalling it. */
+    private static final long MAX_CLOCK_STEP_BACK_MILLIS = 5_000;
+
+    private static final String CONFIGURED_NODE = System.getenv("NODE_ID");
+
+    private static final ReferenceGenerator DEFAULT = new ReferenceGenerator(resolveNodeId());
+
+    private final long node;
+    /** Last issued (timestamp << SEQUENCE_BITS | sequence). */
+    private final AtomicLong state = new AtomicLong();
+
+    public ReferenceGenerator(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE);
+        }
+        this.node = nodeId;
+    }
+
+    public static String next(String prefix) {
+        return DEFAULT.nextReference(prefix);
+    }
+
+    public String nextReference(String prefix) {
+        return prefix + "-" + Long.toString(nextId(), 36).toUpperCase();
+    }
+
+    public long nextId() {
+        while (true) {
+            long now = System.currentTimeMillis() - EPOCH;
+            long current = state.get();
+            long last = current >>> SEQUENCE_BITS;
+            long updated;
+            if (now > last) {
+                updated = now << SEQUENCE_BITS;
+            } else if (now == last && (current & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                updated = current + 1;
+            } else {
+                // Sequence exhausted for this millisecond, or the clock stepped backwards
+                awaitClock(last, now);
+                continue;
+            }
+            if (state.compareAndSet(current, updated)) {
+                return (now << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | (updated & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /** The node id of the shared generator, failing if NODE_ID is set but invalid. */
+    public static long defaultNodeId() {
+        return DEFAULT.node;
+    }
+
+    public static boolean hasConfiguredNodeId() {
+        return CONFIGURED_NODE != null && !CONFIGURED_NODE.isBlank();
+    }
+
+    private static void awaitClock(long last, long now) {
+        long behind = last - now;
+        if (behind > MAX_CLOCK_STEP_BACK_MILLIS) {
+            throw new IllegalStateException("Clock moved backwards by " + behind + " ms; refusing to issue ids");
+        }
+        if (behind <= 0) {
+            Thread.onSpinWait();
+            return;
+        }
+        try {
+            Thread.sleep(behind);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the clock to catch up", e);
+        }
+    }
+
+    private static long resolveNodeId() {
+        if (hasConfiguredNodeId()) {
+            long configured;
+            try {
+                configured = Long.parseLong(CONFIGURED_NODE.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("NODE_ID must be a number, got '" + CONFIGURED_NODE + "'");
+            }
+            if (configured < 0 || configured > MAX_NODE) {
+                throw new IllegalStateException("NODE_ID must be between 0 and " + MAX_NODE + ", got " + configured);
+            }
+            return configured;
+        }
+        String hostname = System.getenv("HOSTNAME");
+        if (hostname != null && !hostname.isBlank()) {
+            return (hostname.hashCode() & 0x7fffffff) % (MAX_NODE + 1);
+        }
+        return ThreadLocalRandom.current().nextLong(MAX_NODE + 1);
+    }
+}
@@ -0,0 +1,29 @@
+package com.kingdomseekers.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A named, time-limited lease held by one application instance, so singleton background jobs run on only
+ * one replica at a time.
+ */
+@Entity
+@Table(name = "scheduler_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulerLease {
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+    
+    @Column(name = "holder", nullable = false)
+    private String holder;
+    
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,14 @@
+package com.kingdomseekers.event;
+
+import com.kingdomseekers.entity.Booking;
+
+/**
+ * Published whenever a booking row is inserted, updated or deleted. {@code before} is null for inserts and
+ * {@code after} is null for deletes.
+ */
+public record BookingChangedEvent(Long bookingId, Booking.State before, Booking.State after) {
+
+    public boolean statusChanged() {
+        return before == null || after == null || before.status() != after.status();
+    }
+}
@@ -0,0 +1,52 @@
+package com.kingdomseekers.event;
+
+import com.kingdomseekers.entity.Booking;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA lifecycle listener turning booking writes into {@link BookingChangedEvent}s. Instantiated by Hibernate
+ * through Spring's bean container so it can publish application events.
+ */
+@Component
+public class BookingEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public BookingEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostLoad
+    public void onLoad(Booking booking) {
+        booking.setPersistedState(Booking.State.of(booking));
+    }
+
+    @PostPersist
+    public void onPersist(Booking booking) {
+        Booking.State after = Booking.State.of(booking);
+        booking.setPersistedState(after);
+        eventPublisher.publishEvent(new BookingChangedEvent(booking.getId(), null, after));
+    }
+
+    @PostUpdate
+    public void onUpdate(Booking booking) {
+        Booking.State after = Booking.State.of(booking);
+        // Without a loaded snapshot the transition is unknown; periodic reconciliation covers that case.
+        Booking.State before = booking.getPersistedState() != null ? booking.getPersistedState() : after;
+        booking.setPersistedState(after);
+        eventPublisher.publishEvent(new BookingChangedEvent(booking.getId(), before, after));
+    }
+
+    @PostRemove
+    public void onRemove(Booking booking) {
+        Booking.State before = booking.getPersistedState() != null ? booking.getPersistedState() : Booking.State.of(booking);
+        eventPublisher.publishEvent(new BookingChangedEvent(booking.getId(), before, null));
+    }
+}
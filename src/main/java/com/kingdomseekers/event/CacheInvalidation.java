@@ -0,0 +1,14 @@
+package com.kingdomseekers.event;
+
+/**
+ * A cached entity row that another replica must drop. {@code id == null} drops every row of {@code entity};
+ * {@link #ALL} as the entity drops every cached region.
+ */
+public record CacheInvalidation(String entity, Long id) {
+
+    public static final String ALL = "*";
+
+    public static CacheInvalidation everything() {
+        return new CacheInvalidation(ALL, null);
+    }
+}
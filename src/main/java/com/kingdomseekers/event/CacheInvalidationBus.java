@@ -0,0 +1,18 @@
+package com.kingdomseekers.event;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries cache invalidations between backend replicas: second-level cache rows, and bookings for the room
+ * availability index. Each replica keeps its own caches current; the bus only tells the others. Which
+ * transport is active is chosen by {@code cache.invalidation.transport}; tests can substitute their own
+ * implementation.
+ */
+public interface CacheInvalidationBus {
+
+    /** Sends {@code invalidation} to the other replicas; called after the changing transaction commits. */
+    void publish(CacheInvalidation invalidation);
+
+    /** Registers a handler for invalidations published by other replicas. */
+    void subscribe(Consumer<CacheInvalidation> subscriber);
+}
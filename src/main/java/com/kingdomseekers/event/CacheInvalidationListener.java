@@ -0,0 +1,60 @@
+package com.kingdomseekers.event;
+
+import com.kingdomseekers.entity.Member;
+import com.kingdomseekers.entity.Pastor;
+import com.kingdomseekers.entity.Room;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA lifecycle listener on the second-level cached entities. Updates and deletes are announced on the
+ * {@link CacheInvalidationBus} once the transaction commits, so other replicas never evict before the new row
+ * is visible and then re-cache the old one. Inserts need no message: no replica can have cached a new id.
+ */
+@Component
+public class CacheInvalidationListener {
+
+    private final CacheInvalidationBus bus;
+
+    @Autowired
+    public CacheInvalidationListener(CacheInvalidationBus bus) {
+        this.bus = bus;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        Long id = idOf(entity);
+        if (id == null) {
+            return;
+        }
+        CacheInvalidation invalidation = new CacheInvalidation(entity.getClass().getSimpleName(), id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bus.publish(invalidation);
+                }
+            });
+        } else {
+            bus.publish(invalidation);
+        }
+    }
+
+    private static Long idOf(Object entity) {
+        if (entity instanceof Room room) {
+            return room.getId();
+        }
+        if (entity instanceof Pastor pastor) {
+            return pastor.getId();
+        }
+        if (entity instanceof Member member) {
+            return member.getId();
+        }
+        return null;
+    }
+}
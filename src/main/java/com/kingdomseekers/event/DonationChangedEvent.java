@@ -0,0 +1,10 @@
+package com.kingdomseekers.event;
+
+import com.kingdomseekers.entity.Donation;
+
+/**
+ * Published whenever a donation row is inserted, updated or deleted. {@code before} is null for inserts and
+ * {@code after} is null for deletes.
+ */
+public record DonationChangedEvent(Long donationId, Donation.State before, Donation.State after) {
+}
@@ -0,0 +1,75 @@
+package com.kingdomseekers.event;
+
+import com.kingdomseekers.entity.Donation;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Publishes {@link DonationChangedEvent}s for donation writes; bulk imports go through the same callbacks.
+ * Each write is also announced on the {@link CacheInvalidationBus} once it commits, so other replicas'
+ * donation totals and analytics know to catch up.
+ */
+@Component
+public class DonationEntityListener {
+
+    private static final String ENTITY = Donation.class.getSimpleName();
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheInvalidationBus bus;
+
+    @Autowired
+    public DonationEntityListener(ApplicationEventPublisher eventPublisher, CacheInvalidationBus bus) {
+        this.eventPublisher = eventPublisher;
+        this.bus = bus;
+    }
+
+    @PostLoad
+    public void onLoad(Donation donation) {
+        donation.setPersistedState(Donation.State.of(donation));
+    }
+
+    @PostPersist
+    public void onPersist(Donation donation) {
+        Donation.State after = Donation.State.of(donation);
+        donation.setPersistedState(after);
+        eventPublisher.publishEvent(new DonationChangedEvent(donation.getId(), null, after));
+        announce(donation.getId());
+    }
+
+    @PostUpdate
+    public void onUpdate(Donation donation) {
+        Donation.State after = Donation.State.of(donation);
+        Donation.State before = donation.getPersistedState() != null ? donation.getPersistedState() : after;
+        donation.setPersistedState(after);
+        eventPublisher.publishEvent(new DonationChangedEvent(donation.getId(), before, after));
+        announce(donation.getId());
+    }
+
+    @PostRemove
+    public void onRemove(Donation donation) {
+        Donation.State before = donation.getPersistedState() != null ? donation.getPersistedState() : Donation.State.of(donation);
+        eventPublisher.publishEvent(new DonationChangedEvent(donation.getId(), before, null));
+        announce(donation.getId());
+    }
+
+    private void announce(Long id) {
+        CacheInvalidation invalidation = new CacheInvalidation(ENTITY, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bus.publish(invalidation);
+                }
+            });
+        } else {
+            bus.publish(invalidation);
+        }
+    }
+}
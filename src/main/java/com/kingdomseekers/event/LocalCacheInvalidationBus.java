@@ -0,0 +1,50 @@
+package com.kingdomseekers.event;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process bus for a single replica, local development and tests. Like the Postgres transport it never
+ * hands an invalidation back to the bus that published it, so on its own it delivers nothing: there are no
+ * other replicas. Tests that stand up several replicas in one JVM give each its own bus from {@link #connect()}.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.transport", havingValue = "local", matchIfMissing = true)
+public class LocalCacheInvalidationBus implements CacheInvalidationBus {
+
+    /** Every bus on this in-process network, this one included. */
+    private final List<LocalCacheInvalidationBus> network;
+    private final List<Consumer<CacheInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+    public LocalCacheInvalidationBus() {
+        this(new CopyOnWriteArrayList<>());
+    }
+
+    private LocalCacheInvalidationBus(List<LocalCacheInvalidationBus> network) {
+        this.network = network;
+        network.add(this);
+    }
+
+    /** A bus for another replica, which hears what this one publishes and the other way round. */
+    public LocalCacheInvalidationBus connect() {
+        return new LocalCacheInvalidationBus(network);
+    }
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        for (LocalCacheInvalidationBus replica : network) {
+            if (replica != this) {
+                replica.subscribers.forEach(subscriber -> subscriber.accept(invalidation));
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+}
@@ -0,0 +1,14 @@
+package com.kingdomseekers.event;
+
+import com.kingdomseekers.entity.Payment;
+
+/**
+ * Published whenever a payment row is inserted, updated or deleted. {@code before} is null for inserts and
+ * {@code after} is null for deletes.
+ */
+public record PaymentChangedEvent(Long paymentId, Payment.State before, Payment.State after) {
+
+    public boolean statusChanged() {
+        return before == null || after == null || before.status() != after.status();
+    }
+}
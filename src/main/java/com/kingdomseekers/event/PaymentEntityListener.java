@@ -0,0 +1,51 @@
+package com.kingdomseekers.event;
+
+import com.kingdomseekers.entity.Payment;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes {@link PaymentChangedEvent}s for payment writes, in the same way as {@link BookingEntityListener}.
+ */
+@Component
+public class PaymentEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public PaymentEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostLoad
+    public void onLoad(Payment payment) {
+        payment.setPersistedState(Payment.State.of(payment));
+    }
+
+    @PostPersist
+    public void onPersist(Payment payment) {
+        Payment.State after = Payment.State.of(payment);
+        payment.setPersistedState(after);
+        eventPublisher.publishEvent(new PaymentChangedEvent(payment.getId(), null, after));
+    }
+
+    @PostUpdate
+    public void onUpdate(Payment payment) {
+        Payment.State after = Payment.State.of(payment);
+        // Without a loaded snapshot the transition is unknown, so it is published as a no-op.
+        Payment.State before = payment.getPersistedState() != null ? payment.getPersistedState() : after;
+        payment.setPersistedState(after);
+        eventPublisher.publishEvent(new PaymentChangedEvent(payment.getId(), before, after));
+    }
+
+    @PostRemove
+    public void onRemove(Payment payment) {
+        Payment.State before = payment.getPersistedState() != null ? payment.getPersistedState() : Payment.State.of(payment);
+        eventPublisher.publishEvent(new PaymentChangedEvent(payment.getId(), before, null));
+    }
+}
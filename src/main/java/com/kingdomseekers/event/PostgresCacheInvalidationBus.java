@@ -0,0 +1,171 @@
+package com.kingdomseekers.event;
+
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
+
+/**
+ * Broadcasts invalidations between replicas with Postgres {@code LISTEN/NOTIFY}, so no extra infrastructure
+ * is needed. Listening holds one dedicated connection outside the pool; Neon's pooled endpoint cannot
+ * {@code LISTEN}, so {@code cache.invalidation.listen-url} may point at the direct endpoint instead.
+ * Notifications sent while the listener was disconnected are lost, so every (re)connect clears all regions.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.transport", havingValue = "postgres")
+public class PostgresCacheInvalidationBus implements CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresCacheInvalidationBus.class);
+
+    private static final String CHANNEL = "cache_invalidation";
+    private static final int POLL_MILLIS = 5_000;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final DataSource dataSource;
+    private final String listenUrl;
+    private final String username;
+    private final String password;
+    /** Tags outgoing messages so this replica ignores its own. */
+    private final String origin = UUID.randomUUID().toString();
+    private final List<Consumer<CacheInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private Thread listener;
+
+    @Autowired
+    public PostgresCacheInvalidationBus(DataSource dataSource,
+                                        @Value("${cache.invalidation.listen-url:${spring.datasource.url}}") String listenUrl,
+                                        @Value("${spring.datasource.username}") String username,
+                                        @Value("${spring.datasource.password}") String password) {
+        this.dataSource = dataSource;
+        this.listenUrl = listenUrl;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        String payload = origin + "|" + invalidation.entity() + "|" + (invalidation.id() != null ? invalidation.id() : "");
+        // A fresh pooled connection: publish runs after commit, while the finished transaction's connection is
+        // still bound and would swallow the NOTIFY in a transaction that never commits.
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            if (!connection.getAutoCommit()) {
+                connection.setAutoCommit(true);
+            }
+            statement.setString(1, CHANNEL);
+            statement.setString(2, payload);
+            statement.execute();
+        } catch (SQLException e) {
+            // Other replicas keep the stale row until it expires from their region
+            log.warn("Could not publish cache invalidation {}: {}", invalidation, e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen() {
+        long backoff = 1_000;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(listenUrl, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("Listening for cache invalidations on channel {}", CHANNEL);
+                dispatch(CacheInvalidation.everything());
+                backoff = 1_000;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        CacheInvalidation invalidation = parse(notification.getParameter());
+                        if (invalidation != null) {
+                            dispatch(invalidation);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener disconnected, retrying in {} ms: {}", backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    private CacheInvalidation parse(String payload) {
+        String[] parts = payload.split("\\|", -1);
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed cache invalidation '{}'", payload);
+            return null;
+        }
+        if (parts[0].equals(origin)) {
+            return null;
+        }
+        try {
+            return new CacheInvalidation(parts[1], parts[2].isEmpty() ? null : Long.valueOf(parts[2]));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed cache invalidation '{}'", payload);
+            return null;
+        }
+    }
+
+    private void dispatch(CacheInvalidation invalidation) {
+        for (Consumer<CacheInvalidation> subscriber : subscribers) {
+            try {
+                subscriber.accept(invalidation);
+            } catch (RuntimeException e) {
+                log.warn("Cache invalidation subscriber failed for {}", invalidation, e);
+            }
+        }
+    }
+}
@@ -1,42 +1,162 @@
 package com.kingdomseekers.repository;
 
+import com.kingdomseekers.dto.BookingSummary;
+import com.kingdomseekers.dto.FrontDeskManifest;
 import com.kingdomseekers.entity.Booking;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     
+    @Override
+    @EntityGraph(Booking.WITH_ROOM)
+    Optional<Booking> findById(Long id);
+    
+    @EntityGraph(Booking.WITH_ROOM)
     Optional<Booking> findByBookingReference(String bookingReference);
     
+    @EntityGraph(Booking.WITH_ROOM)
     List<Booking> findByStatus(Booking.BookingStatus status);
     
+    @EntityGraph(Booking.WITH_ROOM)
     List<Booking> findByRoomId(Long roomId);
     
+    @EntityGraph(Booking.WITH_ROOM)
     List<Booking> findByGuestEmail(String guestEmail);
     
+    @EntityGraph(Booking.WITH_ROOM)
     List<Booking> findByCheckInDateBetween(LocalDate startDate, LocalDate endDate);
     
+    @EntityGraph(Booking.WITH_ROOM)
     List<Booking> findByCheckOutDateBetween(LocalDate startDate, LocalDate endDate);
     
+    @EntityGraph(Booking.WITH_ROOM)
     @Query("SELECT b FROM Booking b WHERE b.checkInDate <= :date AND b.checkOutDate > :date")
     List<Booking> findActiveBookingsOnDate(@Param("date") LocalDate date);
     
+    @EntityGraph(Booking.WITH_ROOM)
+    List<Booking> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT b FROM Booking b JOIN FETCH b.room ORDER BY b.id")
+    Stream<Booking> streamAllBy();
+    
+    @Query("SELECT new com.kingdomseekers.dto.BookingSummary(b.id, b.bookingReference, r.id, r.roomNumber, r.type, " +
+           "b.guestName, b.guestEmail, b.checkInDate, b.checkOutDate, b.numberOfNights, b.totalAmount, b.status) " +
+           "FROM Booking b JOIN b.room r WHERE b.id > :after ORDER BY b.id")
+    List<BookingSummary> findSummariesAfter(@Param("after") Long after, Pageable pageable);
+    
+    @Query("SELECT b.id AS id, b.room.id AS roomId, b.checkInDate AS checkInDate, b.checkOutDate AS checkOutDate " +
+           "FROM Booking b WHERE b.checkOutDate > :date AND b.status IN :statuses")
+    List<RoomStay> findStaysEndingAfter(@Param("date") LocalDate date, @Param("statuses") Collection<Booking.BookingStatus> statuses);
+    
+    /** Bookings of {@code roomId} in {@code statuses} holding any night of [checkIn, checkOut), other than {@code ignoredId}. */
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.room.id = :roomId AND b.status IN :statuses " +
+           "AND b.checkInDate < :checkOut AND b.checkOutDate > :checkIn AND b.id <> :ignoredId")
+    long countOverlappingStays(@Param("roomId") Long roomId, @Param("checkIn") LocalDate checkIn,
+                               @Param("checkOut") LocalDate checkOut,
+                               @Param("statuses") Collection<Booking.BookingStatus> statuses,
+                               @Param("ignoredId") Long ignoredId);
+    
+    @Query("SELECT b.id AS id, b.room.id AS roomId, b.checkInDate AS checkInDate, b.checkOutDate AS checkOutDate " +
+           "FROM Booking b WHERE b.id = :id AND b.status IN :statuses")
+    Optional<RoomStay> findStayById(@Param("id") Long id, @Param("statuses") Collection<Booking.BookingStatus> statuses);
+    
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.status = :status")
     Long countByStatus(@Param("status") Booking.BookingStatus status);
     
-    @Query("SELECT SUM(b.totalAmount) FROM Booking b WHERE b.status = 'CONFIRMED' AND b.checkInDate >= :startDate AND b.checkInDate <= :endDate")
-    Double getTotalRevenueForPeriod(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    @Query("SELECT b.status AS status, COUNT(b) AS total FROM Booking b GROUP BY b.status")
+    List<StatusCount> countGroupedByStatus();
     
+    @Query("SELECT b.checkInDate AS day, SUM(b.totalAmount) AS total FROM Booking b " +
+           "WHERE b.status IN :statuses GROUP BY b.checkInDate")
+    List<DailyTotal> sumTotalAmountByCheckInDate(@Param("statuses") Collection<Booking.BookingStatus> statuses);
+    
+    @EntityGraph(Booking.WITH_ROOM)
     @Query("SELECT b FROM Booking b WHERE b.checkInDate = :date AND b.status IN ('CONFIRMED', 'CHECKED_IN')")
     List<Booking> findCheckInsForDate(@Param("date") LocalDate date);
     
+    @EntityGraph(Booking.WITH_ROOM)
     @Query("SELECT b FROM Booking b WHERE b.checkOutDate = :date AND b.status IN ('CHECKED_IN', 'CONFIRMED')")
     List<Booking> findCheckOutsForDate(@Param("date") LocalDate date);
+    
+    /** Every stay touching {@code date}: arriving, departing or in house, with its room, in one query. */
+    @Query("SELECT new com.kingdomseekers.dto.FrontDeskManifest$Stay(b.id, b.bookingReference, r.id, r.roomNumber, " +
+           "r.type, b.guestName, b.guestEmail, b.guestPhone, b.checkInDate, b.checkOutDate, b.numberOfNights, " +
+           "b.status, b.specialRequests) FROM Booking b JOIN b.room r " +
+           "WHERE b.checkInDate <= :date AND b.checkOutDate >= :date AND b.status IN :statuses " +
+           "ORDER BY r.roomNumber, b.checkInDate")
+    List<FrontDeskManifest.Stay> findStaysTouching(@Param("date") LocalDate date,
+                                                   @Param("statuses") Collection<Booking.BookingStatus> statuses);
+    
+    @Query("SELECT b.id AS id, b.updatedAt AS heldSince FROM Booking b WHERE b.status = 'PENDING'")
+    List<Hold> findPendingHolds();
+    
+    @Query("SELECT b.id AS id, b.updatedAt AS heldSince FROM Booking b " +
+           "WHERE b.status = 'PENDING' AND b.updatedAt >= :since")
+    List<Hold> findPendingHoldsChangedSince(@Param("since") Instant since);
+    
+    @Query("SELECT b.id AS id, b.updatedAt AS heldSince FROM Booking b WHERE b.id IN :ids AND b.status = 'PENDING'")
+    List<Hold> findPendingHoldsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Cancels the still-pending bookings among {@code ids} that have not changed since {@code cutoff}. Bumps
+     * the version, so a status change that read the booking before this commits fails instead of overwriting it.
+     */
+    @Query(value = "UPDATE bookings SET status = 'CANCELLED', updated_at = :now, version = version + 1 " +
+                   "WHERE id IN (:ids) AND status = 'PENDING' AND updated_at <= :cutoff RETURNING id",
+           nativeQuery = true)
+    List<Long> cancelExpiredHolds(@Param("ids") Collection<Long> ids, @Param("cutoff") Instant cutoff,
+                                  @Param("now") Instant now);
+    
+    @Query("SELECT b.id AS id, b.room.id AS roomId, b.checkInDate AS checkInDate, b.checkOutDate AS checkOutDate, " +
+           "b.totalAmount AS totalAmount FROM Booking b WHERE b.id IN :ids")
+    List<StayAmount> findStayAmountsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    interface Hold {
+        Long getId();
+        Instant getHeldSince();
+    }
+    
+    interface StayAmount {
+        Long getId();
+        Long getRoomId();
+        LocalDate getCheckInDate();
+        LocalDate getCheckOutDate();
+        BigDecimal getTotalAmount();
+    }
+    
+    interface RoomStay {
+        Long getId();
+        Long getRoomId();
+        LocalDate getCheckInDate();
+        LocalDate getCheckOutDate();
+    }
+    
+    interface DailyTotal {
+        LocalDate getDay();
+        BigDecimal getTotal();
+    }
+    
+    interface StatusCount {
+        Booking.BookingStatus getStatus();
+        long getTotal();
+    }
 }
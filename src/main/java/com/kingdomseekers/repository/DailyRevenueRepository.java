@@ -0,0 +1,37 @@
+package com.kingdomseekers.repository;
+
+import com.kingdomseekers.entity.DailyRevenue;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+@Repository
+public interface DailyRevenueRepository extends JpaRepository<DailyRevenue, LocalDate> {
+
+    @Query("SELECT COALESCE(SUM(d.bookingRevenue), 0) FROM DailyRevenue d WHERE d.revenueDate BETWEEN :startDate AND :endDate")
+    BigDecimal sumBookingRevenue(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT COALESCE(SUM(d.paymentRevenue), 0) FROM DailyRevenue d WHERE d.revenueDate BETWEEN :startDate AND :endDate")
+    BigDecimal sumPaymentRevenue(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Scoped to its table so the upsert does not evict every second-level cache region
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "daily_revenue"))
+    @Query(value = "INSERT INTO daily_revenue (revenue_date, booking_revenue, payment_revenue, updated_at) " +
+                   "VALUES (:date, :bookingDelta, :paymentDelta, now()) " +
+                   "ON CONFLICT (revenue_date) DO UPDATE SET " +
+                   "booking_revenue = daily_revenue.booking_revenue + EXCLUDED.booking_revenue, " +
+                   "payment_revenue = daily_revenue.payment_revenue + EXCLUDED.payment_revenue, " +
+                   "updated_at = now()", nativeQuery = true)
+    void addDelta(@Param("date") LocalDate date, @Param("bookingDelta") BigDecimal bookingDelta,
+                  @Param("paymentDelta") BigDecimal paymentDelta);
+}
@@ -1,11 +1,20 @@
 package com.kingdomseekers.repository;
 
 import com.kingdomseekers.entity.Donation;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface DonationRepository extends JpaRepository<Donation, Long> {
@@ -13,4 +22,86 @@ public interface DonationRepository extends JpaRepository<Donation, Long> {
     List<Donation> findByType(Donation.DonationType type);
     List<Donation> findByCampaignCode(String campaignCode);
     List<Donation> findByDonationDateBetween(Instant startDate, Instant endDate);
-}
\ No newline at end of file
+
+    List<Donation> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT d FROM Donation d LEFT JOIN FETCH d.member m LEFT JOIN FETCH m.assignedPastor ORDER BY d.id")
+    Stream<Donation> streamAllBy();
+
+    @Query("SELECT MIN(d.member.id) AS firstId, MAX(d.member.id) AS lastId FROM Donation d " +
+           "WHERE d.donationDate >= :from AND d.donationDate < :to")
+    IdRange findDonorIdRange(@Param("from") Instant from, @Param("to") Instant to);
+
+    @Query("SELECT m.id AS memberId, m.firstName AS firstName, m.lastName AS lastName, m.email AS email, " +
+           "d.currency AS currency, d.type AS type, SUM(d.amount) AS total, COUNT(d) AS gifts " +
+           "FROM Donation d JOIN d.member m " +
+           "WHERE m.id BETWEEN :firstId AND :lastId AND d.donationDate >= :from AND d.donationDate < :to " +
+           "GROUP BY m.id, m.firstName, m.lastName, m.email, d.currency, d.type " +
+           "ORDER BY m.id, d.currency, d.type")
+    List<MemberGivingTotal> sumGivingByMember(@Param("firstId") Long firstId, @Param("lastId") Long lastId,
+                                              @Param("from") Instant from, @Param("to") Instant to);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT d.campaignCode AS campaignCode, d.currency AS currency, d.member.id AS memberId, " +
+           "SUM(d.amount) AS total, COUNT(d) AS gifts FROM Donation d WHERE d.campaignCode IS NOT NULL " +
+           "GROUP BY d.campaignCode, d.currency, d.member.id")
+    Stream<CampaignDonorTotal> streamCampaignDonorTotals();
+
+    @Query("SELECT CAST(d.type AS String) AS groupKey, d.currency AS currency, SUM(d.amount) AS total, COUNT(d) AS gifts " +
+           "FROM Donation d WHERE d.donationDate >= :from AND d.donationDate < :to GROUP BY d.type, d.currency")
+    List<CurrencyTotal> sumByTypeAndCurrency(@Param("from") Instant from, @Param("to") Instant to);
+
+    @Query("SELECT d.campaignCode AS groupKey, d.currency AS currency, SUM(d.amount) AS total, COUNT(d) AS gifts " +
+           "FROM Donation d WHERE d.donationDate >= :from AND d.donationDate < :to GROUP BY d.campaignCode, d.currency")
+    List<CurrencyTotal> sumByCampaignAndCurrency(@Param("from") Instant from, @Param("to") Instant to);
+
+    @Query("SELECT d.currency AS groupKey, d.currency AS currency, SUM(d.amount) AS total, COUNT(d) AS gifts " +
+           "FROM Donation d WHERE d.donationDate >= :from AND d.donationDate < :to GROUP BY d.currency")
+    List<CurrencyTotal> sumByCurrency(@Param("from") Instant from, @Param("to") Instant to);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT d.donationDate AS donationDate, d.type AS type, d.campaignCode AS campaignCode, " +
+           "d.currency AS currency, d.member.id AS memberId, d.amount AS amount FROM Donation d ORDER BY d.donationDate")
+    Stream<DonationFact> streamFactsByDate();
+
+    interface IdRange {
+        Long getFirstId();
+        Long getLastId();
+    }
+
+    interface MemberGivingTotal {
+        Long getMemberId();
+        String getFirstName();
+        String getLastName();
+        String getEmail();
+        String getCurrency();
+        Donation.DonationType getType();
+        BigDecimal getTotal();
+        long getGifts();
+    }
+
+    interface CampaignDonorTotal {
+        String getCampaignCode();
+        String getCurrency();
+        Long getMemberId();
+        BigDecimal getTotal();
+        long getGifts();
+    }
+
+    interface CurrencyTotal {
+        String getGroupKey();
+        String getCurrency();
+        BigDecimal getTotal();
+        long getGifts();
+    }
+
+    interface DonationFact {
+        Instant getDonationDate();
+        Donation.DonationType getType();
+        String getCampaignCode();
+        String getCurrency();
+        Long getMemberId();
+        BigDecimal getAmount();
+    }
+}
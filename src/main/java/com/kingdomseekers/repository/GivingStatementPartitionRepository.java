@@ -0,0 +1,39 @@
+package com.kingdomseekers.repository;
+
+import com.kingdomseekers.entity.GivingStatementPartition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface GivingStatementPartitionRepository
+        extends JpaRepository<GivingStatementPartition, GivingStatementPartition.Key> {
+
+    @Query("SELECT p.firstId AS firstId, p.lastId AS lastId FROM GivingStatementPartition p " +
+           "WHERE p.year = :year ORDER BY p.firstId")
+    List<Range> findRanges(@Param("year") int year);
+
+    @Query("SELECT p.content FROM GivingStatementPartition p WHERE p.year = :year AND p.firstId = :firstId")
+    Optional<String> findContent(@Param("year") int year, @Param("firstId") long firstId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM GivingStatementPartition p WHERE p.year = :year")
+    int deleteByYear(@Param("year") int year);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM GivingStatementPartition p WHERE p.year = :year AND p.firstId IN :firstIds")
+    int deleteRanges(@Param("year") int year, @Param("firstIds") List<Long> firstIds);
+
+    interface Range {
+        Long getFirstId();
+        Long getLastId();
+    }
+}
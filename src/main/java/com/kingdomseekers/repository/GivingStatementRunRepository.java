@@ -0,0 +1,13 @@
+package com.kingdomseekers.repository;
+
+import com.kingdomseekers.entity.GivingStatementRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface GivingStatementRunRepository extends JpaRepository<GivingStatementRun, Integer> {
+
+    Optional<GivingStatementRun> findFirstByOrderByStartedAtDesc();
+}
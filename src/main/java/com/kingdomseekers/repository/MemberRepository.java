@@ -1,15 +1,87 @@
 package com.kingdomseekers.repository;
 
 import com.kingdomseekers.entity.Member;
+import com.kingdomseekers.entity.Pastor;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface MemberRepository extends JpaRepository<Member, Long> {
     Optional<Member> findByEmail(String email);
-    List<Member> findByVettingStatus(Member.VettingStatus status);
+    List<Member> findByVettingStatusAndIdGreaterThanOrderByIdAsc(Member.VettingStatus status, Long id, Pageable pageable);
     List<Member> findByCountryOfResidence(String countryCode);
-}
\ No newline at end of file
+
+    List<Member> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<Member> findByAssignedPastorIdAndIdGreaterThanOrderByIdAsc(Long pastorId, Long id, Pageable pageable);
+
+    /** Newest members first, so rebalancing leaves the longest-standing pastoral relationships alone. */
+    @Query("SELECT m.id FROM Member m WHERE m.assignedPastor.id = :pastorId ORDER BY m.id DESC")
+    List<Long> findIdsByAssignedPastor(@Param("pastorId") Long pastorId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Member m SET m.assignedPastor = :pastor WHERE m.id IN :ids")
+    int reassignPastor(@Param("ids") List<Long> ids, @Param("pastor") Pastor pastor);
+
+    /**
+     * Locks the oldest pending members nobody holds a live claim on. Rows locked by a concurrent claim are
+     * skipped rather than waited for, so two reviewers claiming at once get disjoint batches.
+     */
+    @Query(value = "SELECT * FROM members WHERE vetting_status = 'PENDING' " +
+                   "AND (vetting_claim_expires_at IS NULL OR vetting_claim_expires_at < :now) " +
+                   "ORDER BY created_at, id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Member> lockClaimable(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Member m WHERE m.id IN :ids")
+    List<Member> lockAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT COUNT(m) AS pending, " +
+           "COALESCE(SUM(CASE WHEN m.vettingClaimExpiresAt >= :now THEN 1 ELSE 0 END), 0) AS claimed, " +
+           "MIN(m.createdAt) AS oldestPendingSince FROM Member m WHERE m.vettingStatus = 'PENDING'")
+    VettingQueueDepth findVettingQueueDepth(@Param("now") Instant now);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT m FROM Member m LEFT JOIN FETCH m.assignedPastor ORDER BY m.id")
+    Stream<Member> streamAllBy();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT m.id AS id, m.firstName AS firstName, m.lastName AS lastName, m.email AS email, m.phone AS phone, " +
+           "m.vettingStatus AS vettingStatus, m.countryOfResidence AS countryOfResidence, p.id AS assignedPastorId " +
+           "FROM Member m LEFT JOIN m.assignedPastor p")
+    Stream<SearchFields> streamSearchFields();
+
+    interface VettingQueueDepth {
+        long getPending();
+        long getClaimed();
+        Instant getOldestPendingSince();
+    }
+
+    interface SearchFields {
+        Long getId();
+        String getFirstName();
+        String getLastName();
+        String getEmail();
+        String getPhone();
+        Member.VettingStatus getVettingStatus();
+        String getCountryOfResidence();
+        Long getAssignedPastorId();
+    }
+}
@@ -1,15 +1,40 @@
 package com.kingdomseekers.repository;
 
 import com.kingdomseekers.entity.Pastor;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface PastorRepository extends JpaRepository<Pastor, Long> {
     Optional<Pastor> findByEmail(String email);
     List<Pastor> findByChurchBranch(String churchBranch);
     List<Pastor> findByCountryCode(String countryCode);
-}
\ No newline at end of file
+
+    List<Pastor> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Pastor p ORDER BY p.id")
+    Stream<Pastor> streamAllBy();
+
+    @Query("SELECT p.id AS pastorId, p.countryCode AS countryCode, p.churchBranch AS churchBranch, " +
+           "COUNT(m.id) AS members FROM Pastor p LEFT JOIN Member m ON m.assignedPastor = p " +
+           "GROUP BY p.id, p.countryCode, p.churchBranch")
+    List<Caseload> findCaseloads();
+
+    interface Caseload {
+        Long getPastorId();
+        String getCountryCode();
+        String getChurchBranch();
+        long getMembers();
+    }
+}
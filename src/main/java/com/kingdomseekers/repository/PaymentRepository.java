@@ -1,37 +1,137 @@
 package com.kingdomseekers.repository;
 
+import com.kingdomseekers.dto.PaymentSummary;
 import com.kingdomseekers.entity.Payment;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     
+    @EntityGraph(Payment.WITH_BOOKING)
     Optional<Payment> findByTransactionReference(String transactionReference);
     
+    @EntityGraph(Payment.WITH_BOOKING)
     Optional<Payment> findByPaymentReference(String paymentReference);
     
+    @EntityGraph(Payment.WITH_BOOKING)
     List<Payment> findByStatus(Payment.PaymentStatus status);
     
+    @EntityGraph(Payment.WITH_BOOKING)
     List<Payment> findByPaymentMethod(Payment.PaymentMethod paymentMethod);
     
+    @EntityGraph(Payment.WITH_BOOKING)
     List<Payment> findByBookingId(Long bookingId);
     
+    @EntityGraph(Payment.WITH_BOOKING)
     @Query("SELECT p FROM Payment p WHERE p.paymentDate BETWEEN :startDate AND :endDate")
     List<Payment> findByPaymentDateBetween(@Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
     
-    @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.status = 'COMPLETED' AND p.paymentDate BETWEEN :startDate AND :endDate")
-    Double getTotalPaymentsForPeriod(@Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
+    @Query("SELECT new com.kingdomseekers.dto.PaymentSummary(p.id, b.id, b.bookingReference, p.transactionReference, " +
+           "p.paymentReference, p.amount, p.paymentMethod, p.status, p.paymentDate) " +
+           "FROM Payment p JOIN p.booking b WHERE p.status = :status AND p.id > :after ORDER BY p.id")
+    List<PaymentSummary> findSummariesByStatusAfter(@Param("status") Payment.PaymentStatus status,
+                                                    @Param("after") Long after, Pageable pageable);
+    
+    /** Completed amounts per calendar day of payment in {@code zone}, an IANA zone id such as Africa/Nairobi. */
+    @Query(value = "SELECT CAST(COALESCE(payment_date, created_at) AT TIME ZONE :zone AS DATE) AS day, " +
+                   "SUM(amount) AS total FROM payments WHERE status = 'COMPLETED' GROUP BY 1",
+           nativeQuery = true)
+    List<DailyTotal> sumCompletedAmountByPaidDate(@Param("zone") String zone);
+    
+    @EntityGraph(Payment.WITH_BOOKING)
+    List<Payment> findByPaymentReferenceIn(Collection<String> paymentReferences);
+    
+    @Query("SELECT p.transactionReference FROM Payment p WHERE p.transactionReference IN :references")
+    List<String> findExistingTransactionReferences(@Param("references") Collection<String> references);
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.transactionReference FROM Payment p WHERE p.transactionReference IS NOT NULL")
+    Stream<String> streamTransactionReferences();
+    
+    @Query("SELECT p.paymentMethod AS paymentMethod, p.status AS status, COUNT(p) AS payments, SUM(p.amount) AS total " +
+           "FROM Payment p WHERE COALESCE(p.paymentDate, p.createdAt) >= :from AND COALESCE(p.paymentDate, p.createdAt) < :to " +
+           "GROUP BY p.paymentMethod, p.status")
+    List<MethodStatusTotal> sumByMethodAndStatus(@Param("from") Instant from, @Param("to") Instant to);
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id AS id, p.paymentReference AS paymentReference, p.transactionReference AS transactionReference, " +
+           "p.mpesaReceiptNumber AS mpesaReceiptNumber, p.bankReference AS bankReference, p.amount AS amount, " +
+           "p.status AS status, COALESCE(p.paymentDate, p.createdAt) AS paidAt FROM Payment p " +
+           "WHERE COALESCE(p.paymentDate, p.createdAt) >= :from AND COALESCE(p.paymentDate, p.createdAt) < :to")
+    Stream<ReconciliationRow> streamForReconciliation(@Param("from") Instant from, @Param("to") Instant to);
+    
+    @Query("SELECT p.id AS id, p.updatedAt AS heldSince FROM Payment p WHERE p.status IN ('PENDING', 'PROCESSING')")
+    List<Hold> findOpenHolds();
+    
+    @Query("SELECT p.id AS id, p.updatedAt AS heldSince FROM Payment p " +
+           "WHERE p.status IN ('PENDING', 'PROCESSING') AND p.updatedAt >= :since")
+    List<Hold> findOpenHoldsChangedSince(@Param("since") Instant since);
+    
+    @Query("SELECT p.id AS id, p.updatedAt AS heldSince FROM Payment p " +
+           "WHERE p.id IN :ids AND p.status IN ('PENDING', 'PROCESSING')")
+    List<Hold> findOpenHoldsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT p.id AS id, p.status AS status, p.paymentMethod AS paymentMethod, p.amount AS amount, " +
+           "COALESCE(p.paymentDate, p.createdAt) AS paidAt FROM Payment p WHERE p.id IN :ids")
+    List<StateRow> findStatesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /** Fails the still-open payments among {@code ids} that have not changed since {@code cutoff}. */
+    @Query(value = "UPDATE payments SET status = 'FAILED', failure_reason = :reason, updated_at = :now " +
+                   "WHERE id IN (:ids) AND status IN ('PENDING', 'PROCESSING') AND updated_at <= :cutoff RETURNING id",
+           nativeQuery = true)
+    List<Long> failExpiredHolds(@Param("ids") Collection<Long> ids, @Param("cutoff") Instant cutoff,
+                                @Param("now") Instant now, @Param("reason") String reason);
+    
+    interface Hold {
+        Long getId();
+        Instant getHeldSince();
+    }
+    
+    interface StateRow {
+        Long getId();
+        Payment.PaymentStatus getStatus();
+        Payment.PaymentMethod getPaymentMethod();
+        BigDecimal getAmount();
+        Instant getPaidAt();
+    }
+    
+    interface DailyTotal {
+        LocalDate getDay();
+        BigDecimal getTotal();
+    }
     
-    @Query("SELECT COUNT(p) FROM Payment p WHERE p.paymentMethod = :method AND p.status = 'COMPLETED'")
-    Long countByPaymentMethod(@Param("method") Payment.PaymentMethod method);
+    interface MethodStatusTotal {
+        Payment.PaymentMethod getPaymentMethod();
+        Payment.PaymentStatus getStatus();
+        long getPayments();
+        BigDecimal getTotal();
+    }
     
-    @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.paymentMethod = :method AND p.status = 'COMPLETED'")
-    Double getTotalAmountByPaymentMethod(@Param("method") Payment.PaymentMethod method);
+    interface ReconciliationRow {
+        Long getId();
+        String getPaymentReference();
+        String getTransactionReference();
+        String getMpesaReceiptNumber();
+        String getBankReference();
+        BigDecimal getAmount();
+        Payment.PaymentStatus getStatus();
+        Instant getPaidAt();
+    }
 }
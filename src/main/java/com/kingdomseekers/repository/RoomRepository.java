@@ -1,19 +1,34 @@
 package com.kingdomseekers.repository;
 
 import com.kingdomseekers.entity.Room;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Long> {
     
     Optional<Room> findByRoomNumber(String roomNumber);
     
+    /** Reads the room with a row lock held to the end of the transaction; reservations for a room queue on it. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Room r WHERE r.id = :id")
+    Optional<Room> lockById(@Param("id") Long id);
+    
     List<Room> findByStatus(Room.RoomStatus status);
     
     List<Room> findByType(Room.RoomType type);
@@ -31,6 +46,35 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
     @Query("SELECT COUNT(r) FROM Room r")
     Long getTotalRoomCount();
     
+    @Query("SELECT r.type AS type, r.packageType AS packageType, r.status AS status, COUNT(r) AS total " +
+           "FROM Room r GROUP BY r.type, r.packageType, r.status")
+    List<GroupCount> countGroupedByTypePackageAndStatus();
+    
     @Query("SELECT r FROM Room r WHERE r.status = 'AVAILABLE' AND r.type = :type")
     List<Room> findAvailableRoomsByType(@Param("type") Room.RoomType type);
+    
+    @Query("SELECT r FROM Room r WHERE r.status NOT IN :excludedStatuses " +
+           "AND (:type IS NULL OR r.type = :type) " +
+           "AND (:minCapacity IS NULL OR r.capacity >= :minCapacity) " +
+           "AND (:packageType IS NULL OR r.packageType = :packageType) " +
+           "AND (:maxPrice IS NULL OR r.price <= :maxPrice) " +
+           "ORDER BY r.price, r.roomNumber")
+    List<Room> findSearchCandidates(@Param("excludedStatuses") Collection<Room.RoomStatus> excludedStatuses,
+                                    @Param("type") Room.RoomType type,
+                                    @Param("minCapacity") Integer minCapacity,
+                                    @Param("packageType") Room.PackageType packageType,
+                                    @Param("maxPrice") BigDecimal maxPrice);
+    
+    List<Room> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT r FROM Room r ORDER BY r.id")
+    Stream<Room> streamAllBy();
+    
+    interface GroupCount {
+        Room.RoomType getType();
+        Room.PackageType getPackageType();
+        Room.RoomStatus getStatus();
+        long getTotal();
+    }
 }
@@ -0,0 +1,35 @@
+package com.kingdomseekers.repository;
+
+import com.kingdomseekers.entity.SchedulerLease;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    /** Takes or renews the lease; returns 1 if {@code holder} now holds it, 0 if another live holder does. */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "scheduler_leases"))
+    @Query(value = "INSERT INTO scheduler_leases (name, holder, expires_at) VALUES (:name, :holder, :expiresAt) " +
+                   "ON CONFLICT (name) DO UPDATE SET holder = EXCLUDED.holder, expires_at = EXCLUDED.expires_at " +
+                   "WHERE scheduler_leases.holder = EXCLUDED.holder OR scheduler_leases.expires_at < :now",
+           nativeQuery = true)
+    int tryAcquire(@Param("name") String name, @Param("holder") String holder,
+                   @Param("expiresAt") Instant expiresAt, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SchedulerLease l WHERE l.name = :name AND l.holder = :holder")
+    int release(@Param("name") String name, @Param("holder") String holder);
+}
@@ -1,30 +1,52 @@
 package com.kingdomseekers.service;
 
+import com.kingdomseekers.dto.BookingSummary;
 import com.kingdomseekers.entity.Booking;
 import com.kingdomseekers.entity.Room;
 import com.kingdomseekers.repository.BookingRepository;
 import com.kingdomseekers.repository.RoomRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class BookingService {
     
     private final BookingRepository bookingRepository;
     private final RoomRepository roomRepository;
+    private final BookingStatsService bookingStatsService;
+    private final RevenueLedgerService revenueLedgerService;
+    private final TransactionTemplate transactionTemplate;
     
     @Autowired
-    public BookingService(BookingRepository bookingRepository, RoomRepository roomRepository) {
+    public BookingService(BookingRepository bookingRepository, RoomRepository roomRepository,
+                          BookingStatsService bookingStatsService, RevenueLedgerService revenueLedgerService,
+                          PlatformTransactionManager transactionManager) {
         this.bookingRepository = bookingRepository;
         this.roomRepository = roomRepository;
+        this.bookingStatsService = bookingStatsService;
+        this.revenueLedgerService = revenueLedgerService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
     
-    public List<Booking> getAllBookings() {
-        return bookingRepository.findAll();
+    public List<Booking> getBookingsAfter(Long after, int limit) {
+        return bookingRepository.findByIdGreaterThanOrderByIdAsc(Keyset.after(after), Keyset.firstRows(limit));
+    }
+    
+    public List<BookingSummary> getBookingSummariesAfter(Long after, int limit) {
+        return bookingRepository.findSummariesAfter(Keyset.after(after), Keyset.firstRows(limit));
+    }
+    
+    public Stream<Booking> streamAllBookings() {
+        return bookingRepository.streamAllBy();
     }
     
     public Optional<Booking> getBookingById(Long id) {
@@ -35,36 +57,45 @@ public class BookingService {
         return bookingRepository.findByBookingReference(bookingReference);
     }
     
+    /**
+     * Reserves the room's nights. The room row is locked for the rest of the transaction, so reservations for
+     * one room are serialized across every replica, and the overlap check reads committed bookings only.
+     */
     public Booking createBooking(Booking booking) {
-        // Validate room availability
-        Room room = booking.getRoom();
-        if (room.getStatus() != Room.RoomStatus.AVAILABLE) {
-            throw new IllegalArgumentException("Room is not available for booking");
+        if (booking.getRoom() == null || booking.getRoom().getId() == null) {
+            throw new IllegalArgumentException("Room is required");
         }
+        validateDates(booking.getCheckInDate(), booking.getCheckOutDate());
         
-        // Check for date conflicts
-        List<Booking> conflictingBookings = bookingRepository.findActiveBookingsOnDate(booking.getCheckInDate());
-        boolean hasConflict = conflictingBookings.stream()
-                .anyMatch(b -> b.getRoom().getId().equals(room.getId()) && 
-                              !b.getStatus().equals(Booking.BookingStatus.CANCELLED));
-        
-        if (hasConflict) {
-            throw new IllegalArgumentException("Room is already booked for the selected dates");
-        }
-        
-        // Calculate total amount
-        if (booking.getTotalAmount() == null) {
-            int nights = booking.getNumberOfNights() != null ? booking.getNumberOfNights() : 
-                        (int) java.time.temporal.ChronoUnit.DAYS.between(booking.getCheckInDate(), booking.getCheckOutDate());
-            booking.setTotalAmount(room.getPrice().multiply(java.math.BigDecimal.valueOf(nights)));
-        }
-        
-        return bookingRepository.save(booking);
+        return transactionTemplate.execute(status -> {
+            // Validate room availability
+            Room room = roomRepository.lockById(booking.getRoom().getId())
+                    .orElseThrow(() -> new IllegalArgumentException("Room not found"));
+            if (RoomService.UNBOOKABLE_STATUSES.contains(room.getStatus())) {
+                throw new IllegalArgumentException("Room is not available for booking");
+            }
+            booking.setRoom(room);
+            
+            // Calculate total amount
+            if (booking.getTotalAmount() == null) {
+                int nights = booking.getNumberOfNights() != null ? booking.getNumberOfNights() : 
+                            (int) java.time.temporal.ChronoUnit.DAYS.between(booking.getCheckInDate(), booking.getCheckOutDate());
+                booking.setTotalAmount(room.getPrice().multiply(java.math.BigDecimal.valueOf(nights)));
+            }
+            
+            // Check for date conflicts
+            ensureAvailable(room.getId(), null, booking.getCheckInDate(), booking.getCheckOutDate(), booking.getStatus());
+            return bookingRepository.save(booking);
+        });
     }
     
     public Optional<Booking> updateBooking(Long id, Booking bookingDetails) {
-        return bookingRepository.findById(id)
+        validateDates(bookingDetails.getCheckInDate(), bookingDetails.getCheckOutDate());
+        return transactionTemplate.execute(status -> bookingRepository.findById(id)
                 .map(existingBooking -> {
+                    lockRoom(existingBooking);
+                    ensureAvailable(existingBooking.getRoom().getId(), id, bookingDetails.getCheckInDate(),
+                            bookingDetails.getCheckOutDate(), bookingDetails.getStatus());
                     existingBooking.setGuestName(bookingDetails.getGuestName());
                     existingBooking.setGuestEmail(bookingDetails.getGuestEmail());
                     existingBooking.setGuestPhone(bookingDetails.getGuestPhone());
@@ -75,15 +106,36 @@ public class BookingService {
                     existingBooking.setStatus(bookingDetails.getStatus());
                     existingBooking.setSpecialRequests(bookingDetails.getSpecialRequests());
                     return bookingRepository.save(existingBooking);
-                });
+                }));
     }
     
     public Optional<Booking> updateBookingStatus(Long id, Booking.BookingStatus status) {
-        return bookingRepository.findById(id)
+        return transactionTemplate.execute(tx -> bookingRepository.findById(id)
                 .map(booking -> {
+                    lockRoom(booking);
+                    ensureAvailable(booking.getRoom().getId(), id, booking.getCheckInDate(), booking.getCheckOutDate(), status);
                     booking.setStatus(status);
                     return bookingRepository.save(booking);
-                });
+                }));
+    }
+    
+    /**
+     * Like {@link #updateBookingStatus} but answers false instead of throwing when the booking is gone or its
+     * nights are taken, so a caller may run it inside its own transaction: an exception through the nested
+     * template would leave that transaction rollback-only.
+     */
+    public boolean tryUpdateBookingStatus(Long id, Booking.BookingStatus status) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(tx -> bookingRepository.findById(id)
+                .map(booking -> {
+                    lockRoom(booking);
+                    if (!isAvailable(booking.getRoom().getId(), id, booking.getCheckInDate(), booking.getCheckOutDate(), status)) {
+                        return false;
+                    }
+                    booking.setStatus(status);
+                    bookingRepository.save(booking);
+                    return true;
+                })
+                .orElse(false)));
     }
     
     public boolean deleteBooking(Long id) {
@@ -119,11 +171,47 @@ public class BookingService {
     }
     
     public Long getBookingCountByStatus(Booking.BookingStatus status) {
-        return bookingRepository.countByStatus(status);
+        return bookingStatsService.getCount(status);
+    }
+    
+    public Long getTotalBookingCount() {
+        return bookingStatsService.getTotal();
     }
     
-    public Double getTotalRevenueForPeriod(LocalDate startDate, LocalDate endDate) {
-        Double revenue = bookingRepository.getTotalRevenueForPeriod(startDate, endDate);
-        return revenue != null ? revenue : 0.0;
+    public Map<Booking.BookingStatus, Long> getBookingCountsByStatus() {
+        return bookingStatsService.getCountsByStatus();
+    }
+    
+    public BigDecimal getTotalRevenueForPeriod(LocalDate startDate, LocalDate endDate) {
+        return revenueLedgerService.getBookingRevenue(startDate, endDate);
+    }
+    
+    public BigDecimal getCollectedPaymentsForPeriod(LocalDate startDate, LocalDate endDate) {
+        return revenueLedgerService.getPaymentRevenue(startDate, endDate);
+    }
+    
+    private void lockRoom(Booking booking) {
+        roomRepository.lockById(booking.getRoom().getId());
+    }
+    
+    /** Must run under the room's lock, so no conflicting booking can commit between this check and the write. */
+    private void ensureAvailable(Long roomId, Long bookingId, LocalDate checkIn, LocalDate checkOut, Booking.BookingStatus status) {
+        if (!isAvailable(roomId, bookingId, checkIn, checkOut, status)) {
+            throw new IllegalArgumentException("Room is already booked for the selected dates");
+        }
+    }
+    
+    private boolean isAvailable(Long roomId, Long bookingId, LocalDate checkIn, LocalDate checkOut, Booking.BookingStatus status) {
+        if (status != null && !RoomAvailabilityIndex.HOLDING_STATUSES.contains(status)) {
+            return true;
+        }
+        return bookingRepository.countOverlappingStays(roomId, checkIn, checkOut, RoomAvailabilityIndex.HOLDING_STATUSES,
+                bookingId != null ? bookingId : 0L) == 0;
+    }
+    
+    private void validateDates(LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+            throw new IllegalArgumentException("Check-out date must be after check-in date");
+        }
     }
 }
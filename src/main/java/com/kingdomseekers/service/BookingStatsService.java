@@ -0,0 +1,125 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.entity.Booking;
+import com.kingdomseekers.event.BookingChangedEvent;
+import com.kingdomseekers.event.CacheInvalidation;
+import com.kingdomseekers.event.CacheInvalidationBus;
+import com.kingdomseekers.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Booking counts per status, kept current from committed {@link BookingChangedEvent}s and periodically
+ * reconciled against a single grouped count query, so reads never touch the database. A booking change
+ * announced by another replica on the {@link CacheInvalidationBus} carries no status, so it marks the counts
+ * stale and a background refresh reconciles them within {@code booking.stats.refresh-interval}.
+ */
+@Service
+public class BookingStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingStatsService.class);
+
+    private static final Booking.BookingStatus[] STATUSES = Booking.BookingStatus.values();
+    private static final String ENTITY = Booking.class.getSimpleName();
+    /** Recounts attempted per reconcile before giving up until the next one. */
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private final BookingRepository bookingRepository;
+    private final AtomicLongArray counts = new AtomicLongArray(STATUSES.length);
+    /** Bumped under {@code this} with every applied event, so a recount that overlapped one is not written. */
+    private final AtomicLong generation = new AtomicLong();
+    private volatile boolean stale;
+
+    @Autowired
+    public BookingStatsService(BookingRepository bookingRepository, CacheInvalidationBus bus) {
+        this.bookingRepository = bookingRepository;
+        bus.subscribe(this::onInvalidation);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookingChanged(BookingChangedEvent event) {
+        if (!event.statusChanged()) {
+            return;
+        }
+        generation.incrementAndGet();
+        if (event.before() != null) {
+            counts.decrementAndGet(event.before().status().ordinal());
+        }
+        if (event.after() != null) {
+            counts.incrementAndGet(event.after().status().ordinal());
+        }
+    }
+
+    void onInvalidation(CacheInvalidation invalidation) {
+        if (CacheInvalidation.ALL.equals(invalidation.entity()) || ENTITY.equals(invalidation.entity())) {
+            stale = true;
+        }
+    }
+
+    /**
+     * Recounts from the database. A recount that a local change overlapped may or may not include it, so it is
+     * thrown away and retried rather than written over the live counts.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${booking.stats.reconcile-interval:PT5M}", initialDelayString = "${booking.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        // Cleared first, so a remote change committed during the recount leaves the counts stale again.
+        stale = false;
+        for (int attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+            long observed = generation.get();
+            long[] fresh = new long[STATUSES.length];
+            for (BookingRepository.StatusCount row : bookingRepository.countGroupedByStatus()) {
+                fresh[row.getStatus().ordinal()] = row.getTotal();
+            }
+            synchronized (this) {
+                if (generation.get() == observed) {
+                    for (int i = 0; i < fresh.length; i++) {
+                        counts.set(i, fresh[i]);
+                    }
+                    return;
+                }
+            }
+        }
+        stale = true;
+        log.warn("Booking counts not reconciled: bookings kept changing during {} recounts", RECONCILE_ATTEMPTS);
+    }
+
+    /** Picks up bookings changed by other replicas, off the request path. */
+    @Scheduled(fixedDelayString = "${booking.stats.refresh-interval:PT5S}", initialDelayString = "${booking.stats.refresh-interval:PT5S}")
+    public void refreshIfStale() {
+        if (stale) {
+            reconcile();
+        }
+    }
+
+    public long getCount(Booking.BookingStatus status) {
+        return counts.get(status.ordinal());
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    public Map<Booking.BookingStatus, Long> getCountsByStatus() {
+        Map<Booking.BookingStatus, Long> byStatus = new EnumMap<>(Booking.BookingStatus.class);
+        for (Booking.BookingStatus status : STATUSES) {
+            byStatus.put(status, counts.get(status.ordinal()));
+        }
+        return byStatus;
+    }
+}
@@ -0,0 +1,260 @@
+package com.kingdomseekers.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kingdomseekers.dto.BulkImportReport;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Streams CSV (with a header row) or NDJSON bodies row by row, maps each row to an entity and persists
+ * valid rows in chunks of {@code bulk-import.chunk-size}, one transaction and one JDBC batch per chunk.
+ * A chunk that fails to flush is retried row by row so the report pins the error to the offending rows.
+ */
+@Service
+public class BulkImportService {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format fromContentType(String contentType) {
+            if (contentType != null && contentType.toLowerCase().startsWith("text/csv")) {
+                return CSV;
+            }
+            return NDJSON;
+        }
+    }
+
+    private static final TypeReference<Map<String, Object>> JSON_ROW = new TypeReference<>() { };
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedFailures;
+
+    @Autowired
+    public BulkImportService(EntityManager entityManager, ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${bulk-import.chunk-size:500}") int chunkSize,
+                             @Value("${bulk-import.max-reported-failures:1000}") int maxReportedFailures) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxReportedFailures = maxReportedFailures;
+    }
+
+    public <T> BulkImportReport importRows(InputStream body, Format format,
+                                           Function<Map<String, String>, T> mapper, Function<T, Long> idOf) throws IOException {
+        return importRows(body, format, mapper, idOf, ids -> { });
+    }
+
+    /**
+     * Imports the body, handing the ids of each committed chunk to {@code onImported} as it goes; only
+     * counts and a bounded list of failures are kept, so the report stays small however large the file.
+     */
+    public <T> BulkImportReport importRows(InputStream body, Format format,
+                                           Function<Map<String, String>, T> mapper, Function<T, Long> idOf,
+                                           Consumer<List<Long>> onImported) throws IOException {
+        Failures failures = new Failures(maxReportedFailures);
+        List<PendingRow<T>> chunk = new ArrayList<>(chunkSize);
+        int rowNumber = 0;
+        int imported = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            CsvReader csv = format == Format.CSV ? new CsvReader(reader) : null;
+            List<String> header = csv != null ? csv.next() : null;
+            while (true) {
+                Map<String, String> row;
+                try {
+                    row = csv != null ? nextCsvRow(csv, header) : nextJsonRow(reader);
+                } catch (IllegalArgumentException e) {
+                    failures.add(++rowNumber, e.getMessage());
+                    continue;
+                }
+                if (row == null) {
+                    break;
+                }
+                rowNumber++;
+                try {
+                    chunk.add(new PendingRow<>(rowNumber, row, mapper.apply(row)));
+                } catch (RuntimeException e) {
+                    failures.add(rowNumber, messageOf(e));
+                }
+                if (chunk.size() >= chunkSize) {
+                    imported += persistChunk(chunk, mapper, idOf, onImported, failures);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += persistChunk(chunk, mapper, idOf, onImported, failures);
+        }
+        return new BulkImportReport(rowNumber, imported, failures.count(), failures.reported(), failures.omitted());
+    }
+
+    /** Returns how many of the chunk's rows were committed. */
+    private <T> int persistChunk(List<PendingRow<T>> chunk, Function<Map<String, String>, T> mapper,
+                                 Function<T, Long> idOf, Consumer<List<Long>> onImported, Failures failures) {
+        List<Long> ids = new ArrayList<>(chunk.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                chunk.forEach(pending -> entityManager.persist(pending.entity()));
+                entityManager.flush();
+                entityManager.clear();
+            });
+            chunk.forEach(pending -> ids.add(idOf.apply(pending.entity())));
+        } catch (RuntimeException chunkFailure) {
+            // Entities from the rolled-back chunk already carry ids, so each row is mapped afresh.
+            for (PendingRow<T> pending : chunk) {
+                try {
+                    T entity = mapper.apply(pending.source());
+                    transactionTemplate.executeWithoutResult(status -> {
+                        entityManager.persist(entity);
+                        entityManager.flush();
+                        entityManager.clear();
+                    });
+                    ids.add(idOf.apply(entity));
+                } catch (RuntimeException e) {
+                    failures.add(pending.row(), messageOf(e));
+                }
+            }
+        }
+        if (!ids.isEmpty()) {
+            onImported.accept(ids);
+        }
+        return ids.size();
+    }
+
+    private Map<String, String> nextJsonRow(BufferedReader reader) throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+        Map<String, Object> json;
+        try {
+            json = objectMapper.readValue(line, JSON_ROW);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+        Map<String, String> row = new HashMap<>();
+        json.forEach((key, value) -> row.put(key, value != null ? value.toString() : null));
+        return row;
+    }
+
+    private static Map<String, String> nextCsvRow(CsvReader csv, List<String> header) throws IOException {
+        if (header == null) {
+            return null;
+        }
+        List<String> values;
+        do {
+            values = csv.next();
+            if (values == null) {
+                return null;
+            }
+        } while (CsvReader.isBlank(values));
+        if (values.size() > header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " columns but found " + values.size());
+        }
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            row.put(header.get(i).trim(), values.get(i));
+        }
+        return row;
+    }
+
+    public static String required(Map<String, String> row, String column) {
+        String value = row.get(column);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing required column '" + column + "'");
+        }
+        return value.trim();
+    }
+
+    public static String optional(Map<String, String> row, String column) {
+        String value = row.get(column);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    public static <E extends Enum<E>> E enumValue(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + type.getSimpleName() + " '" + value + "'");
+        }
+    }
+
+    private static String messageOf(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    private record PendingRow<T>(int row, Map<String, String> source, T entity) {
+    }
+
+    /** Counts every failure but keeps only the {@code limit} lowest row numbers. */
+    private static final class Failures {
+
+        private final int limit;
+        private final PriorityQueue<BulkImportReport.RowFailure> kept;
+        private int count;
+
+        Failures(int limit) {
+            this.limit = limit;
+            this.kept = new PriorityQueue<>(Comparator.comparingInt(BulkImportReport.RowFailure::row).reversed());
+        }
+
+        void add(int row, String error) {
+            count++;
+            if (limit <= 0) {
+                return;
+            }
+            // Rows retried after a failed chunk are reported late, so the cut is by row number, not arrival.
+            if (kept.size() < limit) {
+                kept.add(new BulkImportReport.RowFailure(row, error));
+            } else if (row < kept.peek().row()) {
+                kept.poll();
+                kept.add(new BulkImportReport.RowFailure(row, error));
+            }
+        }
+
+        int count() {
+            return count;
+        }
+
+        int omitted() {
+            return count - kept.size();
+        }
+
+        List<BulkImportReport.RowFailure> reported() {
+            List<BulkImportReport.RowFailure> sorted = new ArrayList<>(kept);
+            sorted.sort(Comparator.comparingInt(BulkImportReport.RowFailure::row));
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.dto.CampaignSummary;
+import com.kingdomseekers.entity.Donation;
+import com.kingdomseekers.event.CacheInvalidation;
+import com.kingdomseekers.event.CacheInvalidationBus;
+import com.kingdomseekers.event.DonationChangedEvent;
+import com.kingdomseekers.repository.DonationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory running totals per {@code campaignCode}: gift and donor counts, a sum per currency and a donor
+ * leaderboard per currency. Totals are built from one grouped query on startup, kept current from committed
+ * {@link DonationChangedEvent}s and periodically reconciled, so summaries never rescan donations. A donation
+ * taken by another replica arrives on the {@link CacheInvalidationBus} without its amount, so it marks the
+ * totals stale and a background refresh rebuilds them within {@code donation.campaigns.refresh-interval}.
+ */
+@Service
+public class CampaignTotalsService {
+
+    private static final Logger log = LoggerFactory.getLogger(CampaignTotalsService.class);
+
+    public static final int MAX_TOP_DONORS = 100;
+
+    /** Rebuilds attempted per reconcile before giving up until the next one. */
+    private static final int RECONCILE_ATTEMPTS = 3;
+    private static final String ENTITY = Donation.class.getSimpleName();
+
+    private final DonationRepository donationRepository;
+    /** Bumped under {@code this} with every applied event, so a rebuild that overlapped one is not swapped in. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Map<String, Campaign> campaigns = new ConcurrentHashMap<>();
+    private volatile boolean stale;
+
+    @Autowired
+    public CampaignTotalsService(DonationRepository donationRepository, CacheInvalidationBus bus) {
+        this.donationRepository = donationRepository;
+        bus.subscribe(this::onInvalidation);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDonationChanged(DonationChangedEvent event) {
+        generation.incrementAndGet();
+        apply(campaigns, event.before(), -1);
+        apply(campaigns, event.after(), 1);
+    }
+
+    void onInvalidation(CacheInvalidation invalidation) {
+        if (CacheInvalidation.ALL.equals(invalidation.entity()) || ENTITY.equals(invalidation.entity())) {
+            stale = true;
+        }
+    }
+
+    /**
+     * Rebuilds the totals from the database. A rebuild that a donation change overlapped may or may not
+     * include it, so it is thrown away and retried rather than swapped in over the live totals.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${donation.campaigns.reconcile-interval:PT30M}", initialDelayString = "${donation.campaigns.reconcile-interval:PT30M}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        // Cleared first, so a remote donation committed during the rebuild leaves the totals stale again.
+        stale = false;
+        for (int attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+            long observed = generation.get();
+            Map<String, Campaign> fresh = new ConcurrentHashMap<>();
+            try (Stream<DonationRepository.CampaignDonorTotal> rows = donationRepository.streamCampaignDonorTotals()) {
+                rows.forEach(row -> fresh.computeIfAbsent(row.getCampaignCode(), code -> new Campaign())
+                        .add(row.getCurrency(), row.getMemberId(),
+                                row.getTotal() != null ? row.getTotal() : BigDecimal.ZERO, row.getGifts()));
+            }
+            synchronized (this) {
+                if (generation.get() == observed) {
+                    this.campaigns = fresh;
+                    log.info("Campaign totals reconciled for {} campaigns", fresh.size());
+                    return;
+                }
+            }
+        }
+        stale = true;
+        log.warn("Campaign totals not reconciled: donations kept changing during {} rebuilds", RECONCILE_ATTEMPTS);
+    }
+
+    /** Picks up donations taken by other replicas, off the request path. */
+    @Scheduled(fixedDelayString = "${donation.campaigns.refresh-interval:PT5S}", initialDelayString = "${donation.campaigns.refresh-interval:PT5S}")
+    @Transactional(readOnly = true)
+    public void refreshIfStale() {
+        if (stale) {
+            reconcile();
+        }
+    }
+
+    public Optional<CampaignSummary> getSummary(String campaignCode, int topDonors) {
+        Campaign campaign = campaigns.get(campaignCode);
+        if (campaign == null) {
+            return Optional.empty();
+        }
+        return Optional.of(campaign.summary(campaignCode, Math.max(0, Math.min(topDonors, MAX_TOP_DONORS))));
+    }
+
+    private static void apply(Map<String, Campaign> campaigns, Donation.State state, int sign) {
+        if (state == null || state.campaignCode() == null || state.amount() == null) {
+            return;
+        }
+        BigDecimal amount = sign < 0 ? state.amount().negate() : state.amount();
+        campaigns.computeIfAbsent(state.campaignCode(), code -> new Campaign())
+                .add(state.currency(), state.memberId(), amount, sign);
+    }
+
+    private static final class Campaign {
+        private final Map<String, CurrencyTotals> currencies = new HashMap<>();
+        /** Gifts per donor across all currencies, for the campaign-wide donor count. */
+        private final Map<Long, Long> donorGifts = new HashMap<>();
+        private long gifts;
+
+        synchronized void add(String currency, Long memberId, BigDecimal amount, long giftDelta) {
+            gifts += giftDelta;
+            if (memberId != null) {
+                donorGifts.merge(memberId, giftDelta, (a, b) -> a + b > 0 ? a + b : null);
+            }
+            currencies.computeIfAbsent(currency, c -> new CurrencyTotals()).add(memberId, amount, giftDelta);
+        }
+
+        synchronized CampaignSummary summary(String campaignCode, int topDonors) {
+            List<CampaignSummary.CurrencyTotal> totals = new ArrayList<>(currencies.size());
+            currencies.forEach((currency, t) -> {
+                if (t.gifts > 0) {
+                    totals.add(new CampaignSummary.CurrencyTotal(currency, t.total, t.gifts, t.donors.size(), t.top(topDonors)));
+                }
+            });
+            totals.sort(Comparator.comparing(CampaignSummary.CurrencyTotal::currency, Comparator.nullsLast(Comparator.naturalOrder())));
+            return new CampaignSummary(campaignCode, gifts, donorGifts.size(), totals, Instant.now());
+        }
+    }
+
+    private static final class CurrencyTotals {
+        private static final Comparator<DonorTotal> RANKING = Comparator.comparing(DonorTotal::total).reversed()
+                .thenComparing(DonorTotal::memberId);
+
+        private final Map<Long, DonorTotal> donors = new HashMap<>();
+        private final NavigableSet<DonorTotal> ranking = new TreeSet<>(RANKING);
+        private BigDecimal total = BigDecimal.ZERO;
+        private long gifts;
+
+        void add(Long memberId, BigDecimal amount, long giftDelta) {
+            total = total.add(amount);
+            gifts += giftDelta;
+            if (memberId == null) {
+                return;
+            }
+            DonorTotal previous = donors.remove(memberId);
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+            DonorTotal next = previous != null
+                    ? new DonorTotal(memberId, previous.total().add(amount), previous.gifts() + giftDelta)
+                    : new DonorTotal(memberId, amount, giftDelta);
+            if (next.gifts() > 0) {
+                donors.put(memberId, next);
+                ranking.add(next);
+            }
+        }
+
+        List<CampaignSummary.TopDonor> top(int limit) {
+            List<CampaignSummary.TopDonor> top = new ArrayList<>(Math.min(limit, ranking.size()));
+            for (Iterator<DonorTotal> it = ranking.iterator(); it.hasNext() && top.size() < limit; ) {
+                DonorTotal donor = it.next();
+                top.add(new CampaignSummary.TopDonor(donor.memberId(), donor.total(), donor.gifts()));
+            }
+            return top;
+        }
+    }
+
+    private record DonorTotal(Long memberId, BigDecimal total, long gifts) {
+    }
+}
@@ -0,0 +1,429 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.dto.DonationTimeSeries;
+import com.kingdomseekers.dto.FxRateTable;
+import com.kingdomseekers.entity.Donation;
+import com.kingdomseekers.event.CacheInvalidation;
+import com.kingdomseekers.event.CacheInvalidationBus;
+import com.kingdomseekers.event.DonationChangedEvent;
+import com.kingdomseekers.repository.DonationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Time-bucketed donation analytics over an in-memory columnar copy of the donations table. Each donation is
+ * held as primitives (day, type, campaign, currency, donor, amount in cents) in parallel arrays sorted by
+ * day, so a query is a binary search for the date range followed by one sequential scan.
+ * <p>
+ * New donations are appended from committed {@link DonationChangedEvent}s. Updates and deletes, and any
+ * donation change another replica announces on the {@link CacheInvalidationBus}, mark the cache stale and it
+ * is rebuilt from the database on the next refresh check. Amounts are summed as exact cents per currency and
+ * converted to the base currency once per bucket.
+ */
+@Service
+public class DonationAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(DonationAnalyticsService.class);
+
+    public enum Granularity {
+        DAY, WEEK, MONTH;
+
+        long bucketStart(long epochDay) {
+            return switch (this) {
+                case DAY -> epochDay;
+                // 1970-01-01 was a Thursday; weeks start on Monday as in ISO-8601.
+                case WEEK -> epochDay - Math.floorMod(epochDay + 3, 7);
+                case MONTH -> LocalDate.ofEpochDay(epochDay).withDayOfMonth(1).toEpochDay();
+            };
+        }
+
+        public static Granularity of(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    public enum GroupBy {
+        NONE, TYPE, CAMPAIGN;
+
+        public static GroupBy of(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static final Donation.DonationType[] TYPES = Donation.DonationType.values();
+    private static final String ENTITY = Donation.class.getSimpleName();
+
+    private final DonationRepository donationRepository;
+    private final FxRateService fxRateService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private volatile Columns columns = new Columns();
+    private volatile boolean stale;
+    /** Bumped under {@code this} with every change event, so a rebuild knows whether one overlapped it. */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public DonationAnalyticsService(DonationRepository donationRepository, FxRateService fxRateService,
+                                    PlatformTransactionManager transactionManager, CacheInvalidationBus bus) {
+        this.donationRepository = donationRepository;
+        this.fxRateService = fxRateService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        bus.subscribe(this::onInvalidation);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDonationChanged(DonationChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.before() != null) {
+            stale = true;
+        } else if (event.after() != null) {
+            Donation.State donation = event.after();
+            columns.append(donation.donationDate(), donation.type(), donation.campaignCode(), donation.currency(),
+                    donation.memberId(), donation.amount(), zone);
+        }
+    }
+
+    void onInvalidation(CacheInvalidation invalidation) {
+        if (CacheInvalidation.ALL.equals(invalidation.entity()) || ENTITY.equals(invalidation.entity())) {
+            stale = true;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        stale = false;
+        long observed = generation.get();
+        Columns fresh = new Columns();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<DonationRepository.DonationFact> facts = donationRepository.streamFactsByDate()) {
+                facts.forEach(fact -> fresh.append(fact.getDonationDate(), fact.getType(), fact.getCampaignCode(),
+                        fact.getCurrency(), fact.getMemberId(), fact.getAmount(), zone));
+            }
+        });
+        synchronized (this) {
+            this.columns = fresh;
+            // A change that overlapped the rebuild went to the old columns and may be missing from these
+            if (generation.get() != observed) {
+                stale = true;
+            }
+        }
+        log.info("Donation analytics cache built with {} donations", fresh.size);
+    }
+
+    @Scheduled(fixedDelayString = "${donation.analytics.refresh-check:PT1M}")
+    public void refreshIfStale() {
+        if (stale) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Buckets donations dated within [from, to] (inclusive days; either bound may be null) at the given
+     * granularity, optionally filtered by type and campaign and split into one series per type or campaign.
+     */
+    public DonationTimeSeries getTimeSeries(Granularity granularity, GroupBy groupBy, LocalDate from, LocalDate to,
+                                            Donation.DonationType type, String campaignCode) {
+        FxRateTable rates = fxRateService.getTable();
+        Columns data = columns;
+        while (true) {
+            data.ensureSorted();
+            data.lock.readLock().lock();
+            try {
+                // A back-dated append may land between sorting and locking; sort again if so.
+                if (data.sorted) {
+                    return data.scan(granularity, groupBy, from, to, type, campaignCode, rates);
+                }
+            } finally {
+                data.lock.readLock().unlock();
+            }
+        }
+    }
+
+    private static final class Columns {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, Integer> campaignIds = new HashMap<>();
+        private final List<String> campaignCodes = new ArrayList<>();
+        private final Map<String, Integer> currencyIds = new HashMap<>();
+        private final List<String> currencyCodes = new ArrayList<>();
+        private final Map<Long, Integer> donorIds = new HashMap<>();
+
+        private int size;
+        private int[] day = new int[1024];
+        private byte[] type = new byte[1024];
+        private int[] campaign = new int[1024];
+        private int[] currency = new int[1024];
+        private int[] donor = new int[1024];
+        private long[] cents = new long[1024];
+        private volatile boolean sorted = true;
+
+        void append(Instant donationDate, Donation.DonationType donationType, String campaignCode, String currencyCode,
+                    Long memberId, BigDecimal amount, ZoneId zone) {
+            if (donationDate == null || amount == null) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                if (size == day.length) {
+                    grow();
+                }
+                int epochDay = (int) LocalDate.ofInstant(donationDate, zone).toEpochDay();
+                if (size > 0 && epochDay < day[size - 1]) {
+                    sorted = false;
+                }
+                day[size] = epochDay;
+                type[size] = (byte) (donationType != null ? donationType : Donation.DonationType.OTHER).ordinal();
+                campaign[size] = campaignCode != null ? intern(campaignIds, campaignCodes, campaignCode) : -1;
+                currency[size] = intern(currencyIds, currencyCodes, currencyCode != null ? FxRateTable.normalize(currencyCode) : "");
+                donor[size] = memberId != null ? donorIds.computeIfAbsent(memberId, id -> donorIds.size()) : -1;
+                cents[size] = amount.movePointRight(2).setScale(0, RoundingMode.HALF_EVEN).longValue();
+                size++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /** Restores day order after back-dated appends by sorting (day, row) pairs and permuting every column. */
+        void ensureSorted() {
+            if (sorted) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                if (sorted) {
+                    return;
+                }
+                long[] keys = new long[size];
+                for (int i = 0; i < size; i++) {
+                    keys[i] = ((long) day[i] << 32) | i;
+                }
+                Arrays.sort(keys);
+                int[] newDay = new int[day.length];
+                byte[] newType = new byte[type.length];
+                int[] newCampaign = new int[campaign.length];
+                int[] newCurrency = new int[currency.length];
+                int[] newDonor = new int[donor.length];
+                long[] newCents = new long[cents.length];
+                for (int i = 0; i < size; i++) {
+                    int row = (int) keys[i];
+                    newDay[i] = day[row];
+                    newType[i] = type[row];
+                    newCampaign[i] = campaign[row];
+                    newCurrency[i] = currency[row];
+                    newDonor[i] = donor[row];
+                    newCents[i] = cents[row];
+                }
+                day = newDay;
+                type = newType;
+                campaign = newCampaign;
+                currency = newCurrency;
+                donor = newDonor;
+                cents = newCents;
+                sorted = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        DonationTimeSeries scan(Granularity granularity, GroupBy groupBy, LocalDate from, LocalDate to,
+                                Donation.DonationType typeFilter, String campaignFilter, FxRateTable rates) {
+            int campaignFilterId = -1;
+            if (campaignFilter != null) {
+                Integer id = campaignIds.get(campaignFilter);
+                if (id == null) {
+                    return result(granularity, groupBy, from, to, rates, List.of(), new TreeSet<>());
+                }
+                campaignFilterId = id;
+            }
+            int typeFilterId = typeFilter != null ? typeFilter.ordinal() : -1;
+
+            BigDecimal[] rateByCurrency = new BigDecimal[currencyCodes.size()];
+            for (int c = 0; c < rateByCurrency.length; c++) {
+                rateByCurrency[c] = rates.rates().get(currencyCodes.get(c));
+            }
+
+            int start = from != null ? lowerBound(from.toEpochDay()) : 0;
+            int end = to != null ? lowerBound(to.toEpochDay() + 1) : size;
+            Accumulator[] series = new Accumulator[switch (groupBy) {
+                case NONE -> 1;
+                case TYPE -> TYPES.length;
+                case CAMPAIGN -> campaignCodes.size() + 1;
+            }];
+            TreeSet<String> unconverted = new TreeSet<>();
+            long lastDay = Long.MIN_VALUE;
+            long bucket = 0;
+            for (int i = start; i < end; i++) {
+                if (typeFilterId >= 0 && type[i] != typeFilterId
+                        || campaignFilterId >= 0 && campaign[i] != campaignFilterId) {
+                    continue;
+                }
+                if (day[i] != lastDay) {
+                    lastDay = day[i];
+                    bucket = granularity.bucketStart(lastDay);
+                }
+                int seriesIndex = switch (groupBy) {
+                    case NONE -> 0;
+                    case TYPE -> type[i];
+                    case CAMPAIGN -> campaign[i] >= 0 ? campaign[i] : campaignCodes.size();
+                };
+                Accumulator acc = series[seriesIndex];
+                if (acc == null) {
+                    acc = series[seriesIndex] = new Accumulator(seriesKey(groupBy, seriesIndex), rateByCurrency);
+                }
+                if (acc.bucket != bucket) {
+                    acc.flush();
+                    acc.bucket = bucket;
+                }
+                if (rateByCurrency[currency[i]] == null) {
+                    unconverted.add(currencyCodes.get(currency[i]));
+                } else {
+                    acc.cents[currency[i]] += cents[i];
+                    acc.converted++;
+                }
+                acc.gifts++;
+                if (donor[i] >= 0) {
+                    acc.addDonor(donor[i]);
+                }
+            }
+
+            List<DonationTimeSeries.Series> result = new ArrayList<>();
+            for (Accumulator acc : series) {
+                if (acc != null) {
+                    acc.flush();
+                    result.add(new DonationTimeSeries.Series(acc.key, acc.buckets));
+                }
+            }
+            result.sort(Comparator.comparing(DonationTimeSeries.Series::key, Comparator.nullsLast(Comparator.naturalOrder())));
+            return result(granularity, groupBy, from, to, rates, result, unconverted);
+        }
+
+        private String seriesKey(GroupBy groupBy, int index) {
+            return switch (groupBy) {
+                case NONE -> "ALL";
+                case TYPE -> TYPES[index].name();
+                case CAMPAIGN -> index < campaignCodes.size() ? campaignCodes.get(index) : null;
+            };
+        }
+
+        private static DonationTimeSeries result(Granularity granularity, GroupBy groupBy, LocalDate from, LocalDate to,
+                                                 FxRateTable rates, List<DonationTimeSeries.Series> series,
+                                                 TreeSet<String> unconverted) {
+            return new DonationTimeSeries(granularity.name(), groupBy.name(), rates.baseCurrency(), rates.version(),
+                    from, to, series, List.copyOf(unconverted));
+        }
+
+        private int lowerBound(long epochDay) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (day[mid] < epochDay) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private void grow() {
+            int capacity = day.length * 2;
+            day = Arrays.copyOf(day, capacity);
+            type = Arrays.copyOf(type, capacity);
+            campaign = Arrays.copyOf(campaign, capacity);
+            currency = Arrays.copyOf(currency, capacity);
+            donor = Arrays.copyOf(donor, capacity);
+            cents = Arrays.copyOf(cents, capacity);
+        }
+
+        private static int intern(Map<String, Integer> ids, List<String> values, String value) {
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                ids.put(value, id);
+                values.add(value);
+            }
+            return id;
+        }
+    }
+
+    private static final class Accumulator {
+        private final String key;
+        private final BigDecimal[] rates;
+        /** The bucket's convertible gifts in cents of their own currency, indexed like {@code rates}. */
+        private final long[] cents;
+        private final List<DonationTimeSeries.Bucket> buckets = new ArrayList<>();
+        private long bucket = Long.MIN_VALUE;
+        private long gifts;
+        private long converted;
+        private int[] donors = new int[16];
+        private int donorCount;
+
+        Accumulator(String key, BigDecimal[] rates) {
+            this.key = key;
+            this.rates = rates;
+            this.cents = new long[rates.length];
+        }
+
+        void addDonor(int donor) {
+            if (donorCount == donors.length) {
+                donors = Arrays.copyOf(donors, donorCount * 2);
+            }
+            donors[donorCount++] = donor;
+        }
+
+        /** Emits the current bucket; distinct donors are counted by sorting the bucket's donor indexes. */
+        void flush() {
+            if (gifts == 0) {
+                return;
+            }
+            Arrays.sort(donors, 0, donorCount);
+            long distinct = 0;
+            for (int i = 0; i < donorCount; i++) {
+                if (i == 0 || donors[i] != donors[i - 1]) {
+                    distinct++;
+                }
+            }
+            BigDecimal total = BigDecimal.ZERO;
+            for (int c = 0; c < cents.length; c++) {
+                if (cents[c] != 0) {
+                    total = total.add(BigDecimal.valueOf(cents[c], 2).multiply(rates[c]));
+                    cents[c] = 0;
+                }
+            }
+            BigDecimal sum = total.setScale(2, RoundingMode.HALF_EVEN);
+            BigDecimal average = converted == 0 ? BigDecimal.ZERO
+                    : total.divide(BigDecimal.valueOf(converted), 2, RoundingMode.HALF_EVEN);
+            buckets.add(new DonationTimeSeries.Bucket(LocalDate.ofEpochDay(bucket), gifts, sum, average, distinct));
+            gifts = 0;
+            converted = 0;
+            donorCount = 0;
+        }
+    }
+}
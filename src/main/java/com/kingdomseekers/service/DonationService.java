@@ -1,27 +1,44 @@
 package com.kingdomseekers.service;
 
+import com.kingdomseekers.dto.BulkImportReport;
 import com.kingdomseekers.entity.Donation;
+import com.kingdomseekers.entity.Member;
 import com.kingdomseekers.repository.DonationRepository;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class DonationService {
 
     private final DonationRepository donationRepository;
+    private final BulkImportService bulkImportService;
+    private final EntityManager entityManager;
 
     @Autowired
-    public DonationService(DonationRepository donationRepository) {
+    public DonationService(DonationRepository donationRepository, BulkImportService bulkImportService,
+                           EntityManager entityManager) {
         this.donationRepository = donationRepository;
+        this.bulkImportService = bulkImportService;
+        this.entityManager = entityManager;
     }
 
-    public List<Donation> getAllDonations() {
-        return donationRepository.findAll();
+    public List<Donation> getDonationsAfter(Long after, int limit) {
+        return donationRepository.findByIdGreaterThanOrderByIdAsc(Keyset.after(after), Keyset.firstRows(limit));
+    }
+
+    public Stream<Donation> streamAllDonations() {
+        return donationRepository.streamAllBy();
     }
 
     public Optional<Donation> getDonationById(Long id) {
@@ -34,6 +51,31 @@ public class DonationService {
         return donationRepository.save(donation);
     }
 
+    /**
+     * Imports historical donations. Rows reference members by {@code memberId} and may carry their
+     * original {@code donationDate} (ISO-8601 instant); rows without one are dated now.
+     */
+    public BulkImportReport importDonations(InputStream body, BulkImportService.Format format) throws IOException {
+        return bulkImportService.importRows(body, format, this::donationFromRow, Donation::getId);
+    }
+
+    private Donation donationFromRow(Map<String, String> row) {
+        Donation donation = new Donation();
+        String memberId = BulkImportService.optional(row, "memberId");
+        if (memberId != null) {
+            donation.setMember(entityManager.getReference(Member.class, Long.valueOf(memberId)));
+        }
+        donation.setAmount(new BigDecimal(BulkImportService.required(row, "amount")));
+        donation.setCurrency(BulkImportService.required(row, "currency").toUpperCase());
+        donation.setType(BulkImportService.enumValue(Donation.DonationType.class, BulkImportService.required(row, "type")));
+        donation.setCampaignCode(BulkImportService.optional(row, "campaignCode"));
+        donation.setTransactionReference(BulkImportService.optional(row, "transactionReference"));
+        donation.setPaymentMethod(BulkImportService.optional(row, "paymentMethod"));
+        String donationDate = BulkImportService.optional(row, "donationDate");
+        donation.setDonationDate(donationDate != null ? Instant.parse(donationDate) : Instant.now());
+        return donation;
+    }
+
     public List<Donation> getDonationsByMember(Long memberId) {
         return donationRepository.findByMemberId(memberId);
     }
@@ -0,0 +1,105 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.dto.ConvertedTotals;
+import com.kingdomseekers.dto.FxRateTable;
+import com.kingdomseekers.repository.DonationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Cross-currency donation totals. The database groups by dimension and currency, which leaves a handful of
+ * rows; those are converted to the base currency in one pass against a single FX table snapshot.
+ */
+@Service
+public class DonationTotalsService {
+
+    private static final Instant OPEN_START = Instant.EPOCH;
+    private static final Instant OPEN_END = Instant.parse("9999-12-31T00:00:00Z");
+
+    private final DonationRepository donationRepository;
+    private final FxRateService fxRateService;
+
+    @Autowired
+    public DonationTotalsService(DonationRepository donationRepository, FxRateService fxRateService) {
+        this.donationRepository = donationRepository;
+        this.fxRateService = fxRateService;
+    }
+
+    public ConvertedTotals getTotalsByCurrency(Instant from, Instant to) {
+        return convert(from, to, donationRepository.sumByCurrency(start(from), end(to)),
+                row -> FxRateTable.normalize(row.getCurrency()));
+    }
+
+    public ConvertedTotals getTotalsByType(Instant from, Instant to) {
+        return convert(from, to, donationRepository.sumByTypeAndCurrency(start(from), end(to)),
+                DonationRepository.CurrencyTotal::getGroupKey);
+    }
+
+    public ConvertedTotals getTotalsByCampaign(Instant from, Instant to) {
+        return convert(from, to, donationRepository.sumByCampaignAndCurrency(start(from), end(to)),
+                DonationRepository.CurrencyTotal::getGroupKey);
+    }
+
+    private ConvertedTotals convert(Instant from, Instant to, List<DonationRepository.CurrencyTotal> rows,
+                                    Function<DonationRepository.CurrencyTotal, String> keyOf) {
+        FxRateTable rates = fxRateService.getTable();
+        Map<String, Accumulator> groups = new HashMap<>();
+        TreeSet<String> unconverted = new TreeSet<>();
+        BigDecimal grandTotal = BigDecimal.ZERO;
+        long gifts = 0;
+        for (DonationRepository.CurrencyTotal row : rows) {
+            String currency = FxRateTable.normalize(row.getCurrency());
+            String code = currency != null ? currency : "";
+            BigDecimal amount = row.getTotal() != null ? row.getTotal() : BigDecimal.ZERO;
+            Accumulator group = groups.computeIfAbsent(keyOf.apply(row), key -> new Accumulator());
+            group.gifts += row.getGifts();
+            group.byCurrency.merge(code, amount, BigDecimal::add);
+            gifts += row.getGifts();
+            BigDecimal converted = rates.toBase(currency, amount);
+            if (converted == null) {
+                unconverted.add(code);
+                continue;
+            }
+            group.total = group.total.add(converted);
+            grandTotal = grandTotal.add(converted);
+        }
+
+        List<ConvertedTotals.Group> result = new ArrayList<>(groups.size());
+        groups.forEach((key, group) -> result.add(new ConvertedTotals.Group(key, money(group.total), group.gifts,
+                group.byCurrency)));
+        result.sort(Comparator.comparing(ConvertedTotals.Group::total).reversed()
+                .thenComparing(ConvertedTotals.Group::key, Comparator.nullsLast(Comparator.naturalOrder())));
+        return new ConvertedTotals(rates.baseCurrency(), rates.version(), from, to, money(grandTotal), gifts, result,
+                List.copyOf(unconverted));
+    }
+
+    private static BigDecimal money(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    private static Instant start(Instant from) {
+        return from != null ? from : OPEN_START;
+    }
+
+    private static Instant end(Instant to) {
+        return to != null ? to : OPEN_END;
+    }
+
+    private static final class Accumulator {
+        private final Map<String, BigDecimal> byCurrency = new TreeMap<>();
+        private BigDecimal total = BigDecimal.ZERO;
+        private long gifts;
+    }
+}
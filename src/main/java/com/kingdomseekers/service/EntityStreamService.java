@@ -0,0 +1,161 @@
+package com.kingdomseekers.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes repository cursors straight to a response stream as NDJSON or CSV. Rows are serialized one at a
+ * time, the persistence context is cleared and the output flushed every chunk, so memory stays flat
+ * regardless of result size.
+ * <p>
+ * Each stream holds a pooled connection until the client has read the last row, so only
+ * {@code streams.max-concurrent} run at once; see {@link #reserve}.
+ */
+@Service
+public class EntityStreamService {
+
+    static final int CHUNK_ROWS = 500;
+
+    private static final int CSV_BUFFER_CHARS = 64 * 1024;
+
+    private final EntityManager entityManager;
+    private final ObjectWriter writer;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Semaphore slots;
+
+    @Autowired
+    public EntityStreamService(EntityManager entityManager, ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${streams.max-concurrent:2}") int maxConcurrent) {
+        this.entityManager = entityManager;
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.slots = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Takes a stream slot for {@code body}, released once it has been written or has failed. Empty when every
+     * slot is taken, so the caller can turn the request away before it waits on the connection pool.
+     */
+    public Optional<StreamingResponseBody> reserve(StreamingResponseBody body) {
+        if (!slots.tryAcquire()) {
+            return Optional.empty();
+        }
+        return Optional.of(out -> {
+            try {
+                body.writeTo(out);
+            } finally {
+                slots.release();
+            }
+        });
+    }
+
+    public <T> long writeNdjson(Supplier<Stream<T>> source, OutputStream out) {
+        return writeNdjson(source, out, CHUNK_ROWS);
+    }
+
+    public <T> long writeNdjson(Supplier<Stream<T>> source, OutputStream out, int chunkRows) {
+        Long written = readOnlyTransaction.execute(status -> {
+            try (Stream<T> rows = source.get();
+                 JsonGenerator generator = writer.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                long count = 0;
+                for (Iterator<T> it = rows.iterator(); it.hasNext(); ) {
+                    writer.writeValue(generator, it.next());
+                    generator.writeRaw('\n');
+                    if (++count % chunkRows == 0) {
+                        generator.flush();
+                        entityManager.clear();
+                    }
+                }
+                generator.flush();
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return written != null ? written : 0L;
+    }
+
+    /**
+     * Writes an RFC 4180 CSV document: the header line, then one line per row with the values produced by
+     * {@code columns}. Nulls are written as empty fields.
+     */
+    public <T> long writeCsv(Supplier<Stream<T>> source, OutputStream out, List<String> header,
+                             Function<T, List<?>> columns, int chunkRows) {
+        Long written = readOnlyTransaction.execute(status -> {
+            Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), CSV_BUFFER_CHARS);
+            try (Stream<T> rows = source.get()) {
+                writeCsvLine(csv, header);
+                long count = 0;
+                for (Iterator<T> it = rows.iterator(); it.hasNext(); ) {
+                    writeCsvLine(csv, columns.apply(it.next()));
+                    if (++count % chunkRows == 0) {
+                        csv.flush();
+                        entityManager.clear();
+                    }
+                }
+                csv.flush();
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return written != null ? written : 0L;
+    }
+
+    private static void writeCsvLine(Writer csv, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                csv.write(',');
+            }
+            writeCsvField(csv, values.get(i));
+        }
+        csv.write("\r\n");
+    }
+
+    private static void writeCsvField(Writer csv, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            csv.write(text);
+            return;
+        }
+        csv.write('"');
+        csv.write(text.replace("\"", "\"\""));
+        csv.write('"');
+    }
+}
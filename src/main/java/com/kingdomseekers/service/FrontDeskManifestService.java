@@ -0,0 +1,121 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.dto.FrontDeskManifest;
+import com.kingdomseekers.entity.Booking;
+import com.kingdomseekers.event.BookingChangedEvent;
+import com.kingdomseekers.event.CacheInvalidation;
+import com.kingdomseekers.event.CacheInvalidationBus;
+import com.kingdomseekers.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Arrivals, departures and in-house guests for a day, built from one query over the stays touching it. Today's
+ * and tomorrow's manifests are kept in memory: a committed booking change drops the cached days it touches,
+ * and a booking change announced by another replica on the {@link CacheInvalidationBus} drops both. A
+ * scheduled refresh rebuilds them, covering any announcement that was lost. Other days are built on request.
+ */
+@Service
+public class FrontDeskManifestService {
+
+    private static final Set<Booking.BookingStatus> ON_THE_BOOKS =
+            EnumSet.of(Booking.BookingStatus.CONFIRMED, Booking.BookingStatus.CHECKED_IN);
+    private static final String ENTITY = Booking.class.getSimpleName();
+
+    private final BookingRepository bookingRepository;
+    private final Map<LocalDate, FrontDeskManifest> cache = new ConcurrentHashMap<>();
+    /** Bumped on every invalidation so a manifest built across one is not cached. */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public FrontDeskManifestService(BookingRepository bookingRepository, CacheInvalidationBus bus) {
+        this.bookingRepository = bookingRepository;
+        bus.subscribe(this::onInvalidation);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        // Any change counts, not just a status or date change: guest details are on the manifest too
+        generation.incrementAndGet();
+        cache.keySet().removeIf(day -> touches(event.before(), day) || touches(event.after(), day));
+    }
+
+    /** The message does not say which days the booking spans, so both cached days go. */
+    void onInvalidation(CacheInvalidation invalidation) {
+        if (CacheInvalidation.ALL.equals(invalidation.entity()) || ENTITY.equals(invalidation.entity())) {
+            generation.incrementAndGet();
+            cache.clear();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${bookings.manifest.refresh-interval:PT2M}", initialDelayString = "${bookings.manifest.refresh-interval:PT2M}")
+    public void refresh() {
+        LocalDate today = LocalDate.now();
+        cache.keySet().removeIf(day -> day.isBefore(today));
+        for (LocalDate day : List.of(today, today.plusDays(1))) {
+            long observed = generation.get();
+            FrontDeskManifest manifest = build(day);
+            if (generation.get() == observed) {
+                cache.put(day, manifest);
+            } else {
+                cache.remove(day);
+            }
+        }
+    }
+
+    public FrontDeskManifest getManifest(LocalDate date) {
+        FrontDeskManifest cached = cache.get(date);
+        if (cached != null) {
+            return cached;
+        }
+        long observed = generation.get();
+        FrontDeskManifest manifest = build(date);
+        if (isPrewarmed(date) && generation.get() == observed) {
+            cache.put(date, manifest);
+        }
+        return manifest;
+    }
+
+    private FrontDeskManifest build(LocalDate date) {
+        List<FrontDeskManifest.Stay> arrivals = new ArrayList<>();
+        List<FrontDeskManifest.Stay> departures = new ArrayList<>();
+        List<FrontDeskManifest.Stay> inHouse = new ArrayList<>();
+        for (FrontDeskManifest.Stay stay : bookingRepository.findStaysTouching(date, ON_THE_BOOKS)) {
+            if (stay.checkInDate().equals(date)) {
+                arrivals.add(stay);
+            } else if (stay.checkOutDate().equals(date)) {
+                departures.add(stay);
+            } else {
+                inHouse.add(stay);
+            }
+        }
+        return new FrontDeskManifest(date, List.copyOf(arrivals), List.copyOf(departures), List.copyOf(inHouse),
+                Instant.now());
+    }
+
+    private static boolean isPrewarmed(LocalDate date) {
+        LocalDate today = LocalDate.now();
+        return date.equals(today) || date.equals(today.plusDays(1));
+    }
+
+    /** Check-out day included: a departure is on that day's manifest. */
+    private static boolean touches(Booking.State stay, LocalDate day) {
+        return stay != null && stay.checkInDate() != null && stay.checkOutDate() != null
+                && !day.isBefore(stay.checkInDate()) && !day.isAfter(stay.checkOutDate());
+    }
+}
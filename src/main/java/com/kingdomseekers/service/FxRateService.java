@@ -0,0 +1,135 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.dto.FxRateTable;
+import com.kingdomseekers.event.CacheInvalidation;
+import com.kingdomseekers.event.CacheInvalidationBus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the FX rate table used for donation reporting. The table is loaded from
+ * {@code fx.rates.location} (a properties file with {@code version}, {@code base} and {@code rate.<CODE>}
+ * entries) and replaced atomically on reload; readers take one snapshot and use it for a whole report.
+ * A reload is announced on the {@link CacheInvalidationBus}, and every replica also re-reads the file each
+ * {@code fx.rates.refresh-interval}, so all replicas report with the same version once the file has reached
+ * them. Those re-reads only swap in a table whose {@code version} differs.
+ */
+@Service
+public class FxRateService {
+
+    private static final Logger log = LoggerFactory.getLogger(FxRateService.class);
+
+    private static final String RATE_PREFIX = "rate.";
+    private static final String ENTITY = FxRateTable.class.getSimpleName();
+
+    private final ResourceLoader resourceLoader;
+    private final String location;
+    private final CacheInvalidationBus bus;
+    private final AtomicReference<FxRateTable> table = new AtomicReference<>();
+
+    @Autowired
+    public FxRateService(ResourceLoader resourceLoader,
+                         @Value("${fx.rates.location:classpath:fx-rates.properties}") String location,
+                         CacheInvalidationBus bus) {
+        this.resourceLoader = resourceLoader;
+        this.location = location;
+        this.bus = bus;
+        swapIn(load(resourceLoader.getResource(location)));
+        bus.subscribe(this::onInvalidation);
+    }
+
+    public FxRateTable getTable() {
+        return table.get();
+    }
+
+    /**
+     * Reads the rate file again, swaps it in and tells the other replicas to do the same. A file that cannot
+     * be read or parsed leaves the current table in place.
+     *
+     * @throws IllegalArgumentException if the file is malformed
+     */
+    public FxRateTable reload() {
+        FxRateTable fresh = swapIn(load(resourceLoader.getResource(location)));
+        bus.publish(new CacheInvalidation(ENTITY, null));
+        return fresh;
+    }
+
+    void onInvalidation(CacheInvalidation invalidation) {
+        if (CacheInvalidation.ALL.equals(invalidation.entity()) || ENTITY.equals(invalidation.entity())) {
+            refresh();
+        }
+    }
+
+    /** Swaps in the file's table if its version is new; a file that cannot be used is logged and skipped. */
+    @Scheduled(fixedDelayString = "${fx.rates.refresh-interval:PT5M}", initialDelayString = "${fx.rates.refresh-interval:PT5M}")
+    public void refresh() {
+        FxRateTable fresh;
+        try {
+            fresh = load(resourceLoader.getResource(location));
+        } catch (RuntimeException e) {
+            log.warn("FX rate table not refreshed: {}", e.getMessage());
+            return;
+        }
+        if (!fresh.version().equals(table.get().version())) {
+            swapIn(fresh);
+        }
+    }
+
+    private FxRateTable swapIn(FxRateTable fresh) {
+        FxRateTable previous = table.getAndSet(fresh);
+        log.info("FX rate table {} loaded with {} rates (previous version {})", fresh.version(), fresh.rates().size(),
+                previous != null ? previous.version() : "none");
+        return fresh;
+    }
+
+    private static FxRateTable load(Resource resource) {
+        Properties properties = new Properties();
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read FX rates from " + resource.getDescription(), e);
+        }
+        String version = properties.getProperty("version");
+        String base = FxRateTable.normalize(properties.getProperty("base"));
+        if (version == null || version.isBlank() || base == null || base.isEmpty()) {
+            throw new IllegalArgumentException("FX rate file must define version and base");
+        }
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (!name.startsWith(RATE_PREFIX)) {
+                continue;
+            }
+            String currency = FxRateTable.normalize(name.substring(RATE_PREFIX.length()));
+            BigDecimal rate;
+            try {
+                rate = new BigDecimal(properties.getProperty(name).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid FX rate for " + currency);
+            }
+            if (rate.signum() <= 0) {
+                throw new IllegalArgumentException("FX rate for " + currency + " must be positive");
+            }
+            rates.put(currency, rate);
+        }
+        rates.putIfAbsent(base, BigDecimal.ONE);
+        return new FxRateTable(version.trim(), base, rates, Instant.now());
+    }
+}
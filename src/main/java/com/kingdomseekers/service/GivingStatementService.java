@@ -0,0 +1,342 @@
+package com.kingdomseekers.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kingdomseekers.dto.GivingStatement;
+import com.kingdomseekers.dto.GivingStatementJobStatus;
+import com.kingdomseekers.entity.Donation;
+import com.kingdomseekers.entity.GivingStatementPartition;
+import com.kingdomseekers.entity.GivingStatementRun;
+import com.kingdomseekers.repository.DonationRepository;
+import com.kingdomseekers.repository.GivingStatementPartitionRepository;
+import com.kingdomseekers.repository.GivingStatementRunRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Generates annual giving statements for every donor. Donors are split into member-id ranges of
+ * {@code giving-statements.partition-size} ids, aligned to multiples of that size so a range means the same
+ * members from one run to the next. Each range is aggregated by one grouped query sorted by member, rendered
+ * as NDJSON on a bounded worker pool and stored in the database, so any replica can report progress and serve
+ * the statements, and a restarted run only redoes the ranges that were not stored. A run holds the
+ * {@value #LEASE} lease, so only one replica generates statements at a time.
+ */
+@Service
+public class GivingStatementService {
+
+    private static final Logger log = LoggerFactory.getLogger(GivingStatementService.class);
+
+    static final String LEASE = "giving-statements";
+
+    private final DonationRepository donationRepository;
+    private final GivingStatementRunRepository runRepository;
+    private final GivingStatementPartitionRepository partitionRepository;
+    private final SchedulerLeases leases;
+    private final ObjectWriter writer;
+    private final int partitionSize;
+    private final Duration leaseTtl;
+    private final ExecutorService workers;
+    private final Counter statementsRendered;
+    private final Counter partitionsCompleted;
+    private final Counter partitionsFailed;
+    private final Timer partitionTimer;
+    private final AtomicReference<Job> currentJob = new AtomicReference<>();
+
+    @Autowired
+    public GivingStatementService(DonationRepository donationRepository, GivingStatementRunRepository runRepository,
+                                  GivingStatementPartitionRepository partitionRepository, SchedulerLeases leases,
+                                  ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                  @Value("${giving-statements.partition-size:1000}") int partitionSize,
+                                  @Value("${giving-statements.workers:3}") int workers,
+                                  @Value("${giving-statements.lease-ttl:PT10M}") Duration leaseTtl) {
+        this.donationRepository = donationRepository;
+        this.runRepository = runRepository;
+        this.partitionRepository = partitionRepository;
+        this.leases = leases;
+        this.writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.partitionSize = partitionSize;
+        this.leaseTtl = leaseTtl;
+        this.workers = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("giving-statements-"));
+        this.statementsRendered = meterRegistry.counter("giving.statements.rendered");
+        this.partitionsCompleted = meterRegistry.counter("giving.statements.partitions", "outcome", "completed");
+        this.partitionsFailed = meterRegistry.counter("giving.statements.partitions", "outcome", "failed");
+        this.partitionTimer = meterRegistry.timer("giving.statements.partition.duration");
+        Gauge.builder("giving.statements.partitions.pending", currentJob, ref -> {
+            Job job = ref.get();
+            return job != null ? job.pending() : 0;
+        }).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Starts generating statements for the calendar year and returns immediately. Ranges stored by an earlier
+     * run of the year are kept unless {@code rerun} is set, which discards them and renders every range again
+     * (for example after donations for the year were corrected).
+     *
+     * @throws IllegalStateException if a run is already in progress on any replica
+     */
+    public synchronized GivingStatementJobStatus start(int year, boolean rerun) {
+        Job running = currentJob.get();
+        if (running != null && running.isRunning() || !leases.tryAcquire(LEASE, leaseTtl)) {
+            throw new IllegalStateException("Giving statements are already being generated");
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        Instant from = LocalDate.of(year, 1, 1).atStartOfDay(zone).toInstant();
+        Instant to = LocalDate.of(year + 1, 1, 1).atStartOfDay(zone).toInstant();
+        Job job;
+        List<Partition> todo = new ArrayList<>();
+        try {
+            List<Partition> partitions = partition(donationRepository.findDonorIdRange(from, to));
+            Set<Partition> stored;
+            if (rerun) {
+                partitionRepository.deleteByYear(year);
+                stored = Set.of();
+            } else {
+                stored = storedPartitions(year, partitions);
+            }
+            job = new Job(year, from, to, partitions.size(), leases.getHolder());
+            for (Partition partition : partitions) {
+                if (stored.contains(partition)) {
+                    job.skipped.incrementAndGet();
+                } else {
+                    todo.add(partition);
+                }
+            }
+            record(job);
+        } catch (RuntimeException e) {
+            leases.release(LEASE);
+            throw e;
+        }
+        currentJob.set(job);
+        log.info("Generating {} giving statements: {} partitions, {} already stored",
+                year, job.totalPartitions, job.skipped.get());
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (Partition partition : todo) {
+            pending.add(CompletableFuture.runAsync(() -> render(job, partition), workers));
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).whenComplete((ignored, error) -> finish(job));
+        return job.status();
+    }
+
+    /** The most recently started run, as last recorded by the replica running it. */
+    public Optional<GivingStatementJobStatus> getStatus() {
+        return runRepository.findFirstByOrderByStartedAtDesc().map(this::toStatus);
+    }
+
+    public Optional<GivingStatementJobStatus> getStatus(int year) {
+        return runRepository.findById(year).map(this::toStatus);
+    }
+
+    /** Writes the year's stored statements as NDJSON in member-id order, loading one range at a time. */
+    public void writeStatements(int year, OutputStream out) throws IOException {
+        for (GivingStatementPartitionRepository.Range range : partitionRepository.findRanges(year)) {
+            Optional<String> content = partitionRepository.findContent(year, range.getFirstId());
+            if (content.isPresent()) {
+                out.write(content.get().getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+        }
+    }
+
+    /** Ranges already stored for the year; stored ranges that are not part of this plan are removed. */
+    private Set<Partition> storedPartitions(int year, List<Partition> plan) {
+        Set<Partition> planned = new HashSet<>(plan);
+        Set<Partition> stored = new HashSet<>();
+        List<Long> obsolete = new ArrayList<>();
+        for (GivingStatementPartitionRepository.Range range : partitionRepository.findRanges(year)) {
+            Partition partition = new Partition(range.getFirstId(), range.getLastId());
+            if (planned.contains(partition)) {
+                stored.add(partition);
+            } else {
+                obsolete.add(partition.firstId());
+            }
+        }
+        if (!obsolete.isEmpty()) {
+            partitionRepository.deleteRanges(year, obsolete);
+        }
+        return stored;
+    }
+
+    private List<Partition> partition(DonationRepository.IdRange range) {
+        List<Partition> partitions = new ArrayList<>();
+        if (range == null || range.getFirstId() == null) {
+            return partitions;
+        }
+        long aligned = Math.floorDiv(range.getFirstId(), partitionSize) * (long) partitionSize;
+        for (long first = aligned; first <= range.getLastId(); first += partitionSize) {
+            partitions.add(new Partition(first, first + partitionSize - 1));
+        }
+        return partitions;
+    }
+
+    private void render(Job job, Partition partition) {
+        Timer.Sample sample = Timer.start();
+        try {
+            List<GivingStatement> statements = toStatements(
+                    donationRepository.sumGivingByMember(partition.firstId(), partition.lastId(), job.from, job.to), job.year);
+            StringBuilder content = new StringBuilder();
+            for (GivingStatement statement : statements) {
+                content.append(writer.writeValueAsString(statement)).append('\n');
+            }
+            partitionRepository.save(new GivingStatementPartition(job.year, partition.firstId(), partition.lastId(),
+                    statements.size(), content.toString(), Instant.now()));
+            job.completed.incrementAndGet();
+            job.statements.addAndGet(statements.size());
+            statementsRendered.increment(statements.size());
+            partitionsCompleted.increment();
+        } catch (IOException | RuntimeException e) {
+            job.failed.incrementAndGet();
+            partitionsFailed.increment();
+            log.warn("Giving statement partition {} for {} failed", partition.key(), job.year, e);
+        } finally {
+            sample.stop(partitionTimer);
+        }
+        leases.tryAcquire(LEASE, leaseTtl);
+        recordQuietly(job);
+    }
+
+    private void finish(Job job) {
+        job.finishedAt = Instant.now();
+        recordQuietly(job);
+        leases.release(LEASE);
+        log.info("Giving statements for {} finished: {} statements, {} partitions failed",
+                job.year, job.statements.get(), job.failed.get());
+    }
+
+    /** Serialized so a slower worker cannot overwrite a newer snapshot with an older one. */
+    private synchronized void record(Job job) {
+        GivingStatementJobStatus status = job.status();
+        runRepository.save(new GivingStatementRun(status.year(), status.state(), status.totalPartitions(),
+                status.completedPartitions(), status.skippedPartitions(), status.failedPartitions(),
+                status.statementsWritten(), status.startedBy(), status.startedAt(), Instant.now(), status.finishedAt()));
+    }
+
+    private void recordQuietly(Job job) {
+        try {
+            record(job);
+        } catch (RuntimeException e) {
+            log.warn("Could not record giving statement progress for {}: {}", job.year, e.getMessage());
+        }
+    }
+
+    /** A run whose replica stopped reporting for longer than the lease is reported as failed. */
+    private GivingStatementJobStatus toStatus(GivingStatementRun run) {
+        GivingStatementJobStatus.State state = run.getState();
+        if (state == GivingStatementJobStatus.State.RUNNING && run.getUpdatedAt().plus(leaseTtl).isBefore(Instant.now())) {
+            state = GivingStatementJobStatus.State.FAILED;
+        }
+        return new GivingStatementJobStatus(run.getYear(), state, run.getTotalPartitions(), run.getCompletedPartitions(),
+                run.getSkippedPartitions(), run.getFailedPartitions(), run.getStatementsWritten(), run.getStartedBy(),
+                run.getStartedAt(), run.getFinishedAt());
+    }
+
+    /** Folds rows sorted by member and currency into one statement per member. */
+    private static List<GivingStatement> toStatements(List<DonationRepository.MemberGivingTotal> rows, int year) {
+        List<GivingStatement> statements = new ArrayList<>();
+        int i = 0;
+        while (i < rows.size()) {
+            DonationRepository.MemberGivingTotal member = rows.get(i);
+            List<GivingStatement.CurrencyTotal> totals = new ArrayList<>();
+            while (i < rows.size() && rows.get(i).getMemberId().equals(member.getMemberId())) {
+                String currency = rows.get(i).getCurrency();
+                Map<Donation.DonationType, BigDecimal> byType = new EnumMap<>(Donation.DonationType.class);
+                BigDecimal total = BigDecimal.ZERO;
+                long gifts = 0;
+                while (i < rows.size() && rows.get(i).getMemberId().equals(member.getMemberId())
+                        && Objects.equals(rows.get(i).getCurrency(), currency)) {
+                    DonationRepository.MemberGivingTotal row = rows.get(i++);
+                    BigDecimal amount = row.getTotal() != null ? row.getTotal() : BigDecimal.ZERO;
+                    Donation.DonationType type = row.getType() != null ? row.getType() : Donation.DonationType.OTHER;
+                    byType.merge(type, amount, BigDecimal::add);
+                    total = total.add(amount);
+                    gifts += row.getGifts();
+                }
+                totals.add(new GivingStatement.CurrencyTotal(currency, byType, total, gifts));
+            }
+            statements.add(new GivingStatement(member.getMemberId(), member.getFirstName(), member.getLastName(),
+                    member.getEmail(), year, totals));
+        }
+        return statements;
+    }
+
+    record Partition(long firstId, long lastId) {
+        String key() {
+            return firstId + "-" + lastId;
+        }
+    }
+
+    private static final class Job {
+        private final int year;
+        private final Instant from;
+        private final Instant to;
+        private final int totalPartitions;
+        private final String startedBy;
+        private final Instant startedAt = Instant.now();
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicLong statements = new AtomicLong();
+        private volatile Instant finishedAt;
+
+        Job(int year, Instant from, Instant to, int totalPartitions, String startedBy) {
+            this.year = year;
+            this.from = from;
+            this.to = to;
+            this.totalPartitions = totalPartitions;
+            this.startedBy = startedBy;
+        }
+
+        boolean isRunning() {
+            return finishedAt == null;
+        }
+
+        int pending() {
+            return isRunning() ? totalPartitions - completed.get() - skipped.get() - failed.get() : 0;
+        }
+
+        GivingStatementJobStatus status() {
+            GivingStatementJobStatus.State state = isRunning() ? GivingStatementJobStatus.State.RUNNING
+                    : failed.get() > 0 ? GivingStatementJobStatus.State.FAILED
+                    : GivingStatementJobStatus.State.COMPLETED;
+            return new GivingStatementJobStatus(year, state, totalPartitions, completed.get(), skipped.get(),
+                    failed.get(), statements.get(), startedBy, startedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.entity.Booking;
+import com.kingdomseekers.entity.Payment;
+import com.kingdomseekers.event.BookingChangedEvent;
+import com.kingdomseekers.event.PaymentChangedEvent;
+import com.kingdomseekers.repository.BookingRepository;
+import com.kingdomseekers.repository.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Expires PENDING bookings and PENDING or PROCESSING payments that have not changed for their hold time.
+ * Open holds sit in a {@link DelayQueue} ordered by expiry, so the worker wakes exactly when the next one
+ * lapses instead of polling. Only the replica holding the {@value #LEASE} lease expires holds: it loads the
+ * open holds when it takes the lease, then picks up holds opened on other replicas by their last change and
+ * sees its own through change events. Each catch-up re-reads {@code holds.catch-up-overlap} before the last
+ * one, so a hold whose transaction committed after a later one, or whose replica's clock runs behind, is
+ * still found. Expiry is a conditional batched update, so a hold confirmed in
+ * the meantime is left alone; it also bumps the booking's version, so a confirmation that read the hold before
+ * it lapsed fails instead of reviving it. Each cancellation is published as a {@link BookingChangedEvent};
+ * the availability index announces it on the cache invalidation bus, where the other replicas' indexes,
+ * booking counts and front-desk manifests pick it up.
+ */
+@Service
+public class HoldExpiryService {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldExpiryService.class);
+
+    static final String LEASE = "hold-expiry";
+    static final String EXPIRED_REASON = "Expired: no confirmation received";
+
+    private static final Set<Payment.PaymentStatus> OPEN_PAYMENT_STATUSES = EnumSet.of(
+            Payment.PaymentStatus.PENDING, Payment.PaymentStatus.PROCESSING);
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    enum Kind {
+        BOOKING, PAYMENT
+    }
+
+    private final BookingRepository bookingRepository;
+    private final PaymentRepository paymentRepository;
+    private final SchedulerLeases leases;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration bookingTtl;
+    private final Duration paymentTtl;
+    private final Duration leaseTtl;
+    private final Duration resyncInterval;
+    private final Duration catchUpOverlap;
+    private final int batchSize;
+    private final Counter bookingsExpired;
+    private final Counter paymentsExpired;
+
+    private final DelayQueue<Hold> queue = new DelayQueue<>();
+    /** Holds currently in the queue, so a hold seen through both an event and a catch-up is queued once. */
+    private final Set<HoldKey> queued = ConcurrentHashMap.newKeySet();
+
+    private volatile Instant leaseValidUntil = Instant.EPOCH;
+    private Instant nextResync = Instant.EPOCH;
+    private Instant caughtUpTo = Instant.EPOCH;
+    private volatile boolean running;
+    private Thread worker;
+
+    @Autowired
+    public HoldExpiryService(BookingRepository bookingRepository, PaymentRepository paymentRepository,
+                             SchedulerLeases leases, ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${holds.booking-ttl:PT30M}") Duration bookingTtl,
+                             @Value("${holds.payment-ttl:PT15M}") Duration paymentTtl,
+                             @Value("${holds.lease-ttl:PT30S}") Duration leaseTtl,
+                             @Value("${holds.resync-interval:PT1H}") Duration resyncInterval,
+                             @Value("${holds.catch-up-overlap:PT5M}") Duration catchUpOverlap,
+                             @Value("${holds.batch-size:200}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.paymentRepository = paymentRepository;
+        this.leases = leases;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bookingTtl = bookingTtl;
+        this.paymentTtl = paymentTtl;
+        this.leaseTtl = leaseTtl;
+        this.resyncInterval = resyncInterval;
+        this.catchUpOverlap = catchUpOverlap;
+        this.batchSize = batchSize;
+        this.bookingsExpired = meterRegistry.counter("holds.expired", "kind", "booking");
+        this.paymentsExpired = meterRegistry.counter("holds.expired", "kind", "payment");
+        meterRegistry.gauge("holds.scheduled", queue, DelayQueue::size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "hold-expiry");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(POLL_TIMEOUT.toMillis() * 5);
+        }
+        if (isLeader()) {
+            leases.release(LEASE);
+        }
+    }
+
+    /**
+     * Renews the lease. On taking it over (and every {@code holds.resync-interval}) the queue is reloaded from
+     * the open holds; otherwise only holds changed since shortly before the last catch-up are read.
+     */
+    @Scheduled(fixedDelayString = "${holds.lease-renew-interval:PT10S}", initialDelayString = "${holds.lease-renew-interval:PT10S}")
+    public synchronized void heartbeat() {
+        boolean wasLeader = isLeader();
+        Instant renewedAt = Instant.now();
+        if (!leases.tryAcquire(LEASE, leaseTtl)) {
+            if (wasLeader) {
+                log.info("Lost hold expiry lease; another replica now expires holds");
+            }
+            leaseValidUntil = Instant.EPOCH;
+            clear();
+            return;
+        }
+        leaseValidUntil = renewedAt.plus(leaseTtl);
+        if (!wasLeader || !renewedAt.isBefore(nextResync)) {
+            resync();
+            nextResync = renewedAt.plus(resyncInterval);
+        } else {
+            catchUp();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        Booking.BookingStatus before = event.before() != null ? event.before().status() : null;
+        Booking.BookingStatus after = event.after() != null ? event.after().status() : null;
+        if (isLeader() && after == Booking.BookingStatus.PENDING && before != Booking.BookingStatus.PENDING) {
+            schedule(Kind.BOOKING, event.bookingId(), Instant.now().plus(bookingTtl));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentChanged(PaymentChangedEvent event) {
+        Payment.PaymentStatus before = event.before() != null ? event.before().status() : null;
+        Payment.PaymentStatus after = event.after() != null ? event.after().status() : null;
+        if (isLeader() && after != null && OPEN_PAYMENT_STATUSES.contains(after)
+                && (before == null || !OPEN_PAYMENT_STATUSES.contains(before))) {
+            schedule(Kind.PAYMENT, event.paymentId(), Instant.now().plus(paymentTtl));
+        }
+    }
+
+    private boolean isLeader() {
+        return Instant.now().isBefore(leaseValidUntil);
+    }
+
+    private void resync() {
+        clear();
+        caughtUpTo = Instant.now();
+        List<BookingRepository.Hold> bookings = bookingRepository.findPendingHolds();
+        List<PaymentRepository.Hold> payments = paymentRepository.findOpenHolds();
+        bookings.forEach(hold -> schedule(Kind.BOOKING, hold.getId(), hold.getHeldSince().plus(bookingTtl)));
+        payments.forEach(hold -> schedule(Kind.PAYMENT, hold.getId(), hold.getHeldSince().plus(paymentTtl)));
+        log.info("Hold expiry scheduled {} pending bookings and {} open payments", bookings.size(), payments.size());
+    }
+
+    private void catchUp() {
+        Instant now = Instant.now();
+        Instant since = caughtUpTo.minus(catchUpOverlap);
+        bookingRepository.findPendingHoldsChangedSince(since).forEach(
+                hold -> schedule(Kind.BOOKING, hold.getId(), hold.getHeldSince().plus(bookingTtl)));
+        paymentRepository.findOpenHoldsChangedSince(since).forEach(
+                hold -> schedule(Kind.PAYMENT, hold.getId(), hold.getHeldSince().plus(paymentTtl)));
+        caughtUpTo = now;
+    }
+
+    private void schedule(Kind kind, Long id, Instant expiresAt) {
+        HoldKey key = new HoldKey(kind, id);
+        if (queued.add(key)) {
+            queue.add(new Hold(key, expiresAt));
+        }
+    }
+
+    private void clear() {
+        queue.clear();
+        queued.clear();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Hold first = queue.poll(POLL_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<Hold> batch = new ArrayList<>();
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                batch.forEach(hold -> queued.remove(hold.key()));
+                if (!isLeader()) {
+                    // Dropped; the queue is reloaded when the lease is taken again.
+                    continue;
+                }
+                Map<Kind, List<Long>> byKind = batch.stream().collect(Collectors.groupingBy(
+                        hold -> hold.key().kind(), Collectors.mapping(hold -> hold.key().id(), Collectors.toList())));
+                expireBookings(byKind.getOrDefault(Kind.BOOKING, List.of()));
+                expirePayments(byKind.getOrDefault(Kind.PAYMENT, List.of()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Holds that were dropped here are picked up again by the next resync.
+                log.error("Expiring holds failed", e);
+            }
+        }
+    }
+
+    private void expireBookings(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        Instant cutoff = now.minus(bookingTtl);
+        List<Long> lapsed = new ArrayList<>();
+        for (BookingRepository.Hold hold : bookingRepository.findPendingHoldsByIdIn(ids)) {
+            if (hold.getHeldSince().isAfter(cutoff)) {
+                // Edited since it was scheduled: the hold restarts from the last change.
+                schedule(Kind.BOOKING, hold.getId(), hold.getHeldSince().plus(bookingTtl));
+            } else {
+                lapsed.add(hold.getId());
+            }
+        }
+        if (lapsed.isEmpty()) {
+            return;
+        }
+        List<Long> cancelled = transactionTemplate.execute(status -> {
+            List<Long> updated = bookingRepository.cancelExpiredHolds(lapsed, cutoff, now);
+            if (!updated.isEmpty()) {
+                for (BookingRepository.StayAmount stay : bookingRepository.findStayAmountsByIdIn(updated)) {
+                    eventPublisher.publishEvent(new BookingChangedEvent(stay.getId(),
+                            stayState(Booking.BookingStatus.PENDING, stay), stayState(Booking.BookingStatus.CANCELLED, stay)));
+                }
+            }
+            return updated;
+        });
+        bookingsExpired.increment(cancelled.size());
+        log.info("Cancelled {} bookings whose hold lapsed", cancelled.size());
+    }
+
+    private void expirePayments(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        Instant cutoff = now.minus(paymentTtl);
+        List<Long> lapsed = new ArrayList<>();
+        for (PaymentRepository.Hold hold : paymentRepository.findOpenHoldsByIdIn(ids)) {
+            if (hold.getHeldSince().isAfter(cutoff)) {
+                schedule(Kind.PAYMENT, hold.getId(), hold.getHeldSince().plus(paymentTtl));
+            } else {
+                lapsed.add(hold.getId());
+            }
+        }
+        if (lapsed.isEmpty()) {
+            return;
+        }
+        Integer failed = transactionTemplate.execute(status -> {
+            Map<Long, PaymentRepository.StateRow> before = paymentRepository.findStatesByIdIn(lapsed).stream()
+                    .collect(Collectors.toMap(PaymentRepository.StateRow::getId, Function.identity()));
+            List<Long> updated = paymentRepository.failExpiredHolds(lapsed, cutoff, now, EXPIRED_REASON);
+            for (Long id : updated) {
+                PaymentRepository.StateRow row = before.get(id);
+                if (row != null) {
+                    eventPublisher.publishEvent(new PaymentChangedEvent(id,
+                            new Payment.State(row.getStatus(), row.getPaymentMethod(), row.getAmount(), row.getPaidAt()),
+                            new Payment.State(Payment.PaymentStatus.FAILED, row.getPaymentMethod(), row.getAmount(), row.getPaidAt())));
+                }
+            }
+            return updated.size();
+        });
+        paymentsExpired.increment(failed);
+        log.info("Failed {} payments whose hold lapsed", failed);
+    }
+
+    private static Booking.State stayState(Booking.BookingStatus status, BookingRepository.StayAmount stay) {
+        return new Booking.State(status, stay.getRoomId(), stay.getCheckInDate(), stay.getCheckOutDate(), stay.getTotalAmount());
+    }
+
+    record HoldKey(Kind kind, Long id) {
+    }
+
+    record Hold(HoldKey key, Instant expiresAt) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(Instant.now(), expiresAt));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return other instanceof Hold hold ? expiresAt.compareTo(hold.expiresAt)
+                    : Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.kingdomseekers.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Limits for keyset-paginated list endpoints ({@code ?after=<id>&limit=}).
+ */
+public final class Keyset {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private Keyset() {
+    }
+
+    public static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    public static Pageable firstRows(int limit) {
+        return PageRequest.of(0, clamp(limit));
+    }
+
+    public static long after(Long after) {
+        return after != null ? after : 0L;
+    }
+}
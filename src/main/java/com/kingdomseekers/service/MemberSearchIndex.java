@@ -0,0 +1,707 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.dto.MemberSearchHit;
+import com.kingdomseekers.entity.Member;
+import com.kingdomseekers.repository.MemberRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+
+/**
+ * In-memory member directory index over first name, last name, email and phone. Terms live in a sorted
+ * dictionary so a prefix is one range scan; name terms are also indexed by their single-character deletions
+ * so a misspelt name (one edit away) still matches. The most selective query token finds the candidates and
+ * the remaining tokens and filters are checked against each candidate's own terms. Candidates are visited
+ * exact matches first, then prefix matches, then one-edit matches, and the rest of a tier is skipped once
+ * none of its members could outrank the hits already found.
+ * <p>
+ * The periodic rebuild reconciles the live index with the database a chunk at a time instead of building a
+ * second copy, so the heap holds one index and a search waits for at most one chunk.
+ */
+@Component
+public class MemberSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberSearchIndex.class);
+
+    static final int EXACT = 3;
+    static final int PREFIX = 2;
+    static final int FUZZY = 1;
+    /** Shorter tokens are too ambiguous to correct. */
+    private static final int MIN_FUZZY_LENGTH = 4;
+    /** Kenyan mobile numbers have nine significant digits, so +2547..., 2547... and 07... all share them. */
+    private static final int PHONE_SIGNIFICANT_DIGITS = 9;
+    /** Rows merged per write-lock hold during a rebuild. */
+    private static final int REBUILD_CHUNK = 1_000;
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Index index = new Index();
+    /** Members tracked since the running rebuild started, whose rows it must not apply; null when idle. */
+    private Set<Long> trackedDuringRebuild;
+
+    @Autowired
+    public MemberSearchIndex(MemberRepository memberRepository, PlatformTransactionManager transactionManager) {
+        this.memberRepository = memberRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /** Rebuilt at startup and periodically, to pick up members written or removed by other instances. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${members.search.rebuild-interval:PT15M}", initialDelayString = "${members.search.rebuild-interval:PT15M}")
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            if (trackedDuringRebuild != null) {
+                return;
+            }
+            trackedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        BitSet seen = new BitSet();
+        int[] changed = new int[1];
+        int removed = 0;
+        boolean streamed = false;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<MemberRepository.SearchFields> rows = memberRepository.streamSearchFields()) {
+                    List<Doc> chunk = new ArrayList<>(REBUILD_CHUNK);
+                    rows.forEach(row -> {
+                        chunk.add(new Doc(row.getId(), row.getFirstName(), row.getLastName(), row.getEmail(),
+                                row.getPhone(), row.getVettingStatus(), row.getCountryOfResidence(),
+                                row.getAssignedPastorId()));
+                        if (chunk.size() == REBUILD_CHUNK) {
+                            changed[0] += merge(chunk, seen);
+                            chunk.clear();
+                        }
+                    });
+                    changed[0] += merge(chunk, seen);
+                }
+            });
+            streamed = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (streamed) {
+                    // Members gone from the database; tracked ones are newer than the stream and stay.
+                    for (Long id : trackedDuringRebuild) {
+                        int ordinal = index.ordinal(id);
+                        if (ordinal >= 0) {
+                            seen.set(ordinal);
+                        }
+                    }
+                    removed = index.retain(seen);
+                }
+                trackedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Member search index reconciled: {} members and {} terms, {} changed and {} removed",
+                size(), termCount(), changed[0], removed);
+    }
+
+    /** Applies streamed rows under one write-lock hold, marking their ordinals seen; returns how many changed. */
+    private int merge(List<Doc> chunk, BitSet seen) {
+        int changed = 0;
+        lock.writeLock().lock();
+        try {
+            for (Doc doc : chunk) {
+                if (!trackedDuringRebuild.contains(doc.id()) && index.put(doc)) {
+                    changed++;
+                }
+                int ordinal = index.ordinal(doc.id());
+                if (ordinal >= 0) {
+                    seen.set(ordinal);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return changed;
+    }
+
+    /** Brings the index in line with the saved state of a member. */
+    public void track(Member member) {
+        if (member.getId() == null) {
+            return;
+        }
+        Doc doc = new Doc(member.getId(), member.getFirstName(), member.getLastName(), member.getEmail(),
+                member.getPhone(), member.getVettingStatus(), member.getCountryOfResidence(),
+                member.getAssignedPastor() != null ? member.getAssignedPastor().getId() : null);
+        lock.writeLock().lock();
+        try {
+            index.put(doc);
+            if (trackedDuringRebuild != null) {
+                trackedDuringRebuild.add(doc.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int termCount() {
+        lock.readLock().lock();
+        try {
+            return index.postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} members matching every token of {@code query} (exactly, as a prefix, or for
+     * names of four or more letters within one typo) and all the given filters, best matches first.
+     *
+     * @throws IllegalArgumentException if the query has no searchable token
+     */
+    public List<MemberSearchHit> search(String query, Member.VettingStatus vettingStatus, String country,
+                                        Long pastorId, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        String normalizedCountry = country != null && !country.isBlank() ? country.trim().toUpperCase(Locale.ROOT) : null;
+        // A candidate can gain at most an exact match on each remaining token.
+        int otherTokensMax = EXACT * (tokens.size() - 1);
+
+        lock.readLock().lock();
+        try {
+            // The token with the fewest exact matches, else the longest, is usually the most selective, so it
+            // drives the candidate set.
+            tokens.sort(Comparator.comparingInt(index::exactCount)
+                    .thenComparing(Comparator.comparingInt(String::length).reversed()));
+            // Indexed names one edit away from each remaining token, found once rather than per candidate.
+            List<Set<String>> corrections = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                corrections.add(corrections.isEmpty() ? Set.of() : index.fuzzyTerms(token));
+            }
+            PriorityQueue<Scored> best = new PriorityQueue<>(SCORED_ORDER.reversed());
+            // Equal scores are ordered by name, so a tier is worth visiting while it can reach the worst hit's score.
+            IntPredicate worthVisiting = tierScore -> best.size() < limit || best.peek().score() <= tierScore + otherTokensMax;
+            index.match(tokens.get(0), worthVisiting, (ordinal, tokenScore) -> {
+                long sortKey = index.sortKey(ordinal);
+                if (best.size() >= limit) {
+                    // Most candidates lose to the worst hit on score or name alone, without reading the member.
+                    Scored worst = best.peek();
+                    int ceiling = tokenScore + otherTokensMax;
+                    if (ceiling < worst.score()
+                            || (ceiling == worst.score() && Long.compareUnsigned(sortKey, worst.sortKey()) > 0)) {
+                        return;
+                    }
+                }
+                Doc doc = index.doc(ordinal);
+                if (!doc.matches(vettingStatus, normalizedCountry, pastorId)) {
+                    return;
+                }
+                int score = tokenScore;
+                for (int i = 1; i < tokens.size() && score > 0; i++) {
+                    int nextScore = doc.score(tokens.get(i), corrections.get(i));
+                    score = nextScore > 0 ? score + nextScore : 0;
+                }
+                if (score == 0 || (best.size() >= limit && score < best.peek().score())) {
+                    return;
+                }
+                Scored scored = new Scored(doc, score, sortKey);
+                if (best.size() < limit) {
+                    best.add(scored);
+                } else if (SCORED_ORDER.compare(scored, best.peek()) < 0) {
+                    best.poll();
+                    best.add(scored);
+                }
+            });
+            List<Scored> ranked = new ArrayList<>(best);
+            ranked.sort(SCORED_ORDER);
+            return ranked.stream().map(Scored::toHit).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static final Comparator<Scored> SCORED_ORDER = Comparator.comparingInt(Scored::score).reversed()
+            .thenComparing((a, b) -> Long.compareUnsigned(a.sortKey(), b.sortKey()))
+            .thenComparing(scored -> scored.doc().sortName())
+            .thenComparing(scored -> scored.doc().id());
+
+    private record Scored(Doc doc, int score, long sortKey) {
+        MemberSearchHit toHit() {
+            return new MemberSearchHit(doc.id(), doc.firstName(), doc.lastName(), doc.email(), doc.phone(),
+                    doc.vettingStatus(), doc.country(), doc.pastorId(), score);
+        }
+    }
+
+    static List<String> tokenize(String query) {
+        List<String> tokens = new ArrayList<>();
+        if (query == null) {
+            return tokens;
+        }
+        for (String raw : query.trim().split("\\s+")) {
+            String token = normalize(raw);
+            if (token.isEmpty()) {
+                continue;
+            }
+            String digits = token.replaceAll("[^0-9]", "");
+            // A phone number typed with separators or a country prefix is matched on its digits.
+            tokens.add(digits.length() >= 3 && digits.length() >= token.replaceAll("[+()\\-. ]", "").length()
+                    ? phoneQuery(digits) : token);
+        }
+        return tokens;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .trim();
+    }
+
+    /** Like {@link #phoneKey} but also drops a typed country code, since the query may be a partial number. */
+    private static String phoneQuery(String digits) {
+        return digits.startsWith("254") && digits.length() > 3 ? phoneKey(digits.substring(3)) : phoneKey(digits);
+    }
+
+    private static String phoneKey(String digits) {
+        return digits.length() > PHONE_SIGNIFICANT_DIGITS
+                ? digits.substring(digits.length() - PHONE_SIGNIFICANT_DIGITS)
+                : digits.startsWith("0") ? digits.substring(1) : digits;
+    }
+
+    /** Optimal string alignment distance, giving up once it exceeds {@code max}. */
+    static boolean withinEdits(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return false;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], previous2[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return false;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()] <= max;
+    }
+
+    private static List<String> deletions(String term) {
+        List<String> variants = new ArrayList<>(term.length());
+        for (int i = 0; i < term.length(); i++) {
+            variants.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return variants;
+    }
+
+    record Doc(Long id, String firstName, String lastName, String email, String phone,
+               Member.VettingStatus vettingStatus, String country, Long pastorId,
+               String sortName, String[] nameTerms, String[] otherTerms) {
+
+        Doc(Long id, String firstName, String lastName, String email, String phone,
+            Member.VettingStatus vettingStatus, String country, Long pastorId) {
+            this(id, firstName, lastName, email, phone, vettingStatus,
+                    country != null ? country.trim().toUpperCase(Locale.ROOT).intern() : null, pastorId,
+                    normalize(lastName) + " " + normalize(firstName),
+                    nameTerms(firstName, lastName), otherTerms(email, phone));
+        }
+
+        private static String[] nameTerms(String firstName, String lastName) {
+            Set<String> terms = new LinkedHashSet<>();
+            for (String part : (normalize(firstName) + " " + normalize(lastName)).split("[^\\p{L}\\p{N}]+")) {
+                if (!part.isEmpty()) {
+                    terms.add(part);
+                }
+            }
+            return terms.toArray(String[]::new);
+        }
+
+        private static String[] otherTerms(String email, String phone) {
+            Set<String> terms = new LinkedHashSet<>();
+            String normalizedEmail = normalize(email);
+            if (!normalizedEmail.isEmpty()) {
+                terms.add(normalizedEmail);
+                int at = normalizedEmail.indexOf('@');
+                for (String part : (at >= 0 ? normalizedEmail.substring(0, at) : normalizedEmail).split("[._+\\-]+")) {
+                    if (!part.isEmpty()) {
+                        terms.add(part);
+                    }
+                }
+                if (at >= 0 && at < normalizedEmail.length() - 1) {
+                    terms.add(normalizedEmail.substring(at + 1));
+                }
+            }
+            String digits = phone != null ? phone.replaceAll("[^0-9]", "") : "";
+            if (!digits.isEmpty()) {
+                terms.add(phoneKey(digits));
+            }
+            return terms.toArray(String[]::new);
+        }
+
+        boolean sameFields(Doc other) {
+            return Objects.equals(firstName, other.firstName) && Objects.equals(lastName, other.lastName)
+                    && Objects.equals(email, other.email) && Objects.equals(phone, other.phone)
+                    && vettingStatus == other.vettingStatus && Objects.equals(country, other.country)
+                    && Objects.equals(pastorId, other.pastorId);
+        }
+
+        boolean matches(Member.VettingStatus status, String countryCode, Long pastor) {
+            return (status == null || status == vettingStatus)
+                    && (countryCode == null || countryCode.equals(country))
+                    && (pastor == null || pastor.equals(pastorId));
+        }
+
+        /**
+         * Best match of the token against this member's own terms, or 0; {@code corrections} are the indexed
+         * names one edit away from the token.
+         */
+        int score(String token, Set<String> corrections) {
+            int best = 0;
+            for (String term : nameTerms) {
+                best = Math.max(best, termScore(token, term));
+            }
+            for (String term : otherTerms) {
+                best = Math.max(best, termScore(token, term));
+            }
+            if (best > 0 || corrections.isEmpty()) {
+                return best;
+            }
+            for (String term : nameTerms) {
+                if (corrections.contains(term)) {
+                    return FUZZY;
+                }
+            }
+            return 0;
+        }
+
+        private static int termScore(String token, String term) {
+            if (term.equals(token)) {
+                return EXACT;
+            }
+            return term.startsWith(token) ? PREFIX : 0;
+        }
+
+        Stream<String> terms() {
+            return Stream.concat(Arrays.stream(nameTerms), Arrays.stream(otherTerms)).distinct();
+        }
+    }
+
+    /** Receives each matching member once, with the score of its best matching term. */
+    interface MatchVisitor {
+        void visit(int ordinal, int score);
+    }
+
+    /**
+     * The index proper; guarded by the enclosing read/write lock. Members are numbered by dense ordinals, reused
+     * after removal, so postings are sorted {@code int} lists and a search can mark visited members in a bit set.
+     */
+    static final class Index {
+        private static final String[] NO_TERMS = new String[0];
+
+        private final List<Doc> docs = new ArrayList<>();
+        /** Each member's {@link #sortKey(String) abbreviated sort name}, by ordinal. */
+        private long[] sortKeys = new long[1024];
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+        private final NavigableMap<String, Posting> postings = new TreeMap<>();
+        /** Single-character deletions of name terms, mapped to the terms they came from. */
+        private final Map<String, String[]> nameDeletions = new HashMap<>();
+
+        int size() {
+            return ordinals.size();
+        }
+
+        Doc doc(int ordinal) {
+            return docs.get(ordinal);
+        }
+
+        long sortKey(int ordinal) {
+            return sortKeys[ordinal];
+        }
+
+        /** How many members hold exactly this term, or {@link Integer#MAX_VALUE} if none do. */
+        int exactCount(String term) {
+            Posting posting = postings.get(term);
+            return posting != null ? posting.size : Integer.MAX_VALUE;
+        }
+
+        /** The member's ordinal, or -1 if it is not indexed. */
+        int ordinal(Long id) {
+            Integer ordinal = ordinals.get(id);
+            return ordinal != null ? ordinal : -1;
+        }
+
+        /** Adds or replaces a member; returns false if it was already indexed with the same fields. */
+        boolean put(Doc doc) {
+            Integer ordinal = ordinals.get(doc.id());
+            if (ordinal != null) {
+                Doc previous = docs.get(ordinal);
+                if (previous.sameFields(doc)) {
+                    return false;
+                }
+                unindex(previous, ordinal);
+            } else {
+                ordinal = freeOrdinals.isEmpty() ? docs.size() : freeOrdinals.pop();
+                if (ordinal == docs.size()) {
+                    docs.add(null);
+                }
+                ordinals.put(doc.id(), ordinal);
+            }
+            int slot = ordinal;
+            docs.set(slot, doc);
+            if (slot >= sortKeys.length) {
+                sortKeys = Arrays.copyOf(sortKeys, Math.max(slot + 1, sortKeys.length * 2));
+            }
+            sortKeys[slot] = sortKey(doc.sortName());
+            doc.terms().forEach(term -> addPosting(term, slot));
+            for (String term : doc.nameTerms()) {
+                if (term.length() >= MIN_FUZZY_LENGTH) {
+                    for (String variant : deletions(term)) {
+                        nameDeletions.merge(variant, new String[]{term}, Index::union);
+                    }
+                }
+            }
+            return true;
+        }
+
+        /** Removes every member whose ordinal is not in {@code keep}; returns how many went. */
+        int retain(BitSet keep) {
+            int removed = 0;
+            for (int ordinal = 0; ordinal < docs.size(); ordinal++) {
+                Doc doc = docs.get(ordinal);
+                if (doc != null && !keep.get(ordinal)) {
+                    unindex(doc, ordinal);
+                    docs.set(ordinal, null);
+                    ordinals.remove(doc.id());
+                    freeOrdinals.push(ordinal);
+                    removed++;
+                }
+            }
+            return removed;
+        }
+
+        /**
+         * The first eight characters of a sort name, a byte each, so that comparing keys unsigned orders names as
+         * {@link String#compareTo} does wherever the keys differ. A character past one byte ends the key early,
+         * leaving such names to compare equal here and be told apart by the full name.
+         */
+        static long sortKey(String name) {
+            long key = 0;
+            int packed = 0;
+            while (packed < Long.BYTES && packed < name.length()) {
+                char c = name.charAt(packed++);
+                if (c >= 0xFF) {
+                    key = key << 8 | 0xFF;
+                    break;
+                }
+                key = key << 8 | c;
+            }
+            return key << 8 * (Long.BYTES - packed);
+        }
+
+        private void unindex(Doc doc, int ordinal) {
+            doc.terms().forEach(term -> removePosting(term, ordinal));
+        }
+
+        private void addPosting(String term, int ordinal) {
+            postings.computeIfAbsent(term, t -> new Posting()).add(ordinal);
+        }
+
+        private void removePosting(String term, int ordinal) {
+            Posting posting = postings.get(term);
+            if (posting == null || !posting.remove(ordinal)) {
+                return;
+            }
+            if (posting.size == 0) {
+                postings.remove(term);
+                for (String variant : deletions(term)) {
+                    String[] terms = nameDeletions.get(variant);
+                    if (terms != null) {
+                        String[] remaining = without(terms, term);
+                        if (remaining.length == 0) {
+                            nameDeletions.remove(variant);
+                        } else if (remaining != terms) {
+                            nameDeletions.put(variant, remaining);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Visits members with a term equal to, starting with, or (for names) one edit away from the token, in
+         * that order. {@code worthVisiting} is asked for the tier's score before each prefix and one-edit term,
+         * and the rest of the tier is skipped once it says no.
+         */
+        void match(String token, IntPredicate worthVisiting, MatchVisitor visitor) {
+            BitSet visited = new BitSet(docs.size());
+            Posting exact = postings.get(token);
+            if (exact != null) {
+                visit(exact, EXACT, visited, visitor);
+            }
+            for (Posting posting : postings.subMap(token, false, token + Character.MAX_VALUE, false).values()) {
+                if (!worthVisiting.test(PREFIX)) {
+                    return;
+                }
+                visit(posting, PREFIX, visited, visitor);
+            }
+            if (token.length() < MIN_FUZZY_LENGTH || !worthVisiting.test(FUZZY)) {
+                return;
+            }
+            for (String term : fuzzyTerms(token)) {
+                if (!worthVisiting.test(FUZZY)) {
+                    return;
+                }
+                Posting posting = postings.get(term);
+                if (posting != null) {
+                    visit(posting, FUZZY, visited, visitor);
+                }
+            }
+        }
+
+        /** Indexed name terms one edit away from the token; none for tokens too short to correct. */
+        Set<String> fuzzyTerms(String token) {
+            Set<String> terms = new HashSet<>();
+            if (token.length() < MIN_FUZZY_LENGTH) {
+                return terms;
+            }
+            // A term with one extra character, or one differing or transposed character.
+            terms.addAll(Arrays.asList(nameDeletions.getOrDefault(token, NO_TERMS)));
+            for (String variant : deletions(token)) {
+                terms.addAll(Arrays.asList(nameDeletions.getOrDefault(variant, NO_TERMS)));
+                // A term with one character fewer.
+                if (postings.containsKey(variant)) {
+                    terms.add(variant);
+                }
+            }
+            terms.remove(token);
+            terms.removeIf(term -> !withinEdits(token, term, 1));
+            return terms;
+        }
+
+        private static void visit(Posting posting, int score, BitSet visited, MatchVisitor visitor) {
+            for (int i = 0; i < posting.size; i++) {
+                int ordinal = posting.ordinals[i];
+                if (!visited.get(ordinal)) {
+                    visited.set(ordinal);
+                    visitor.visit(ordinal, score);
+                }
+            }
+        }
+
+        private static String[] union(String[] terms, String[] added) {
+            for (String term : terms) {
+                if (term.equals(added[0])) {
+                    return terms;
+                }
+            }
+            String[] grown = Arrays.copyOf(terms, terms.length + 1);
+            grown[terms.length] = added[0];
+            return grown;
+        }
+
+        private static String[] without(String[] terms, String removed) {
+            for (int i = 0; i < terms.length; i++) {
+                if (terms[i].equals(removed)) {
+                    String[] shrunk = new String[terms.length - 1];
+                    System.arraycopy(terms, 0, shrunk, 0, i);
+                    System.arraycopy(terms, i + 1, shrunk, i, terms.length - i - 1);
+                    return shrunk;
+                }
+            }
+            return terms;
+        }
+    }
+
+    /**
+     * Sorted ordinals of the members holding one term, with spare capacity: ordinals are mostly handed out in
+     * increasing order, so adding one to a term every member shares (an email domain) is an append, not a copy.
+     */
+    static final class Posting {
+        private int[] ordinals = new int[1];
+        private int size;
+
+        void add(int ordinal) {
+            int at = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (at >= 0) {
+                return;
+            }
+            int insert = -at - 1;
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            System.arraycopy(ordinals, insert, ordinals, insert + 1, size - insert);
+            ordinals[insert] = ordinal;
+            size++;
+        }
+
+        boolean remove(int ordinal) {
+            int at = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ordinals, at + 1, ordinals, at, size - at - 1);
+            size--;
+            if (size > 0 && size <= ordinals.length / 4) {
+                ordinals = Arrays.copyOf(ordinals, ordinals.length / 2);
+            }
+            return true;
+        }
+    }
+}
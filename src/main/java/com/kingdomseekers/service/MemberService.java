@@ -1,27 +1,49 @@
 package com.kingdomseekers.service;
 
+import com.kingdomseekers.dto.BulkImportReport;
+import com.kingdomseekers.dto.MemberSearchHit;
 import com.kingdomseekers.entity.Member;
 import com.kingdomseekers.repository.MemberRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class MemberService {
 
+    private static final int INDEX_CHUNK = 1000;
+
     private final MemberRepository memberRepository;
+    private final BulkImportService bulkImportService;
+    private final MemberSearchIndex searchIndex;
+    private final NaturalIdLookup naturalIdLookup;
+    private final PastorAssignmentService pastorAssignment;
 
     @Autowired
-    public MemberService(MemberRepository memberRepository) {
+    public MemberService(MemberRepository memberRepository, BulkImportService bulkImportService,
+                         MemberSearchIndex searchIndex, NaturalIdLookup naturalIdLookup,
+                         PastorAssignmentService pastorAssignment) {
         this.memberRepository = memberRepository;
+        this.bulkImportService = bulkImportService;
+        this.searchIndex = searchIndex;
+        this.naturalIdLookup = naturalIdLookup;
+        this.pastorAssignment = pastorAssignment;
+    }
+
+    public List<Member> getMembersAfter(Long after, int limit) {
+        return memberRepository.findByIdGreaterThanOrderByIdAsc(Keyset.after(after), Keyset.firstRows(limit));
     }
 
-    public List<Member> getAllMembers() {
-        return memberRepository.findAll();
+    public Stream<Member> streamAllMembers() {
+        return memberRepository.streamAllBy();
     }
 
     public Optional<Member> getMemberById(Long id) {
@@ -29,14 +51,42 @@ public class MemberService {
     }
 
     public Optional<Member> getMemberByEmail(String email) {
-        return memberRepository.findByEmail(email);
+        return naturalIdLookup.find(Member.class, email);
     }
 
     @Transactional
     public Member createMember(Member member) {
         member.setCreatedAt(Instant.now());
         member.setVettingStatus(Member.VettingStatus.PENDING);
-        return memberRepository.save(member);
+        return indexed(memberRepository.save(member));
+    }
+
+    public BulkImportReport importMembers(InputStream body, BulkImportService.Format format) throws IOException {
+        return bulkImportService.importRows(body, format, MemberService::memberFromRow, Member::getId, imported -> {
+            for (int from = 0; from < imported.size(); from += INDEX_CHUNK) {
+                memberRepository.findAllById(imported.subList(from, Math.min(from + INDEX_CHUNK, imported.size())))
+                        .forEach(searchIndex::track);
+            }
+        });
+    }
+
+    /** Directory search by name, email or phone; see {@link MemberSearchIndex#search}. */
+    public List<MemberSearchHit> searchMembers(String query, Member.VettingStatus vettingStatus, String country,
+                                               Long pastorId, int limit) {
+        return searchIndex.search(query, vettingStatus, country, pastorId, limit);
+    }
+
+    private static Member memberFromRow(Map<String, String> row) {
+        Member member = new Member();
+        member.setFirstName(BulkImportService.required(row, "firstName"));
+        member.setLastName(BulkImportService.required(row, "lastName"));
+        member.setEmail(BulkImportService.required(row, "email"));
+        member.setPhone(BulkImportService.optional(row, "phone"));
+        member.setNationality(BulkImportService.optional(row, "nationality"));
+        member.setCountryOfResidence(BulkImportService.optional(row, "countryOfResidence"));
+        member.setVettingStatus(Member.VettingStatus.PENDING);
+        member.setCreatedAt(Instant.now());
+        return member;
     }
 
     @Transactional
@@ -49,38 +99,54 @@ public class MemberService {
                     existingMember.setPhone(memberDetails.getPhone());
                     existingMember.setNationality(memberDetails.getNationality());
                     existingMember.setCountryOfResidence(memberDetails.getCountryOfResidence());
-                    return memberRepository.save(existingMember);
+                    return indexed(memberRepository.save(existingMember));
                 });
     }
 
+    /**
+     * Sets a member's vetting status directly, outside the queue. Refused with {@link IllegalStateException}
+     * while another reviewer holds a live claim on the member, so a batch being reviewed is never decided twice.
+     */
     @Transactional
-    public Optional<Member> updateVettingStatus(Long id, Member.VettingStatus status) {
-        return memberRepository.findById(id)
+    public Optional<Member> updateVettingStatus(Long id, Member.VettingStatus status, String reviewer) {
+        return memberRepository.lockAllByIdIn(List.of(id)).stream().findFirst()
                 .map(member -> {
+                    if (claimedByAnother(member, reviewer, Instant.now())) {
+                        throw new IllegalStateException("Member " + id + " is claimed by another reviewer");
+                    }
                     member.setVettingStatus(status);
+                    member.setVettingClaimedBy(null);
+                    member.setVettingClaimExpiresAt(null);
                     if (status == Member.VettingStatus.APPROVED) {
                         member.setApprovedAt(Instant.now());
+                        pastorAssignment.autoAssign(member);
                     }
-                    return memberRepository.save(member);
+                    return indexed(memberRepository.save(member));
                 });
     }
 
-    @Transactional
     public Optional<Member> assignPastor(Long memberId, Long pastorId) {
-        return memberRepository.findById(memberId)
-                .map(member -> {
-                    // Note: This would need a Pastor entity lookup in a real implementation
-                    // For now, we'll just return the member as-is
-                    return memberRepository.save(member);
-                });
+        return pastorAssignment.assign(memberId, pastorId);
+    }
+
+    public List<Member> getMembersByVettingStatus(Member.VettingStatus status, Long after, int limit) {
+        return memberRepository.findByVettingStatusAndIdGreaterThanOrderByIdAsc(
+                status, Keyset.after(after), Keyset.firstRows(limit));
+    }
+
+    public List<Member> getMembersByPastor(Long pastorId, Long after, int limit) {
+        return pastorAssignment.getMembersByPastor(pastorId, after, limit);
     }
 
-    public List<Member> getMembersByVettingStatus(Member.VettingStatus status) {
-        return memberRepository.findByVettingStatus(status);
+    private static boolean claimedByAnother(Member member, String reviewer, Instant now) {
+        return member.getVettingClaimedBy() != null
+                && !member.getVettingClaimedBy().equals(reviewer)
+                && member.getVettingClaimExpiresAt() != null
+                && member.getVettingClaimExpiresAt().isAfter(now);
     }
 
-    public List<Member> getMembersByPastor(Long pastorId) {
-        // Note: This would need proper implementation with Pastor relationship
-        return List.of();
+    private Member indexed(Member member) {
+        searchIndex.track(member);
+        return member;
     }
 }
\ No newline at end of file
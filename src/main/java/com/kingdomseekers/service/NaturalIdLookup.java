@@ -0,0 +1,32 @@
+package com.kingdomseekers.service;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Loads entities by their {@code @NaturalId}. Unlike a derived {@code findByX} query, the natural-id cache
+ * resolves the key to an id and the entity region serves the row, so a warm lookup never reaches the database.
+ */
+@Component
+public class NaturalIdLookup {
+
+    private final EntityManager entityManager;
+
+    @Autowired
+    public NaturalIdLookup(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    public <T> Optional<T> find(Class<T> type, Object naturalId) {
+        if (naturalId == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(type).loadOptional(naturalId);
+    }
+}
@@ -0,0 +1,199 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.dto.CaseloadRebalance;
+import com.kingdomseekers.dto.PastorCaseload;
+import com.kingdomseekers.entity.Member;
+import com.kingdomseekers.entity.Pastor;
+import com.kingdomseekers.event.CacheInvalidation;
+import com.kingdomseekers.event.CacheInvalidationBus;
+import com.kingdomseekers.repository.MemberRepository;
+import com.kingdomseekers.repository.PastorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Assigns members to pastors against the in-memory {@link PastorCaseloads}: approved members go to the
+ * least-loaded pastor in their country, and a rebalance moves members from the fullest to the emptiest
+ * pastors in batched updates.
+ */
+@Service
+public class PastorAssignmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(PastorAssignmentService.class);
+
+    /** A claimed pastor may have been deleted since the last reload; give up after this many. */
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+
+    private final MemberRepository memberRepository;
+    private final PastorRepository pastorRepository;
+    private final PastorCaseloads caseloads;
+    private final MemberSearchIndex searchIndex;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final AtomicBoolean rebalancing = new AtomicBoolean();
+
+    @Autowired
+    public PastorAssignmentService(MemberRepository memberRepository, PastorRepository pastorRepository,
+                                   PastorCaseloads caseloads, MemberSearchIndex searchIndex,
+                                   CacheInvalidationBus cacheInvalidationBus,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${pastors.rebalance.batch-size:500}") int batchSize) {
+        this.memberRepository = memberRepository;
+        this.pastorRepository = pastorRepository;
+        this.caseloads = caseloads;
+        this.searchIndex = searchIndex;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Gives an unassigned member the least-loaded pastor in their country of residence, or anywhere if that
+     * country has no pastors. Runs inside the caller's transaction; the pastor is charged straight away so
+     * concurrent approvals spread out, and refunded if the transaction rolls back.
+     */
+    public void autoAssign(Member member) {
+        if (member.getAssignedPastor() != null) {
+            return;
+        }
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            Optional<Long> claimed = caseloads.claimLeastLoaded(member.getCountryOfResidence());
+            if (claimed.isEmpty()) {
+                log.warn("No pastors to assign member {} to", member.getId());
+                return;
+            }
+            Long pastorId = claimed.get();
+            Optional<Pastor> pastor = pastorRepository.findById(pastorId);
+            if (pastor.isEmpty()) {
+                caseloads.forget(pastorId);
+                continue;
+            }
+            member.setAssignedPastor(pastor.get());
+            afterRollback(() -> caseloads.moved(pastorId, null, 1));
+            return;
+        }
+        log.warn("Could not find a live pastor for member {}", member.getId());
+    }
+
+    /** Moves a member to a named pastor; empty if either does not exist. */
+    public Optional<Member> assign(Long memberId, Long pastorId) {
+        return transactionTemplate.execute(status -> {
+            Optional<Pastor> pastor = pastorRepository.findById(pastorId);
+            Optional<Member> member = pastor.flatMap(p -> memberRepository.findById(memberId));
+            if (member.isEmpty()) {
+                return Optional.<Member>empty();
+            }
+            Long previous = member.get().getAssignedPastor() != null ? member.get().getAssignedPastor().getId() : null;
+            member.get().setAssignedPastor(pastor.get());
+            Member saved = memberRepository.save(member.get());
+            afterCommit(() -> {
+                caseloads.moved(previous, pastorId, 1);
+                searchIndex.track(saved);
+            });
+            return Optional.of(saved);
+        });
+    }
+
+    public List<Member> getMembersByPastor(Long pastorId, Long after, int limit) {
+        return memberRepository.findByAssignedPastorIdAndIdGreaterThanOrderByIdAsc(
+                pastorId, Keyset.after(after), Keyset.firstRows(limit));
+    }
+
+    public List<PastorCaseload> getCaseloads(String countryCode, String churchBranch) {
+        return caseloads.snapshot(countryCode, churchBranch);
+    }
+
+    /**
+     * Evens out caseloads within a country, or a church branch in it. Each batch of members is moved in one
+     * UPDATE and its own transaction, so a long rebalance neither holds locks for its whole run nor loses
+     * completed batches if it fails part way. Only one rebalance runs at a time.
+     */
+    public CaseloadRebalance rebalance(String countryCode, String churchBranch) {
+        List<CaseloadRebalance.Move> plan = caseloads.planRebalance(countryCode, churchBranch);
+        if (!rebalancing.compareAndSet(false, true)) {
+            throw new IllegalStateException("A caseload rebalance is already running");
+        }
+        try {
+            List<CaseloadRebalance.Move> applied = new ArrayList<>(plan.size());
+            long membersMoved = 0;
+            for (CaseloadRebalance.Move move : plan) {
+                long moved = apply(move);
+                if (moved > 0) {
+                    applied.add(new CaseloadRebalance.Move(move.fromPastorId(), move.toPastorId(), moved));
+                    membersMoved += moved;
+                }
+            }
+            if (membersMoved > 0) {
+                // Bulk updates bypass the entity listeners, so tell the other replicas directly
+                cacheInvalidationBus.publish(new CacheInvalidation(Member.class.getSimpleName(), null));
+            }
+            log.info("Rebalanced caseloads for country={} branch={}: {} members in {} moves",
+                    countryCode, churchBranch, membersMoved, applied.size());
+            return new CaseloadRebalance(countryCode, churchBranch, membersMoved, List.copyOf(applied));
+        } finally {
+            rebalancing.set(false);
+        }
+    }
+
+    private long apply(CaseloadRebalance.Move move) {
+        long moved = 0;
+        while (moved < move.members()) {
+            int batch = (int) Math.min(batchSize, move.members() - moved);
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Long> chosen = memberRepository.findIdsByAssignedPastor(move.fromPastorId(), PageRequest.of(0, batch));
+                if (!chosen.isEmpty()) {
+                    memberRepository.reassignPastor(chosen, pastorRepository.getReferenceById(move.toPastorId()));
+                }
+                return chosen;
+            });
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+            caseloads.moved(move.fromPastorId(), move.toPastorId(), ids.size());
+            memberRepository.findAllById(ids).forEach(searchIndex::track);
+            moved += ids.size();
+        }
+        return moved;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,248 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.dto.CaseloadRebalance;
+import com.kingdomseekers.dto.PastorCaseload;
+import com.kingdomseekers.entity.Pastor;
+import com.kingdomseekers.repository.PastorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory member counts per pastor, kept in heaps (ordered sets, least loaded first) for every pastor, per
+ * country, and per country and church branch. Picking and charging the least-loaded pastor is O(log n).
+ * Counts are reloaded from the database at startup and periodically, which also picks up assignments made by
+ * other instances; in between they are kept current by the assignment paths in {@link PastorAssignmentService}.
+ */
+@Component
+public class PastorCaseloads {
+
+    private static final Logger log = LoggerFactory.getLogger(PastorCaseloads.class);
+
+    private static final Comparator<Load> LEAST_LOADED =
+            Comparator.comparingLong(Load::members).thenComparingLong(Load::pastorId);
+    private static final Group EVERYONE = new Group(null, null);
+
+    private final PastorRepository pastorRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, Load> loads = new HashMap<>();
+    private Map<Group, TreeSet<Load>> heaps = new HashMap<>();
+
+    @Autowired
+    public PastorCaseloads(PastorRepository pastorRepository) {
+        this.pastorRepository = pastorRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${pastors.caseload.resync-interval:PT30M}", initialDelayString = "${pastors.caseload.resync-interval:PT30M}")
+    public void reload() {
+        Map<Long, Load> freshLoads = new HashMap<>();
+        Map<Group, TreeSet<Load>> freshHeaps = new HashMap<>();
+        for (PastorRepository.Caseload row : pastorRepository.findCaseloads()) {
+            Load load = new Load(row.getPastorId(), row.getCountryCode(), row.getChurchBranch(), row.getMembers());
+            freshLoads.put(load.pastorId(), load);
+            load.groups().forEach(group -> freshHeaps.computeIfAbsent(group, g -> new TreeSet<>(LEAST_LOADED)).add(load));
+        }
+        lock.writeLock().lock();
+        try {
+            loads = freshLoads;
+            heaps = freshHeaps;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Loaded caseloads for {} pastors", freshLoads.size());
+    }
+
+    /** Adds a new pastor with no members; a pastor already tracked is left alone. */
+    public void track(Pastor pastor) {
+        if (pastor.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loads.containsKey(pastor.getId())) {
+                put(new Load(pastor.getId(), pastor.getCountryCode(), pastor.getChurchBranch(), 0));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void forget(Long pastorId) {
+        lock.writeLock().lock();
+        try {
+            Load load = loads.remove(pastorId);
+            if (load != null) {
+                load.groups().forEach(group -> heaps.get(group).remove(load));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Charges one member to the least-loaded pastor in {@code countryCode}, or to the least-loaded pastor
+     * anywhere when the country has none. Empty only when there are no pastors at all.
+     */
+    public Optional<Long> claimLeastLoaded(String countryCode) {
+        lock.writeLock().lock();
+        try {
+            TreeSet<Load> heap = heaps.get(new Group(country(countryCode), null));
+            if (heap == null || heap.isEmpty()) {
+                heap = heaps.get(EVERYONE);
+            }
+            if (heap == null || heap.isEmpty()) {
+                return Optional.empty();
+            }
+            Load least = heap.first();
+            adjust(least.pastorId(), 1);
+            return Optional.of(least.pastorId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Records {@code members} moving between pastors; either side may be null (unassigned). */
+    public void moved(Long fromPastorId, Long toPastorId, long members) {
+        if (members == 0 || (fromPastorId != null && fromPastorId.equals(toPastorId))) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (fromPastorId != null) {
+                adjust(fromPastorId, -members);
+            }
+            if (toPastorId != null) {
+                adjust(toPastorId, members);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Caseloads in a group, least loaded first; a branch needs a country. */
+    public List<PastorCaseload> snapshot(String countryCode, String churchBranch) {
+        Group group = group(countryCode, churchBranch);
+        lock.readLock().lock();
+        try {
+            TreeSet<Load> heap = heaps.get(group);
+            return heap == null ? List.of() : heap.stream().map(Load::toCaseload).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves that even out a group: repeatedly takes half the difference from the most- to the least-loaded
+     * pastor until no two differ by more than one. Planned on a copy; nothing is charged until the moves are
+     * applied and reported through {@link #moved}. Members are only assigned within their country, so a
+     * country is required.
+     */
+    public List<CaseloadRebalance.Move> planRebalance(String countryCode, String churchBranch) {
+        Group group = group(countryCode, churchBranch);
+        if (group.countryCode() == null) {
+            throw new IllegalArgumentException("Caseloads are rebalanced within a country");
+        }
+        TreeSet<Load> heap;
+        lock.readLock().lock();
+        try {
+            heap = new TreeSet<>(LEAST_LOADED);
+            heap.addAll(heaps.getOrDefault(group, new TreeSet<>(LEAST_LOADED)));
+        } finally {
+            lock.readLock().unlock();
+        }
+        Map<Route, Long> moves = new LinkedHashMap<>();
+        while (heap.size() > 1) {
+            Load least = heap.first();
+            Load most = heap.last();
+            long members = (most.members() - least.members()) / 2;
+            if (members == 0) {
+                break;
+            }
+            heap.remove(least);
+            heap.remove(most);
+            heap.add(least.withMembers(least.members() + members));
+            heap.add(most.withMembers(most.members() - members));
+            moves.merge(new Route(most.pastorId(), least.pastorId()), members, Long::sum);
+        }
+        List<CaseloadRebalance.Move> plan = new ArrayList<>(moves.size());
+        moves.forEach((route, members) -> plan.add(new CaseloadRebalance.Move(route.from(), route.to(), members)));
+        return plan;
+    }
+
+    private void adjust(Long pastorId, long delta) {
+        Load load = loads.get(pastorId);
+        if (load == null) {
+            return;
+        }
+        load.groups().forEach(group -> heaps.get(group).remove(load));
+        put(load.withMembers(Math.max(0, load.members() + delta)));
+    }
+
+    private void put(Load load) {
+        loads.put(load.pastorId(), load);
+        load.groups().forEach(group -> heaps.computeIfAbsent(group, g -> new TreeSet<>(LEAST_LOADED)).add(load));
+    }
+
+    private static Group group(String countryCode, String churchBranch) {
+        String country = country(countryCode);
+        String branch = branch(churchBranch);
+        if (branch != null && country == null) {
+            throw new IllegalArgumentException("A church branch must be given with its country");
+        }
+        return new Group(country, branch);
+    }
+
+    private static String country(String countryCode) {
+        return countryCode == null || countryCode.isBlank() ? null : countryCode.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static String branch(String churchBranch) {
+        return churchBranch == null || churchBranch.isBlank() ? null : churchBranch.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** A heap key; null parts are wildcards, so every pastor is in up to three heaps. */
+    private record Group(String countryCode, String churchBranch) {
+    }
+
+    private record Route(long from, long to) {
+    }
+
+    private record Load(long pastorId, String countryCode, String churchBranch, long members) {
+
+        Load withMembers(long members) {
+            return new Load(pastorId, countryCode, churchBranch, members);
+        }
+
+        List<Group> groups() {
+            String country = country(countryCode);
+            if (country == null) {
+                return List.of(EVERYONE);
+            }
+            String branch = branch(churchBranch);
+            return branch == null
+                    ? List.of(EVERYONE, new Group(country, null))
+                    : List.of(EVERYONE, new Group(country, null), new Group(country, branch));
+        }
+
+        PastorCaseload toCaseload() {
+            return new PastorCaseload(pastorId, countryCode, churchBranch, members);
+        }
+    }
+}
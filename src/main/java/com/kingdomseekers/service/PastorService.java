@@ -9,29 +9,45 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class PastorService {
 
     private final PastorRepository pastorRepository;
+    private final NaturalIdLookup naturalIdLookup;
+    private final PastorCaseloads caseloads;
 
     @Autowired
-    public PastorService(PastorRepository pastorRepository) {
+    public PastorService(PastorRepository pastorRepository, NaturalIdLookup naturalIdLookup,
+                         PastorCaseloads caseloads) {
         this.pastorRepository = pastorRepository;
+        this.naturalIdLookup = naturalIdLookup;
+        this.caseloads = caseloads;
     }
 
-    public List<Pastor> getAllPastors() {
-        return pastorRepository.findAll();
+    public List<Pastor> getPastorsAfter(Long after, int limit) {
+        return pastorRepository.findByIdGreaterThanOrderByIdAsc(Keyset.after(after), Keyset.firstRows(limit));
+    }
+
+    public Stream<Pastor> streamAllPastors() {
+        return pastorRepository.streamAllBy();
     }
 
     public Optional<Pastor> getPastorById(Long id) {
         return pastorRepository.findById(id);
     }
 
+    public Optional<Pastor> getPastorByEmail(String email) {
+        return naturalIdLookup.find(Pastor.class, email);
+    }
+
     @Transactional
     public Pastor createPastor(Pastor pastor) {
         pastor.setCreatedAt(Instant.now());
-        return pastorRepository.save(pastor);
+        Pastor saved = pastorRepository.save(pastor);
+        caseloads.track(saved);
+        return saved;
     }
 
     public List<Pastor> getPastorsByChurchBranch(String churchBranch) {
@@ -0,0 +1,140 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.dto.PaymentAnalytics;
+import com.kingdomseekers.entity.Payment;
+import com.kingdomseekers.event.CacheInvalidation;
+import com.kingdomseekers.event.CacheInvalidationBus;
+import com.kingdomseekers.event.PaymentChangedEvent;
+import com.kingdomseekers.repository.PaymentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Payment statistics per method and status from one grouped query, cached per date range. A payment change
+ * drops only the cached ranges that contain the payment's date before or after the change, and is announced
+ * on the {@link CacheInvalidationBus}; other replicas cannot tell which ranges it touched, so they drop them
+ * all. Entries also expire after {@code payments.analytics.cache-ttl}, bounding staleness when a notification
+ * is lost.
+ */
+@Service
+public class PaymentAnalyticsService {
+
+    private static final Instant OPEN_START = Instant.EPOCH;
+    private static final Instant OPEN_END = Instant.parse("9999-12-31T00:00:00Z");
+    private static final String ENTITY = Payment.class.getSimpleName();
+
+    private final PaymentRepository paymentRepository;
+    private final CacheInvalidationBus bus;
+    private final int maxCachedRanges;
+    private final Duration ttl;
+    private final Map<Range, PaymentAnalytics> cache = new ConcurrentHashMap<>();
+    /** Bumped on every invalidation so a query that overlapped one is not cached. */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public PaymentAnalyticsService(PaymentRepository paymentRepository, CacheInvalidationBus bus,
+                                   @Value("${payments.analytics.max-cached-ranges:64}") int maxCachedRanges,
+                                   @Value("${payments.analytics.cache-ttl:PT5M}") Duration ttl) {
+        this.paymentRepository = paymentRepository;
+        this.bus = bus;
+        this.maxCachedRanges = maxCachedRanges;
+        this.ttl = ttl;
+        bus.subscribe(this::onInvalidation);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentChanged(PaymentChangedEvent event) {
+        if (Objects.equals(event.before(), event.after())) {
+            return;
+        }
+        generation.incrementAndGet();
+        cache.keySet().removeIf(range -> range.contains(event.before()) || range.contains(event.after()));
+        bus.publish(new CacheInvalidation(ENTITY, event.paymentId()));
+    }
+
+    void onInvalidation(CacheInvalidation invalidation) {
+        if (CacheInvalidation.ALL.equals(invalidation.entity()) || ENTITY.equals(invalidation.entity())) {
+            generation.incrementAndGet();
+            cache.clear();
+        }
+    }
+
+    public PaymentAnalytics getAnalytics(Instant from, Instant to) {
+        Range range = new Range(from != null ? from : OPEN_START, to != null ? to : OPEN_END);
+        PaymentAnalytics cached = cache.get(range);
+        if (cached != null && cached.computedAt().plus(ttl).isAfter(Instant.now())) {
+            return cached;
+        }
+        long observed = generation.get();
+        PaymentAnalytics analytics = compute(from, to, range);
+        if (generation.get() == observed) {
+            if (cache.size() >= maxCachedRanges) {
+                cache.clear();
+            }
+            cache.put(range, analytics);
+        }
+        return analytics;
+    }
+
+    private PaymentAnalytics compute(Instant from, Instant to, Range range) {
+        Map<Payment.PaymentMethod, Map<Payment.PaymentStatus, PaymentAnalytics.StatusTotal>> rows =
+                new EnumMap<>(Payment.PaymentMethod.class);
+        for (PaymentRepository.MethodStatusTotal row : paymentRepository.sumByMethodAndStatus(range.from(), range.to())) {
+            BigDecimal amount = row.getTotal() != null ? row.getTotal() : BigDecimal.ZERO;
+            rows.computeIfAbsent(row.getPaymentMethod(), m -> new EnumMap<>(Payment.PaymentStatus.class))
+                    .put(row.getStatus(), new PaymentAnalytics.StatusTotal(row.getPayments(), amount));
+        }
+
+        Map<Payment.PaymentMethod, PaymentAnalytics.MethodStats> byMethod = new EnumMap<>(Payment.PaymentMethod.class);
+        long payments = 0;
+        long completed = 0;
+        long failed = 0;
+        BigDecimal completedAmount = BigDecimal.ZERO;
+        for (Payment.PaymentMethod method : Payment.PaymentMethod.values()) {
+            Map<Payment.PaymentStatus, PaymentAnalytics.StatusTotal> byStatus =
+                    rows.getOrDefault(method, new EnumMap<>(Payment.PaymentStatus.class));
+            PaymentAnalytics.MethodStats stats = toMethodStats(byStatus);
+            byMethod.put(method, stats);
+            payments += stats.payments();
+            completed += stats.completed();
+            failed += stats.failed();
+            completedAmount = completedAmount.add(stats.completedAmount());
+        }
+        return new PaymentAnalytics(from, to, payments, completedAmount,
+                PaymentAnalytics.failureRate(failed, completed), Collections.unmodifiableMap(byMethod), Instant.now());
+    }
+
+    private static PaymentAnalytics.MethodStats toMethodStats(
+            Map<Payment.PaymentStatus, PaymentAnalytics.StatusTotal> byStatus) {
+        long payments = byStatus.values().stream().mapToLong(PaymentAnalytics.StatusTotal::payments).sum();
+        PaymentAnalytics.StatusTotal completed = byStatus.get(Payment.PaymentStatus.COMPLETED);
+        PaymentAnalytics.StatusTotal failed = byStatus.get(Payment.PaymentStatus.FAILED);
+        long completedCount = completed != null ? completed.payments() : 0;
+        long failedCount = failed != null ? failed.payments() : 0;
+        BigDecimal completedAmount = completed != null ? completed.amount() : BigDecimal.ZERO;
+        BigDecimal average = completedCount == 0 ? BigDecimal.ZERO
+                : completedAmount.divide(BigDecimal.valueOf(completedCount), 2, RoundingMode.HALF_UP);
+        return new PaymentAnalytics.MethodStats(payments, completedCount, failedCount, completedAmount, average,
+                PaymentAnalytics.failureRate(failedCount, completedCount), Collections.unmodifiableMap(byStatus));
+    }
+
+    private record Range(Instant from, Instant to) {
+        boolean contains(Payment.State payment) {
+            return payment != null && payment.paidAt() != null
+                    && !payment.paidAt().isBefore(from) && payment.paidAt().isBefore(to);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.kingdomseekers.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kingdomseekers.dto.FxRateTable;
+import com.kingdomseekers.dto.PaymentCallback;
+import com.kingdomseekers.entity.Booking;
+import com.kingdomseekers.entity.Payment;
+import com.kingdomseekers.repository.BookingRepository;
+import com.kingdomseekers.repository.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Applies journaled payment callbacks on a single worker thread, one batch per transaction, so callback
+ * bursts hold at most one pooled connection. Replays are dropped by transaction reference: a Bloom filter of
+ * applied references means most new callbacks need no existence check, positives are confirmed against the
+ * database, and the unique index on {@code transaction_reference} catches anything that races past both.
+ * A successful callback must be for exactly the payment's amount (a new payment's amount is the booking total)
+ * in {@code payments.currency}; anything else is rejected for follow-up rather than settled.
+ */
+@Service
+public class PaymentCallbackProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentCallbackProcessor.class);
+
+    private static final Set<Payment.PaymentStatus> OPEN_STATUSES = EnumSet.of(
+            Payment.PaymentStatus.PENDING, Payment.PaymentStatus.PROCESSING);
+    /** A failed attempt can still be settled by a later successful transaction. */
+    private static final Set<Payment.PaymentStatus> SETTLEABLE_STATUSES = EnumSet.of(
+            Payment.PaymentStatus.PENDING, Payment.PaymentStatus.PROCESSING, Payment.PaymentStatus.FAILED);
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+
+    private final WebhookJournal journal;
+    private final PaymentRepository paymentRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long expectedReferences;
+    private final String settlementCurrency;
+    private final Counter appliedCounter;
+    private final Counter duplicateCounter;
+    private final Counter rejectedCounter;
+
+    private volatile BloomFilter appliedReferences;
+    private volatile boolean running;
+    private Thread worker;
+
+    @Autowired
+    public PaymentCallbackProcessor(WebhookJournal journal, PaymentRepository paymentRepository,
+                                    BookingRepository bookingRepository, BookingService bookingService,
+                                    ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${webhooks.batch-size:200}") int batchSize,
+                                    @Value("${webhooks.expected-transactions:1000000}") long expectedReferences,
+                                    @Value("${payments.currency:KES}") String settlementCurrency) {
+        this.journal = journal;
+        this.paymentRepository = paymentRepository;
+        this.bookingRepository = bookingRepository;
+        this.bookingService = bookingService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.expectedReferences = expectedReferences;
+        this.settlementCurrency = FxRateTable.normalize(settlementCurrency);
+        this.appliedCounter = meterRegistry.counter("webhooks.payments.processed", "outcome", "applied");
+        this.duplicateCounter = meterRegistry.counter("webhooks.payments.processed", "outcome", "duplicate");
+        this.rejectedCounter = meterRegistry.counter("webhooks.payments.processed", "outcome", "rejected");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        loadAppliedReferences();
+        running = true;
+        worker = new Thread(this::run, "payment-callbacks");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    void loadAppliedReferences() {
+        BloomFilter filter = new BloomFilter(expectedReferences, 0.01);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<String> references = paymentRepository.streamTransactionReferences()) {
+                references.forEach(filter::put);
+            }
+        });
+        appliedReferences = filter;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(RETRY_DELAY.toMillis());
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                WebhookJournal.Batch batch = journal.poll(batchSize, POLL_TIMEOUT);
+                if (!batch.isEmpty()) {
+                    process(batch.records());
+                    journal.commit(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Applying payment callbacks failed; retrying in {}", RETRY_DELAY, e);
+                try {
+                    Thread.sleep(RETRY_DELAY.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    void process(List<String> records) {
+        List<PaymentCallback> callbacks = new ArrayList<>(records.size());
+        for (String record : records) {
+            try {
+                callbacks.add(objectMapper.readValue(record, PaymentCallback.class));
+            } catch (JsonProcessingException e) {
+                journal.reject(record, "unreadable");
+                rejectedCounter.increment();
+            }
+        }
+        Outcome outcome;
+        try {
+            outcome = transactionTemplate.execute(status -> applyBatch(callbacks));
+        } catch (DataIntegrityViolationException e) {
+            // A reference was applied elsewhere after the duplicate check; apply one by one to isolate it.
+            outcome = new Outcome();
+            for (PaymentCallback callback : callbacks) {
+                try {
+                    outcome.merge(transactionTemplate.execute(status -> applyBatch(List.of(callback))));
+                } catch (DataIntegrityViolationException duplicate) {
+                    outcome.duplicates++;
+                }
+            }
+        }
+        outcome.applied.forEach(appliedReferences::put);
+        outcome.rejected.forEach((callback, reason) -> journal.reject(write(callback), reason));
+        appliedCounter.increment(outcome.applied.size());
+        duplicateCounter.increment(outcome.duplicates);
+        rejectedCounter.increment(outcome.rejected.size());
+    }
+
+    private Outcome applyBatch(List<PaymentCallback> callbacks) {
+        Outcome outcome = new Outcome();
+        Map<String, PaymentCallback> byReference = new LinkedHashMap<>();
+        for (PaymentCallback callback : callbacks) {
+            if (byReference.putIfAbsent(callback.transactionReference(), callback) != null) {
+                outcome.duplicates++;
+            }
+        }
+        BloomFilter filter = appliedReferences;
+        List<String> maybeApplied = byReference.keySet().stream().filter(filter::mightContain).toList();
+        if (!maybeApplied.isEmpty()) {
+            for (String reference : paymentRepository.findExistingTransactionReferences(maybeApplied)) {
+                byReference.remove(reference);
+                outcome.duplicates++;
+            }
+        }
+
+        Set<String> paymentReferences = byReference.values().stream()
+                .map(PaymentCallback::paymentReference)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, Payment> payments = paymentReferences.isEmpty() ? Map.of()
+                : paymentRepository.findByPaymentReferenceIn(paymentReferences).stream()
+                        .collect(Collectors.toMap(Payment::getPaymentReference, Function.identity()));
+
+        for (PaymentCallback callback : byReference.values()) {
+            Payment payment = callback.paymentReference() != null ? payments.get(callback.paymentReference()) : null;
+            if (payment == null) {
+                payment = newPaymentFor(callback);
+            }
+            if (payment == null) {
+                outcome.rejected.put(callback, "no matching payment or booking");
+                continue;
+            }
+            if (!(callback.successful() ? SETTLEABLE_STATUSES : OPEN_STATUSES).contains(payment.getStatus())) {
+                outcome.rejected.put(callback, "payment " + payment.getPaymentReference() + " is already " + payment.getStatus());
+                continue;
+            }
+            String mismatch = callback.successful() ? settlementMismatch(payment, callback) : null;
+            if (mismatch != null) {
+                outcome.rejected.put(callback, mismatch);
+                continue;
+            }
+            applyTo(payment, callback);
+            paymentRepository.save(payment);
+            Booking booking = payment.getBooking();
+            // Joins the batch transaction, so a clash must come back as false: a throw would doom the whole batch.
+            if (callback.successful() && booking.getStatus() == Booking.BookingStatus.PENDING
+                    && !bookingService.tryUpdateBookingStatus(booking.getId(), Booking.BookingStatus.CONFIRMED)) {
+                log.warn("Payment {} settled but booking {} could not be confirmed: its nights are taken",
+                        payment.getPaymentReference(), booking.getBookingReference());
+            }
+            outcome.applied.add(callback.transactionReference());
+        }
+        paymentRepository.flush();
+        return outcome;
+    }
+
+    /** Payments made against a booking reference (e.g. M-Pesa paybill) have no payment row yet. */
+    private Payment newPaymentFor(PaymentCallback callback) {
+        if (!callback.successful() || callback.bookingReference() == null || callback.amount() == null) {
+            return null;
+        }
+        return bookingRepository.findByBookingReference(callback.bookingReference())
+                .map(booking -> {
+                    Payment payment = new Payment();
+                    payment.setBooking(booking);
+                    payment.setAmount(booking.getTotalAmount());
+                    payment.setPaymentMethod(callback.paymentMethod());
+                    return payment;
+                })
+                .orElse(null);
+    }
+
+    /** Why a successful callback cannot settle the payment, or null if it can. */
+    private String settlementMismatch(Payment payment, PaymentCallback callback) {
+        if (callback.currency() != null && !settlementCurrency.equals(FxRateTable.normalize(callback.currency()))) {
+            return "currency " + callback.currency() + " does not match " + settlementCurrency;
+        }
+        if (callback.amount() == null || payment.getAmount() == null || callback.amount().compareTo(payment.getAmount()) != 0) {
+            return "amount " + callback.amount() + " does not match " + payment.getAmount() + " due";
+        }
+        return null;
+    }
+
+    private static void applyTo(Payment payment, PaymentCallback callback) {
+        payment.setTransactionReference(callback.transactionReference());
+        payment.setPaymentMethod(callback.paymentMethod());
+        if (callback.phoneNumber() != null) {
+            payment.setPhoneNumber(callback.phoneNumber());
+        }
+        if (callback.bankReference() != null) {
+            payment.setBankReference(callback.bankReference());
+        }
+        if (callback.paymentMethod() == Payment.PaymentMethod.M_PESA && callback.receiptNumber() != null) {
+            payment.setMpesaReceiptNumber(callback.receiptNumber());
+        }
+        if (callback.successful()) {
+            payment.setStatus(Payment.PaymentStatus.COMPLETED);
+            payment.setPaymentDate(callback.receivedAt());
+            payment.setFailureReason(null);
+        } else {
+            payment.setStatus(Payment.PaymentStatus.FAILED);
+            payment.setFailureReason(callback.failureReason());
+        }
+    }
+
+    private String write(PaymentCallback callback) {
+        try {
+            return objectMapper.writeValueAsString(callback);
+        } catch (JsonProcessingException e) {
+            return String.valueOf(callback);
+        }
+    }
+
+    private static final class Outcome {
+        private final List<String> applied = new ArrayList<>();
+        private final Map<PaymentCallback, String> rejected = new LinkedHashMap<>();
+        private long duplicates;
+
+        void merge(Outcome other) {
+            applied.addAll(other.applied);
+            rejected.putAll(other.rejected);
+            duplicates += other.duplicates;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.dto.ReconciliationReport;
+import com.kingdomseekers.entity.Payment;
+import com.kingdomseekers.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Reconciles bank and M-Pesa statement files against the payments of a period. The period's payments are
+ * indexed once by transaction reference, M-Pesa receipt number and bank reference; the statement is then read
+ * through a memory-mapped buffer one record at a time by the same {@link CsvReader} as bulk imports, so memory
+ * grows with the period's payments and the exceptions found, not with the size of the file.
+ */
+@Service
+public class PaymentReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentReconciliationService.class);
+
+    /** Header names (lower-cased, letters and digits only) accepted for each statement column. */
+    private static final List<String> REFERENCE_COLUMNS = List.of(
+            "reference", "transactionreference", "receiptno", "receiptnumber", "receipt", "transactionid",
+            "bankreference");
+    private static final List<String> AMOUNT_COLUMNS = List.of("amount", "paidin", "credit", "creditamount");
+    private static final List<String> DATE_COLUMNS = List.of(
+            "date", "completiontime", "transactiondate", "valuedate", "postingdate");
+
+    private final PaymentRepository paymentRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    public PaymentReconciliationService(PaymentRepository paymentRepository,
+                                        PlatformTransactionManager transactionManager) {
+        this.paymentRepository = paymentRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /** Spools an uploaded statement to a temporary file and reconciles it. */
+    public ReconciliationReport reconcile(InputStream statement, Instant from, Instant to) throws IOException {
+        Path file = Files.createTempFile("statement-", ".csv");
+        try {
+            Files.copy(statement, file, StandardCopyOption.REPLACE_EXISTING);
+            return reconcile(file, from, to);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Reconciles a CSV statement with a header row naming a reference, an amount and optionally a date
+     * column. Lines without a reference or a positive amount (withdrawals, balance rows) are ignored, and
+     * empty lines skipped.
+     *
+     * @throws IllegalArgumentException if the header lacks a reference or amount column, or a quoted field
+     *                                  is never closed
+     */
+    public ReconciliationReport reconcile(Path statement, Instant from, Instant to) throws IOException {
+        long started = System.nanoTime();
+        Index index = loadIndex(from, to);
+        Report report = new Report();
+
+        try (FileChannel channel = FileChannel.open(statement, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Statement files over 2 GB are not supported");
+            }
+            CsvReader reader = new CsvReader(new InputStreamReader(
+                    new MappedInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())),
+                    StandardCharsets.UTF_8));
+            List<String> header = reader.next();
+            if (header == null || CsvReader.isBlank(header)) {
+                throw new IllegalArgumentException("Statement is empty");
+            }
+            int referenceColumn = column(header, REFERENCE_COLUMNS);
+            int amountColumn = column(header, AMOUNT_COLUMNS);
+            int dateColumn = column(header, DATE_COLUMNS);
+            if (referenceColumn < 0 || amountColumn < 0) {
+                throw new IllegalArgumentException("Statement header must name a reference and an amount column");
+            }
+
+            List<String> fields;
+            while ((fields = reader.next()) != null) {
+                if (CsvReader.isBlank(fields)) {
+                    continue;
+                }
+                report.linesRead++;
+                String reference = normalize(field(fields, referenceColumn));
+                BigDecimal amount = parseAmount(field(fields, amountColumn));
+                if (reference == null || amount == null || amount.signum() <= 0) {
+                    report.linesIgnored++;
+                    continue;
+                }
+                ReconciliationReport.StatementLine line = new ReconciliationReport.StatementLine(
+                        reader.recordNumber(), reference, amount, field(fields, dateColumn));
+                match(index, line, report);
+            }
+        }
+
+        List<ReconciliationReport.UnmatchedPayment> unmatchedPayments = new ArrayList<>();
+        for (Candidate candidate : index.candidates) {
+            if (!candidate.matched && candidate.status == Payment.PaymentStatus.COMPLETED) {
+                unmatchedPayments.add(new ReconciliationReport.UnmatchedPayment(candidate.id,
+                        candidate.paymentReference, candidate.transactionReference, candidate.amount, candidate.paidAt));
+            }
+        }
+        log.info("Reconciled {} statement lines against {} payments in {} ms: {} matched, {} amount mismatches, "
+                        + "{} unmatched lines, {} unmatched payments",
+                report.linesRead, index.candidates.size(), (System.nanoTime() - started) / 1_000_000,
+                report.matched, report.amountMismatches.size(), report.unmatchedLines.size(), unmatchedPayments.size());
+        return new ReconciliationReport(from, to, report.linesRead, report.linesIgnored, report.matched,
+                report.amountMismatches, report.statusMismatches, report.duplicateLines, report.unmatchedLines,
+                unmatchedPayments);
+    }
+
+    private static void match(Index index, ReconciliationReport.StatementLine line, Report report) {
+        Candidate candidate = index.byReference.get(line.reference());
+        if (candidate == null) {
+            report.unmatchedLines.add(line);
+        } else if (candidate.matched) {
+            report.duplicateLines.add(line);
+        } else {
+            candidate.matched = true;
+            if (candidate.status != Payment.PaymentStatus.COMPLETED) {
+                report.statusMismatches.add(new ReconciliationReport.StatusMismatch(
+                        line, candidate.id, candidate.paymentReference, candidate.status));
+            } else if (candidate.amount == null || candidate.amount.compareTo(line.amount()) != 0) {
+                report.amountMismatches.add(new ReconciliationReport.AmountMismatch(
+                        line, candidate.id, candidate.paymentReference, candidate.amount));
+            } else {
+                report.matched++;
+            }
+        }
+    }
+
+    private Index loadIndex(Instant from, Instant to) {
+        Index index = new Index();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<PaymentRepository.ReconciliationRow> rows = paymentRepository.streamForReconciliation(from, to)) {
+                rows.forEach(row -> {
+                    Candidate candidate = new Candidate(row);
+                    index.candidates.add(candidate);
+                    index.put(row.getTransactionReference(), candidate);
+                    index.put(row.getMpesaReceiptNumber(), candidate);
+                    index.put(row.getBankReference(), candidate);
+                });
+            }
+        });
+        return index;
+    }
+
+    private static int column(List<String> header, List<String> accepted) {
+        for (String name : accepted) {
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "").equals(name)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column >= 0 && column < fields.size() ? fields.get(column) : null;
+    }
+
+    private static String normalize(String reference) {
+        if (reference == null || reference.isBlank()) {
+            return null;
+        }
+        return reference.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static BigDecimal parseAmount(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.trim().replace(",", ""));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class Index {
+        private final List<Candidate> candidates = new ArrayList<>();
+        private final Map<String, Candidate> byReference = new HashMap<>();
+
+        void put(String reference, Candidate candidate) {
+            String key = normalize(reference);
+            if (key != null) {
+                byReference.putIfAbsent(key, candidate);
+            }
+        }
+    }
+
+    private static final class Candidate {
+        private final Long id;
+        private final String paymentReference;
+        private final String transactionReference;
+        private final BigDecimal amount;
+        private final Payment.PaymentStatus status;
+        private final Instant paidAt;
+        private boolean matched;
+
+        Candidate(PaymentRepository.ReconciliationRow row) {
+            this.id = row.getId();
+            this.paymentReference = row.getPaymentReference();
+            this.transactionReference = row.getTransactionReference();
+            this.amount = row.getAmount();
+            this.status = row.getStatus();
+            this.paidAt = row.getPaidAt();
+        }
+    }
+
+    private static final class Report {
+        private long linesRead;
+        private long linesIgnored;
+        private long matched;
+        private final List<ReconciliationReport.AmountMismatch> amountMismatches = new ArrayList<>();
+        private final List<ReconciliationReport.StatusMismatch> statusMismatches = new ArrayList<>();
+        private final List<ReconciliationReport.StatementLine> duplicateLines = new ArrayList<>();
+        private final List<ReconciliationReport.StatementLine> unmatchedLines = new ArrayList<>();
+    }
+
+    /** Reads a mapped file, so the statement is paged in by the OS rather than copied onto the heap. */
+    private static final class MappedInputStream extends InputStream {
+        private final MappedByteBuffer buffer;
+
+        MappedInputStream(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.kingdomseekers.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kingdomseekers.dto.FxRateTable;
+import com.kingdomseekers.dto.PaymentCallback;
+import com.kingdomseekers.entity.Payment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Locale;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Accepts provider payment callbacks: each one is authenticated, normalized to a {@link PaymentCallback} and
+ * appended to the {@link WebhookJournal}, after which it can be acknowledged. Nothing here touches the
+ * database; {@link PaymentCallbackProcessor} applies the journal in batches.
+ * <p>
+ * Generic callbacks carry an HMAC-SHA256 of the raw body, keyed with {@code webhooks.signing-secret}, in the
+ * {@value #SIGNATURE_HEADER} header. M-Pesa confirmations are not signed, so the confirmation URL registered
+ * with Safaricom carries {@code webhooks.mpesa.token} as its {@code token} parameter. Either check fails
+ * while its secret is unset.
+ */
+@Service
+public class PaymentWebhookService {
+
+    public static final String SIGNATURE_HEADER = "X-Webhook-Signature";
+    private static final String HMAC = "HmacSHA256";
+
+    private final WebhookJournal journal;
+    private final ObjectMapper objectMapper;
+    private final byte[] signingSecret;
+    private final byte[] mpesaToken;
+    private final String settlementCurrency;
+    private final Counter received;
+    private final Counter unauthenticated;
+
+    @Autowired
+    public PaymentWebhookService(WebhookJournal journal, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                 @Value("${webhooks.signing-secret:}") String signingSecret,
+                                 @Value("${webhooks.mpesa.token:}") String mpesaToken,
+                                 @Value("${payments.currency:KES}") String settlementCurrency) {
+        this.journal = journal;
+        this.objectMapper = objectMapper;
+        this.signingSecret = signingSecret.getBytes(StandardCharsets.UTF_8);
+        this.mpesaToken = mpesaToken.getBytes(StandardCharsets.UTF_8);
+        this.settlementCurrency = FxRateTable.normalize(settlementCurrency);
+        this.received = meterRegistry.counter("webhooks.payments.received");
+        this.unauthenticated = meterRegistry.counter("webhooks.payments.unauthenticated");
+    }
+
+    /**
+     * Accepts a signed callback in the normalized format ({@code transactionReference}, {@code paymentReference}
+     * or {@code bookingReference}, {@code status}, {@code amount}, {@code currency}, ...). A callback without a
+     * currency is taken to be in {@code payments.currency}.
+     *
+     * @throws SecurityException if the signature is missing or does not match the body
+     * @throws IllegalArgumentException if the callback cannot be identified
+     */
+    public void acceptCallback(byte[] rawBody, String signature) throws IOException {
+        verifySignature(rawBody, signature);
+        JsonNode body;
+        try {
+            body = objectMapper.readTree(rawBody);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON");
+        }
+        if (body == null || !body.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        String currency = text(body, "currency");
+        String status = text(body, "status");
+        boolean successful = status != null && switch (status.toUpperCase(Locale.ROOT)) {
+            case "COMPLETED", "SUCCESS", "SUCCEEDED", "PAID" -> true;
+            default -> false;
+        };
+        String method = text(body, "paymentMethod");
+        enqueue(new PaymentCallback(
+                method != null ? Payment.PaymentMethod.valueOf(method.toUpperCase(Locale.ROOT)) : Payment.PaymentMethod.BANK_TRANSFER,
+                required(body, "transactionReference"),
+                text(body, "paymentReference"),
+                text(body, "bookingReference"),
+                successful,
+                decimal(body, "amount"),
+                currency != null ? FxRateTable.normalize(currency) : settlementCurrency,
+                text(body, "receiptNumber"),
+                text(body, "phoneNumber"),
+                text(body, "bankReference"),
+                successful ? null : text(body, "failureReason"),
+                Instant.now()));
+    }
+
+    /**
+     * Accepts an M-Pesa C2B confirmation. {@code BillRefNumber} is the account number the payer entered: a
+     * payment reference ({@code PAY...}) or a booking reference. M-Pesa settles in Kenyan shillings.
+     *
+     * @throws SecurityException if {@code token} is not the configured confirmation token
+     * @throws IllegalArgumentException if the confirmation has no {@code TransID}
+     */
+    public void acceptMpesaConfirmation(JsonNode body, String token) throws IOException {
+        if (mpesaToken.length == 0 || token == null
+                || !MessageDigest.isEqual(mpesaToken, token.getBytes(StandardCharsets.UTF_8))) {
+            unauthenticated.increment();
+            throw new SecurityException("Unknown M-Pesa confirmation source");
+        }
+        String transactionId = required(body, "TransID");
+        String billReference = text(body, "BillRefNumber");
+        boolean paymentReference = billReference != null && billReference.startsWith("PAY");
+        enqueue(new PaymentCallback(
+                Payment.PaymentMethod.M_PESA,
+                transactionId,
+                paymentReference ? billReference : null,
+                paymentReference ? null : billReference,
+                true,
+                decimal(body, "TransAmount"),
+                "KES",
+                transactionId,
+                text(body, "MSISDN"),
+                null,
+                null,
+                Instant.now()));
+    }
+
+    private void enqueue(PaymentCallback callback) throws IOException {
+        try {
+            journal.append(objectMapper.writeValueAsString(callback));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unserializable callback", e);
+        }
+        received.increment();
+    }
+
+    private void verifySignature(byte[] body, String signature) {
+        if (signingSecret.length == 0 || signature == null) {
+            unauthenticated.increment();
+            throw new SecurityException("Missing webhook signature");
+        }
+        String hex = signature.trim();
+        if (hex.regionMatches(true, 0, "sha256=", 0, 7)) {
+            hex = hex.substring(7);
+        }
+        byte[] expected;
+        byte[] actual;
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(new SecretKeySpec(signingSecret, HMAC));
+            expected = mac.doFinal(body);
+            actual = HexFormat.of().parseHex(hex);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            unauthenticated.increment();
+            throw new SecurityException("Invalid webhook signature");
+        }
+        if (!MessageDigest.isEqual(expected, actual)) {
+            unauthenticated.increment();
+            throw new SecurityException("Invalid webhook signature");
+        }
+    }
+
+    private static String required(JsonNode body, String field) {
+        String value = text(body, field);
+        if (value == null) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return value;
+    }
+
+    private static String text(JsonNode body, String field) {
+        JsonNode node = body.get(field);
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        String value = node.asText().trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static BigDecimal decimal(JsonNode body, String field) {
+        String value = text(body, field);
+        try {
+            return value != null ? new BigDecimal(value) : null;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a number");
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.entity.Booking;
+import com.kingdomseekers.entity.DailyRevenue;
+import com.kingdomseekers.entity.Payment;
+import com.kingdomseekers.event.BookingChangedEvent;
+import com.kingdomseekers.event.PaymentChangedEvent;
+import com.kingdomseekers.repository.BookingRepository;
+import com.kingdomseekers.repository.DailyRevenueRepository;
+import com.kingdomseekers.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the daily revenue ledger. Committed booking and payment changes are applied as signed deltas to
+ * the affected days, so period totals are a sum over at most one row per day.
+ * <p>
+ * A delta is applied after its change commits, so a failed delta leaves the ledger off. On one replica at a
+ * time (the {@value #RECONCILE_LEASE} lease), the ledger is compared with a recompute from bookings and
+ * payments every {@code revenue.ledger.reconcile-interval}. A difference is corrected only once two runs in a
+ * row have seen the same difference on a day, so a delta still on its way is not corrected twice.
+ */
+@Service
+public class RevenueLedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(RevenueLedgerService.class);
+
+    static final String RECONCILE_LEASE = "revenue-ledger-reconcile";
+    static final String BACKFILL_LEASE = "revenue-ledger-backfill";
+    private static final Duration BACKFILL_LEASE_TTL = Duration.ofMinutes(10);
+
+    /** Bookings whose amount counts as revenue, attributed to the check-in date. */
+    public static final Set<Booking.BookingStatus> RECOGNISED_STATUSES = EnumSet.of(
+            Booking.BookingStatus.CONFIRMED, Booking.BookingStatus.CHECKED_IN, Booking.BookingStatus.CHECKED_OUT);
+
+    private final DailyRevenueRepository dailyRevenueRepository;
+    private final BookingRepository bookingRepository;
+    private final PaymentRepository paymentRepository;
+    private final SchedulerLeases leases;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration reconcileLeaseTtl;
+    /** Differences seen by the last reconcile and not yet corrected; only read and written under the lease. */
+    private Map<LocalDate, Drift> pendingDrift = Map.of();
+
+    @Autowired
+    public RevenueLedgerService(DailyRevenueRepository dailyRevenueRepository, BookingRepository bookingRepository,
+                                PaymentRepository paymentRepository, SchedulerLeases leases,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${revenue.ledger.reconcile-interval:PT15M}") Duration reconcileInterval) {
+        this.dailyRevenueRepository = dailyRevenueRepository;
+        this.bookingRepository = bookingRepository;
+        this.paymentRepository = paymentRepository;
+        this.leases = leases;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Outlives the interval, so the holder keeps the lease from one run to the next
+        this.reconcileLeaseTtl = reconcileInterval.multipliedBy(2);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onBookingChanged(BookingChangedEvent event) {
+        Map<LocalDate, BigDecimal> deltas = new HashMap<>();
+        if (isRecognised(event.before())) {
+            deltas.merge(event.before().checkInDate(), event.before().totalAmount().negate(), BigDecimal::add);
+        }
+        if (isRecognised(event.after())) {
+            deltas.merge(event.after().checkInDate(), event.after().totalAmount(), BigDecimal::add);
+        }
+        deltas.forEach((day, delta) -> {
+            if (delta.signum() != 0) {
+                dailyRevenueRepository.addDelta(day, delta, BigDecimal.ZERO);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onPaymentChanged(PaymentChangedEvent event) {
+        Map<LocalDate, BigDecimal> deltas = new HashMap<>();
+        if (isCompleted(event.before())) {
+            deltas.merge(dayOf(event.before()), event.before().amount().negate(), BigDecimal::add);
+        }
+        if (isCompleted(event.after())) {
+            deltas.merge(dayOf(event.after()), event.after().amount(), BigDecimal::add);
+        }
+        deltas.forEach((day, delta) -> {
+            if (delta.signum() != 0) {
+                dailyRevenueRepository.addDelta(day, BigDecimal.ZERO, delta);
+            }
+        });
+    }
+
+    public BigDecimal getBookingRevenue(LocalDate startDate, LocalDate endDate) {
+        return dailyRevenueRepository.sumBookingRevenue(startDate, endDate);
+    }
+
+    public BigDecimal getPaymentRevenue(LocalDate startDate, LocalDate endDate) {
+        return dailyRevenueRepository.sumPaymentRevenue(startDate, endDate);
+    }
+
+    /** Seeds an empty ledger; the lease keeps two replicas starting together from both seeding it. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!leases.tryAcquire(BACKFILL_LEASE, BACKFILL_LEASE_TTL)) {
+            return;
+        }
+        try {
+            if (dailyRevenueRepository.count() == 0) {
+                rebuild();
+            }
+        } finally {
+            leases.release(BACKFILL_LEASE);
+        }
+    }
+
+    /**
+     * Recomputes the whole ledger from bookings and payments. Used to seed an empty ledger and to repair it.
+     */
+    public void rebuild() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<LocalDate, DailyRevenue> days = recompute();
+            dailyRevenueRepository.deleteAllInBatch();
+            dailyRevenueRepository.saveAll(days.values());
+            log.info("Daily revenue ledger rebuilt with {} days", days.size());
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${revenue.ledger.reconcile-interval:PT15M}", initialDelayString = "${revenue.ledger.reconcile-interval:PT15M}")
+    public void reconcile() {
+        if (!leases.tryAcquire(RECONCILE_LEASE, reconcileLeaseTtl)) {
+            pendingDrift = Map.of();
+            return;
+        }
+        Map<LocalDate, Drift> drift = transactionTemplate.execute(status -> findDrift());
+        Map<LocalDate, Drift> unconfirmed = new HashMap<>();
+        drift.forEach((day, current) -> {
+            if (current.sameAs(pendingDrift.get(day))) {
+                transactionTemplate.executeWithoutResult(status ->
+                        dailyRevenueRepository.addDelta(day, current.bookingRevenue(), current.paymentRevenue()));
+                log.warn("Corrected daily revenue for {} by booking {} and payment {}",
+                        day, current.bookingRevenue(), current.paymentRevenue());
+            } else {
+                unconfirmed.put(day, current);
+            }
+        });
+        pendingDrift = unconfirmed;
+    }
+
+    /** Per day, what the recompute has that the ledger does not. */
+    private Map<LocalDate, Drift> findDrift() {
+        Map<LocalDate, DailyRevenue> expected = recompute();
+        Map<LocalDate, DailyRevenue> actual = new HashMap<>();
+        dailyRevenueRepository.findAll().forEach(day -> actual.put(day.getRevenueDate(), day));
+        Set<LocalDate> days = new HashSet<>(expected.keySet());
+        days.addAll(actual.keySet());
+        Map<LocalDate, Drift> drift = new HashMap<>();
+        for (LocalDate day : days) {
+            DailyRevenue want = expected.get(day);
+            DailyRevenue have = actual.get(day);
+            BigDecimal booking = amount(want, true).subtract(amount(have, true));
+            BigDecimal payment = amount(want, false).subtract(amount(have, false));
+            if (booking.signum() != 0 || payment.signum() != 0) {
+                drift.put(day, new Drift(booking, payment));
+            }
+        }
+        return drift;
+    }
+
+    private Map<LocalDate, DailyRevenue> recompute() {
+        Map<LocalDate, DailyRevenue> days = new HashMap<>();
+        for (BookingRepository.DailyTotal row : bookingRepository.sumTotalAmountByCheckInDate(RECOGNISED_STATUSES)) {
+            ledgerDay(days, row.getDay()).setBookingRevenue(row.getTotal());
+        }
+        for (PaymentRepository.DailyTotal row : paymentRepository.sumCompletedAmountByPaidDate(ZoneId.systemDefault().getId())) {
+            ledgerDay(days, row.getDay()).setPaymentRevenue(row.getTotal());
+        }
+        return days;
+    }
+
+    private static BigDecimal amount(DailyRevenue day, boolean booking) {
+        if (day == null) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal value = booking ? day.getBookingRevenue() : day.getPaymentRevenue();
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private static DailyRevenue ledgerDay(Map<LocalDate, DailyRevenue> days, LocalDate date) {
+        return days.computeIfAbsent(date, d -> {
+            DailyRevenue day = new DailyRevenue();
+            day.setRevenueDate(d);
+            return day;
+        });
+    }
+
+    private static boolean isRecognised(Booking.State state) {
+        return state != null && RECOGNISED_STATUSES.contains(state.status())
+                && state.checkInDate() != null && state.totalAmount() != null;
+    }
+
+    private static boolean isCompleted(Payment.State state) {
+        return state != null && state.status() == Payment.PaymentStatus.COMPLETED
+                && state.amount() != null && state.paidAt() != null;
+    }
+
+    private static LocalDate dayOf(Payment.State state) {
+        return LocalDate.ofInstant(state.paidAt(), ZoneId.systemDefault());
+    }
+
+    record Drift(BigDecimal bookingRevenue, BigDecimal paymentRevenue) {
+        boolean sameAs(Drift other) {
+            return other != null && bookingRevenue.compareTo(other.bookingRevenue) == 0
+                    && paymentRevenue.compareTo(other.paymentRevenue) == 0;
+        }
+    }
+}
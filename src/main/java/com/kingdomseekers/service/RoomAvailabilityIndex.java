@@ -0,0 +1,230 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.entity.Booking;
+import com.kingdomseekers.event.BookingChangedEvent;
+import com.kingdomseekers.event.CacheInvalidation;
+import com.kingdomseekers.event.CacheInvalidationBus;
+import com.kingdomseekers.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-room occupancy bitmap over nights, keyed by epoch day relative to yesterday as of the last rebuild.
+ * A set bit means the night is held by a PENDING, CONFIRMED or CHECKED_IN booking.
+ * <p>
+ * The index only pre-filters availability searches; reservations are checked against the database under the
+ * room's row lock in {@link BookingService}. Committed booking changes are applied here and announced on the
+ * {@link CacheInvalidationBus}, and other replicas re-read the booking. A periodic rebuild catches anything a
+ * replica missed and moves the origin day forward.
+ */
+@Component
+public class RoomAvailabilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomAvailabilityIndex.class);
+
+    public static final Set<Booking.BookingStatus> HOLDING_STATUSES = EnumSet.of(
+            Booking.BookingStatus.PENDING,
+            Booking.BookingStatus.CONFIRMED,
+            Booking.BookingStatus.CHECKED_IN);
+
+    private static final String ENTITY = Booking.class.getSimpleName();
+
+    private final BookingRepository bookingRepository;
+    private final CacheInvalidationBus bus;
+
+    private volatile long originDay;
+    private volatile Map<Long, RoomNights> rooms = new ConcurrentHashMap<>();
+    private volatile Map<Long, Stay> stays = new ConcurrentHashMap<>();
+    /** Changes applied while a rebuild is reading, replayed onto the rebuilt maps; null when not rebuilding. */
+    private Map<Long, Stay> changedDuringRebuild;
+
+    @Autowired
+    public RoomAvailabilityIndex(BookingRepository bookingRepository, CacheInvalidationBus bus) {
+        this.bookingRepository = bookingRepository;
+        this.bus = bus;
+        this.originDay = LocalDate.now().minusDays(1).toEpochDay();
+        bus.subscribe(this::onInvalidation);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${bookings.availability.resync-interval:PT5M}", initialDelayString = "${bookings.availability.resync-interval:PT5M}")
+    public void rebuild() {
+        synchronized (this) {
+            if (changedDuringRebuild != null) {
+                return;
+            }
+            changedDuringRebuild = new HashMap<>();
+        }
+        try {
+            long origin = LocalDate.now().minusDays(1).toEpochDay();
+            List<BookingRepository.RoomStay> rows = bookingRepository.findStaysEndingAfter(LocalDate.ofEpochDay(origin), HOLDING_STATUSES);
+            Map<Long, RoomNights> freshRooms = new ConcurrentHashMap<>();
+            Map<Long, Stay> freshStays = new ConcurrentHashMap<>();
+            for (BookingRepository.RoomStay row : rows) {
+                Stay stay = Stay.of(row);
+                freshStays.put(stay.bookingId(), stay);
+                freshRooms.computeIfAbsent(stay.roomId(), id -> new RoomNights()).add(stay, origin);
+            }
+            synchronized (this) {
+                this.originDay = origin;
+                this.rooms = freshRooms;
+                this.stays = freshStays;
+                changedDuringRebuild.forEach((bookingId, stay) -> apply(bookingId, stay));
+            }
+            log.info("Room availability index rebuilt with {} stays across {} rooms", freshStays.size(), freshRooms.size());
+        } finally {
+            synchronized (this) {
+                changedDuringRebuild = null;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        Booking.State after = event.after();
+        if (after != null && HOLDING_STATUSES.contains(after.status()) && after.roomId() != null) {
+            update(event.bookingId(), new Stay(event.bookingId(), after.roomId(),
+                    after.checkInDate().toEpochDay(), after.checkOutDate().toEpochDay()));
+        } else {
+            update(event.bookingId(), null);
+        }
+        bus.publish(new CacheInvalidation(ENTITY, event.bookingId()));
+    }
+
+    /** Another replica changed a booking: read its committed state rather than trusting the message. */
+    void onInvalidation(CacheInvalidation invalidation) {
+        if (CacheInvalidation.ALL.equals(invalidation.entity())
+                || (ENTITY.equals(invalidation.entity()) && invalidation.id() == null)) {
+            rebuild();
+        } else if (ENTITY.equals(invalidation.entity())) {
+            update(invalidation.id(), bookingRepository.findStayById(invalidation.id(), HOLDING_STATUSES)
+                    .map(Stay::of).orElse(null));
+        }
+    }
+
+    public boolean isAvailable(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        return isAvailable(roomId, checkIn, checkOut, null);
+    }
+
+    /**
+     * Checks the nights [checkIn, checkOut) for the room, ignoring the stay of {@code ignoredBookingId}
+     * so a booking can be moved over its own nights.
+     */
+    public boolean isAvailable(Long roomId, LocalDate checkIn, LocalDate checkOut, Long ignoredBookingId) {
+        RoomNights nights = rooms.get(roomId);
+        return nights == null || nights.isFree(checkIn.toEpochDay(), checkOut.toEpochDay(), originDay, ignoredBookingId);
+    }
+
+    public List<Long> filterAvailable(Collection<Long> roomIds, LocalDate checkIn, LocalDate checkOut) {
+        long from = checkIn.toEpochDay();
+        long to = checkOut.toEpochDay();
+        long origin = originDay;
+        Map<Long, RoomNights> snapshot = rooms;
+        List<Long> available = new ArrayList<>(roomIds.size());
+        for (Long roomId : roomIds) {
+            RoomNights nights = snapshot.get(roomId);
+            if (nights == null || nights.isFree(from, to, origin, null)) {
+                available.add(roomId);
+            }
+        }
+        return available;
+    }
+
+    /** Sets the booking's stay, or clears it when {@code stay} is null (no longer holding, or deleted). */
+    private synchronized void update(Long bookingId, Stay stay) {
+        apply(bookingId, stay);
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.put(bookingId, stay);
+        }
+    }
+
+    private void apply(Long bookingId, Stay stay) {
+        Stay previous = stays.remove(bookingId);
+        if (previous != null) {
+            RoomNights nights = rooms.get(previous.roomId());
+            if (nights != null) {
+                nights.remove(previous, originDay);
+            }
+        }
+        if (stay != null) {
+            stays.put(bookingId, stay);
+            rooms.computeIfAbsent(stay.roomId(), id -> new RoomNights()).add(stay, originDay);
+        }
+    }
+
+    record Stay(Long bookingId, Long roomId, long firstNight, long endNight) {
+        static Stay of(BookingRepository.RoomStay row) {
+            return new Stay(row.getId(), row.getRoomId(), row.getCheckInDate().toEpochDay(), row.getCheckOutDate().toEpochDay());
+        }
+
+        boolean overlaps(long from, long to) {
+            return firstNight < to && from < endNight;
+        }
+    }
+
+    private static final class RoomNights {
+        private final BitSet nights = new BitSet();
+        private final Map<Long, Stay> stays = new HashMap<>();
+
+        synchronized void add(Stay stay, long origin) {
+            stays.put(stay.bookingId(), stay);
+            mark(stay, origin);
+        }
+
+        synchronized void remove(Stay stay, long origin) {
+            if (stays.remove(stay.bookingId()) == null) {
+                return;
+            }
+            nights.clear(offset(stay.firstNight(), origin), offset(stay.endNight(), origin));
+            // Legacy data may hold overlapping stays; re-mark any that shared the cleared nights.
+            for (Stay other : stays.values()) {
+                if (other.overlaps(stay.firstNight(), stay.endNight())) {
+                    mark(other, origin);
+                }
+            }
+        }
+
+        synchronized boolean isFree(long from, long to, long origin, Long ignoredBookingId) {
+            int start = offset(from, origin);
+            int end = offset(to, origin);
+            int firstTaken = nights.nextSetBit(start);
+            if (firstTaken < 0 || firstTaken >= end) {
+                return true;
+            }
+            if (ignoredBookingId == null) {
+                return false;
+            }
+            for (Stay other : stays.values()) {
+                if (!other.bookingId().equals(ignoredBookingId) && other.overlaps(from, to)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void mark(Stay stay, long origin) {
+            nights.set(offset(stay.firstNight(), origin), offset(stay.endNight(), origin));
+        }
+
+        private static int offset(long epochDay, long origin) {
+            return (int) Math.max(0, epochDay - origin);
+        }
+    }
+}
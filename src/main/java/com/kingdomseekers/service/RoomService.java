@@ -1,25 +1,61 @@
 package com.kingdomseekers.service;
 
+import com.kingdomseekers.dto.BulkImportReport;
+import com.kingdomseekers.dto.RoomStatsSnapshot;
 import com.kingdomseekers.entity.Room;
 import com.kingdomseekers.repository.RoomRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 @Service
 public class RoomService {
     
+    /** Rooms in these states cannot take bookings for any dates; OCCUPIED only describes tonight. */
+    public static final Set<Room.RoomStatus> UNBOOKABLE_STATUSES = EnumSet.of(
+            Room.RoomStatus.MAINTENANCE, Room.RoomStatus.OUT_OF_ORDER);
+    
     private final RoomRepository roomRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final BulkImportService bulkImportService;
+    private final NaturalIdLookup naturalIdLookup;
+    private final Duration statsTtl;
+    private final AtomicReference<CachedStats> statsCache = new AtomicReference<>();
     
     @Autowired
-    public RoomService(RoomRepository roomRepository) {
+    public RoomService(RoomRepository roomRepository, RoomAvailabilityIndex availabilityIndex,
+                       BulkImportService bulkImportService, NaturalIdLookup naturalIdLookup,
+                       @Value("${room.stats.ttl:PT30S}") Duration statsTtl) {
         this.roomRepository = roomRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.bulkImportService = bulkImportService;
+        this.naturalIdLookup = naturalIdLookup;
+        this.statsTtl = statsTtl;
+    }
+    
+    public List<Room> getRoomsAfter(Long after, int limit) {
+        return roomRepository.findByIdGreaterThanOrderByIdAsc(Keyset.after(after), Keyset.firstRows(limit));
     }
     
-    public List<Room> getAllRooms() {
-        return roomRepository.findAll();
+    public Stream<Room> streamAllRooms() {
+        return roomRepository.streamAllBy();
     }
     
     public Optional<Room> getRoomById(Long id) {
@@ -27,11 +63,35 @@ public class RoomService {
     }
     
     public Optional<Room> getRoomByNumber(String roomNumber) {
-        return roomRepository.findByRoomNumber(roomNumber);
+        return naturalIdLookup.find(Room.class, roomNumber);
     }
     
     public Room createRoom(Room room) {
-        return roomRepository.save(room);
+        Room savedRoom = roomRepository.save(room);
+        invalidateRoomStats();
+        return savedRoom;
+    }
+    
+    public BulkImportReport importRooms(InputStream body, BulkImportService.Format format) throws IOException {
+        BulkImportReport report = bulkImportService.importRows(body, format, RoomService::roomFromRow, Room::getId);
+        invalidateRoomStats();
+        return report;
+    }
+    
+    private static Room roomFromRow(Map<String, String> row) {
+        Room room = new Room();
+        room.setRoomNumber(BulkImportService.required(row, "roomNumber"));
+        room.setType(BulkImportService.enumValue(Room.RoomType.class, BulkImportService.required(row, "type")));
+        room.setCapacity(Integer.valueOf(BulkImportService.required(row, "capacity")));
+        room.setPackageType(BulkImportService.enumValue(Room.PackageType.class, BulkImportService.required(row, "packageType")));
+        room.setPrice(new BigDecimal(BulkImportService.required(row, "price")));
+        String status = BulkImportService.optional(row, "status");
+        if (status != null) {
+            room.setStatus(BulkImportService.enumValue(Room.RoomStatus.class, status));
+        }
+        room.setDescription(BulkImportService.optional(row, "description"));
+        room.setAmenities(BulkImportService.optional(row, "amenities"));
+        return room;
     }
     
     public Optional<Room> updateRoom(Long id, Room roomDetails) {
@@ -45,13 +105,16 @@ public class RoomService {
                     existingRoom.setStatus(roomDetails.getStatus());
                     existingRoom.setDescription(roomDetails.getDescription());
                     existingRoom.setAmenities(roomDetails.getAmenities());
-                    return roomRepository.save(existingRoom);
+                    Room savedRoom = roomRepository.save(existingRoom);
+                    invalidateRoomStats();
+                    return savedRoom;
                 });
     }
     
     public boolean deleteRoom(Long id) {
         if (roomRepository.existsById(id)) {
             roomRepository.deleteById(id);
+            invalidateRoomStats();
             return true;
         }
         return false;
@@ -73,22 +136,78 @@ public class RoomService {
         return roomRepository.findAvailableRoomsByType(type);
     }
     
-    public Long getTotalRoomCount() {
-        return roomRepository.getTotalRoomCount();
+    public List<Room> searchAvailableRooms(LocalDate checkIn, LocalDate checkOut, Room.RoomType type,
+                                           Integer minCapacity, Room.PackageType packageType, BigDecimal maxPrice) {
+        if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+            throw new IllegalArgumentException("Check-out date must be after check-in date");
+        }
+        List<Room> candidates = roomRepository.findSearchCandidates(UNBOOKABLE_STATUSES, type, minCapacity, packageType, maxPrice);
+        Set<Long> free = new HashSet<>(availabilityIndex.filterAvailable(
+                candidates.stream().map(Room::getId).toList(), checkIn, checkOut));
+        return candidates.stream()
+                .filter(room -> free.contains(room.getId()))
+                .toList();
+    }
+    
+    /**
+     * Counts by type, package and status from one grouped query, cached for {@code room.stats.ttl}
+     * and dropped whenever a room is created, updated or deleted.
+     */
+    public RoomStatsSnapshot getRoomStats() {
+        CachedStats cached = statsCache.get();
+        if (cached != null && System.nanoTime() - cached.loadedAtNanos() < statsTtl.toNanos()) {
+            return cached.snapshot();
+        }
+        synchronized (statsCache) {
+            cached = statsCache.get();
+            if (cached != null && System.nanoTime() - cached.loadedAtNanos() < statsTtl.toNanos()) {
+                return cached.snapshot();
+            }
+            RoomStatsSnapshot snapshot = computeRoomStats();
+            statsCache.set(new CachedStats(snapshot, System.nanoTime()));
+            return snapshot;
+        }
+    }
+    
+    private RoomStatsSnapshot computeRoomStats() {
+        long total = 0;
+        long available = 0;
+        long occupied = 0;
+        Map<Room.RoomType, long[]> byType = new EnumMap<>(Room.RoomType.class);
+        Map<Room.PackageType, long[]> byPackage = new EnumMap<>(Room.PackageType.class);
+        for (RoomRepository.GroupCount row : roomRepository.countGroupedByTypePackageAndStatus()) {
+            boolean isOccupied = row.getStatus() == Room.RoomStatus.OCCUPIED;
+            total += row.getTotal();
+            if (row.getStatus() == Room.RoomStatus.AVAILABLE) {
+                available += row.getTotal();
+            }
+            if (isOccupied) {
+                occupied += row.getTotal();
+            }
+            accumulate(byType.computeIfAbsent(row.getType(), t -> new long[2]), row.getTotal(), isOccupied);
+            accumulate(byPackage.computeIfAbsent(row.getPackageType(), t -> new long[2]), row.getTotal(), isOccupied);
+        }
+        return new RoomStatsSnapshot(total, available, occupied, RoomStatsSnapshot.rate(occupied, total),
+                toOccupancy(byType, Room.RoomType.class), toOccupancy(byPackage, Room.PackageType.class), Instant.now());
+    }
+    
+    private static void accumulate(long[] counts, long rooms, boolean occupied) {
+        counts[0] += rooms;
+        if (occupied) {
+            counts[1] += rooms;
+        }
     }
     
-    public Long getAvailableRoomCount() {
-        return roomRepository.countByStatus(Room.RoomStatus.AVAILABLE);
+    private static <K extends Enum<K>> Map<K, RoomStatsSnapshot.Occupancy> toOccupancy(Map<K, long[]> counts, Class<K> keyType) {
+        Map<K, RoomStatsSnapshot.Occupancy> occupancy = new EnumMap<>(keyType);
+        counts.forEach((key, c) -> occupancy.put(key, RoomStatsSnapshot.Occupancy.of(c[0], c[1])));
+        return Collections.unmodifiableMap(occupancy);
     }
     
-    public Long getOccupiedRoomCount() {
-        return roomRepository.countByStatus(Room.RoomStatus.OCCUPIED);
+    private void invalidateRoomStats() {
+        statsCache.set(null);
     }
     
-    public Double getOccupancyRate() {
-        Long totalRooms = getTotalRoomCount();
-        if (totalRooms == 0) return 0.0;
-        Long occupiedRooms = getOccupiedRoomCount();
-        return (occupiedRooms.doubleValue() / totalRooms.doubleValue()) * 100;
+    private record CachedStats(RoomStatsSnapshot snapshot, long loadedAtNanos) {
     }
 }
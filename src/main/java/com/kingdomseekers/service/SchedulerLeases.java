@@ -0,0 +1,56 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.repository.SchedulerLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Database-backed leases for jobs that must run on a single replica. A holder keeps a lease by renewing it
+ * before it expires; if the holder dies, another instance takes it over once it lapses.
+ */
+@Component
+public class SchedulerLeases {
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulerLeases.class);
+
+    private final SchedulerLeaseRepository leaseRepository;
+    private final String holder;
+
+    @Autowired
+    public SchedulerLeases(SchedulerLeaseRepository leaseRepository,
+                           @Value("${HOSTNAME:local}") String hostname) {
+        this.leaseRepository = leaseRepository;
+        this.holder = hostname + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public String getHolder() {
+        return holder;
+    }
+
+    /** Takes or renews the named lease for {@code ttl}; false if another instance holds it or the database is unreachable. */
+    public boolean tryAcquire(String name, Duration ttl) {
+        Instant now = Instant.now();
+        try {
+            return leaseRepository.tryAcquire(name, holder, now.plus(ttl), now) > 0;
+        } catch (DataAccessException e) {
+            log.warn("Could not renew lease {}: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    public void release(String name) {
+        try {
+            leaseRepository.release(name, holder);
+        } catch (DataAccessException e) {
+            log.warn("Could not release lease {}: {}", name, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.entity.Member;
+import com.kingdomseekers.entity.Pastor;
+import com.kingdomseekers.entity.Room;
+import com.kingdomseekers.event.CacheInvalidation;
+import com.kingdomseekers.event.CacheInvalidationBus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Applies invalidations from other replicas to this replica's second-level cache. The entity row is evicted by
+ * id; the natural-id mappings of its type are dropped wholesale, since the message does not say whether the
+ * email or room number changed and a stale mapping would resolve a key to the wrong row.
+ */
+@Component
+public class SecondLevelCacheEvictor {
+
+    private static final Logger log = LoggerFactory.getLogger(SecondLevelCacheEvictor.class);
+
+    private static final Map<String, Class<?>> CACHED_ENTITIES = Map.of(
+            Room.class.getSimpleName(), Room.class,
+            Pastor.class.getSimpleName(), Pastor.class,
+            Member.class.getSimpleName(), Member.class);
+
+    private final Cache cache;
+    private final Counter received;
+
+    @Autowired
+    public SecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory, CacheInvalidationBus bus,
+                                   MeterRegistry meterRegistry) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.received = meterRegistry.counter("cache.invalidations.received");
+        bus.subscribe(this::evict);
+    }
+
+    void evict(CacheInvalidation invalidation) {
+        received.increment();
+        if (CacheInvalidation.ALL.equals(invalidation.entity())) {
+            CACHED_ENTITIES.values().forEach(this::evictAll);
+            return;
+        }
+        Class<?> type = CACHED_ENTITIES.get(invalidation.entity());
+        if (type == null) {
+            log.debug("Ignoring invalidation for uncached entity {}", invalidation.entity());
+            return;
+        }
+        if (invalidation.id() == null) {
+            evictAll(type);
+        } else {
+            cache.evictEntityData(type, invalidation.id());
+            cache.evictNaturalIdData(type);
+        }
+    }
+
+    private void evictAll(Class<?> type) {
+        cache.evictEntityData(type);
+        cache.evictNaturalIdData(type);
+    }
+}
@@ -0,0 +1,169 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.dto.VettingBatchResult;
+import com.kingdomseekers.dto.VettingDecision;
+import com.kingdomseekers.dto.VettingQueueStats;
+import com.kingdomseekers.entity.Member;
+import com.kingdomseekers.repository.MemberRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Work queue over pending members. A reviewer claims a batch, which leases those members to them for
+ * {@code vetting.claim-ttl}; concurrent claims skip each other's locked rows, and a lapsed lease returns the
+ * members to the queue. Decisions come back in bulk and are applied in one transaction, and only for members
+ * the reviewer still holds.
+ */
+@Service
+public class VettingQueueService {
+
+    public static final int MAX_CLAIM = 100;
+    public static final int MAX_DECISIONS = 500;
+
+    private final MemberRepository memberRepository;
+    private final PastorAssignmentService pastorAssignment;
+    private final MemberSearchIndex searchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration claimTtl;
+    private final AtomicReference<VettingQueueStats> stats =
+            new AtomicReference<>(new VettingQueueStats(0, 0, null, Instant.EPOCH));
+    private final Counter claimed;
+    private final Counter approved;
+    private final Counter rejected;
+
+    @Autowired
+    public VettingQueueService(MemberRepository memberRepository, PastorAssignmentService pastorAssignment,
+                               MemberSearchIndex searchIndex, PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${vetting.claim-ttl:PT20M}") Duration claimTtl) {
+        this.memberRepository = memberRepository;
+        this.pastorAssignment = pastorAssignment;
+        this.searchIndex = searchIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.claimTtl = claimTtl;
+        this.claimed = meterRegistry.counter("vetting.claimed");
+        this.approved = meterRegistry.counter("vetting.decisions", "status", "approved");
+        this.rejected = meterRegistry.counter("vetting.decisions", "status", "rejected");
+        meterRegistry.gauge("vetting.queue.depth", stats, s -> s.get().pending());
+        meterRegistry.gauge("vetting.queue.claimed", stats, s -> s.get().claimed());
+        meterRegistry.gauge("vetting.queue.oldest.age.seconds", stats, s -> oldestAgeSeconds(s.get()));
+    }
+
+    /** Refreshes the queue gauges; also run on every stats request. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${vetting.queue.stats-interval:PT30S}", initialDelayString = "${vetting.queue.stats-interval:PT30S}")
+    public void refreshStats() {
+        getStats();
+    }
+
+    public VettingQueueStats getStats() {
+        Instant now = Instant.now();
+        MemberRepository.VettingQueueDepth depth = memberRepository.findVettingQueueDepth(now);
+        VettingQueueStats current = new VettingQueueStats(depth.getPending(), depth.getClaimed(),
+                depth.getOldestPendingSince(), now);
+        stats.set(current);
+        return current;
+    }
+
+    /** Leases up to {@code limit} of the oldest unclaimed pending members to {@code reviewer}. */
+    public List<Member> claim(String reviewer, int limit) {
+        if (limit < 1 || limit > MAX_CLAIM) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_CLAIM);
+        }
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(claimTtl);
+        List<Member> batch = transactionTemplate.execute(status -> {
+            List<Member> members = memberRepository.lockClaimable(now, limit);
+            for (Member member : members) {
+                member.setVettingClaimedBy(reviewer);
+                member.setVettingClaimExpiresAt(expiresAt);
+            }
+            return members;
+        });
+        claimed.increment(batch.size());
+        return batch;
+    }
+
+    /**
+     * Applies approvals and rejections in one transaction. Decisions for members the reviewer does not hold a
+     * live claim on (never claimed, lease lapsed and re-claimed, already decided) are skipped and reported.
+     */
+    public VettingBatchResult decide(String reviewer, List<VettingDecision> decisions) {
+        Map<Long, Member.VettingStatus> byMember = validate(decisions);
+        Instant now = Instant.now();
+        List<Member> decided = new ArrayList<>();
+        List<Long> notClaimed = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<Long> seen = new HashSet<>();
+            for (Member member : memberRepository.lockAllByIdIn(byMember.keySet())) {
+                seen.add(member.getId());
+                if (!heldBy(member, reviewer, now)) {
+                    notClaimed.add(member.getId());
+                    continue;
+                }
+                Member.VettingStatus decision = byMember.get(member.getId());
+                member.setVettingStatus(decision);
+                member.setVettingClaimedBy(null);
+                member.setVettingClaimExpiresAt(null);
+                if (decision == Member.VettingStatus.APPROVED) {
+                    member.setApprovedAt(now);
+                    pastorAssignment.autoAssign(member);
+                }
+                decided.add(member);
+            }
+            byMember.keySet().stream().filter(id -> !seen.contains(id)).forEach(notClaimed::add);
+        });
+        decided.forEach(searchIndex::track);
+        int approvals = (int) decided.stream().filter(m -> m.getVettingStatus() == Member.VettingStatus.APPROVED).count();
+        approved.increment(approvals);
+        rejected.increment(decided.size() - approvals);
+        return new VettingBatchResult(approvals, decided.size() - approvals, List.copyOf(notClaimed));
+    }
+
+    private static Map<Long, Member.VettingStatus> validate(List<VettingDecision> decisions) {
+        if (decisions == null || decisions.isEmpty() || decisions.size() > MAX_DECISIONS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_DECISIONS + " decisions are required");
+        }
+        Map<Long, Member.VettingStatus> byMember = new LinkedHashMap<>();
+        for (VettingDecision decision : decisions) {
+            if (decision.memberId() == null
+                    || (decision.status() != Member.VettingStatus.APPROVED && decision.status() != Member.VettingStatus.REJECTED)) {
+                throw new IllegalArgumentException("Each decision needs a memberId and a status of APPROVED or REJECTED");
+            }
+            if (byMember.put(decision.memberId(), decision.status()) != null) {
+                throw new IllegalArgumentException("Member " + decision.memberId() + " has more than one decision");
+            }
+        }
+        return byMember;
+    }
+
+    private static boolean heldBy(Member member, String reviewer, Instant now) {
+        return member.getVettingStatus() == Member.VettingStatus.PENDING
+                && reviewer.equals(member.getVettingClaimedBy())
+                && member.getVettingClaimExpiresAt() != null
+                && member.getVettingClaimExpiresAt().isAfter(now);
+    }
+
+    private static double oldestAgeSeconds(VettingQueueStats stats) {
+        return stats.oldestPendingSince() == null ? 0
+                : Math.max(0, Duration.between(stats.oldestPendingSince(), Instant.now()).toSeconds());
+    }
+}
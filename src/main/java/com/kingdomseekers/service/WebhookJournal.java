@@ -0,0 +1,252 @@
+package com.kingdomseekers.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * A durable, append-only queue of newline-delimited records in numbered segment files. Appends are forced to
+ * disk before they return. A single consumer polls batches and commits its position once a batch has been
+ * applied, so records survive restarts and are delivered at least once.
+ */
+@Component
+public class WebhookJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookJournal.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String OFFSET_FILE = "offset";
+    private static final String REJECTED_FILE = "rejected.log";
+    private static final int READ_BUFFER_BYTES = 1024 * 1024;
+    /** Longest record {@link #append} takes, so every record and its newline fit one read. */
+    static final int MAX_RECORD_BYTES = READ_BUFFER_BYTES - 1;
+
+    /** Records read by {@link #poll} and the position to commit once they are applied. */
+    public record Batch(List<String> records, long segment, long position) {
+        public boolean isEmpty() {
+            return records.isEmpty();
+        }
+    }
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Condition appended = writeLock.newCondition();
+
+    private FileChannel writer;
+    private long writeSegment;
+    private volatile long writtenBytes;
+
+    private long readSegment;
+    private long readPosition;
+
+    @Autowired
+    public WebhookJournal(@Value("${webhooks.journal-dir:data/webhook-journal}") Path directory,
+                          @Value("${webhooks.segment-size:16MB}") DataSize segmentSize) {
+        this.directory = directory;
+        this.segmentBytes = segmentSize.toBytes();
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open webhook journal in " + directory, e);
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Long> segments = listSegments();
+        writeSegment = segments.isEmpty() ? 0 : segments.get(segments.size() - 1);
+        writer = FileChannel.open(segmentPath(writeSegment), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        // A crash mid-append can leave a partial record; drop it so the next append starts on a fresh line.
+        long end = lastNewlineEnd(writer);
+        writer.truncate(end);
+        writer.position(end);
+        writtenBytes = end;
+
+        Path offset = directory.resolve(OFFSET_FILE);
+        if (Files.exists(offset)) {
+            String[] parts = Files.readString(offset, StandardCharsets.UTF_8).trim().split(":");
+            readSegment = Long.parseLong(parts[0]);
+            readPosition = Long.parseLong(parts[1]);
+        } else {
+            readSegment = segments.isEmpty() ? writeSegment : segments.get(0);
+            readPosition = 0;
+        }
+        log.info("Webhook journal opened at segment {} ({} bytes), consumer at {}:{}",
+                writeSegment, end, readSegment, readPosition);
+    }
+
+    /**
+     * Appends one record (which must not contain a newline) and returns once it is on disk.
+     *
+     * @throws IllegalArgumentException if the record is longer than {@value #MAX_RECORD_BYTES} bytes
+     */
+    public void append(String record) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap((record + "\n").getBytes(StandardCharsets.UTF_8));
+        if (bytes.remaining() - 1 > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Record of " + (bytes.remaining() - 1) + " bytes exceeds the "
+                    + MAX_RECORD_BYTES + "-byte journal limit");
+        }
+        writeLock.lock();
+        try {
+            if (writtenBytes >= segmentBytes) {
+                roll();
+            }
+            while (bytes.hasRemaining()) {
+                writer.write(bytes);
+            }
+            writer.force(false);
+            writtenBytes = writer.position();
+            appended.signalAll();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void roll() throws IOException {
+        writer.close();
+        writeSegment++;
+        writer = FileChannel.open(segmentPath(writeSegment), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        writtenBytes = 0;
+    }
+
+    /**
+     * Returns up to {@code max} records after the committed position, waiting up to {@code timeout} for at
+     * least one to arrive. Only the consumer thread may call this.
+     */
+    public Batch poll(int max, Duration timeout) throws IOException, InterruptedException {
+        long segment = readSegment;
+        long position = readPosition;
+        while (true) {
+            long segmentEnd;
+            boolean current;
+            writeLock.lock();
+            try {
+                current = segment == writeSegment;
+                segmentEnd = current ? writtenBytes : Files.size(segmentPath(segment));
+                if (current && position >= segmentEnd) {
+                    if (!appended.await(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                        return new Batch(List.of(), segment, position);
+                    }
+                    continue;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            if (position >= segmentEnd) {
+                // Fully consumed older segment: move on to the next one.
+                segment++;
+                position = 0;
+                continue;
+            }
+            return read(segment, position, segmentEnd, max);
+        }
+    }
+
+    private Batch read(long segment, long position, long segmentEnd, int max) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+            long capacity = READ_BUFFER_BYTES;
+            while (true) {
+                ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(capacity, segmentEnd - position));
+                channel.read(buffer, position);
+                List<String> records = new ArrayList<>();
+                byte[] data = buffer.array();
+                int lineStart = 0;
+                for (int i = 0; i < buffer.position() && records.size() < max; i++) {
+                    if (data[i] == '\n') {
+                        records.add(new String(data, lineStart, i - lineStart, StandardCharsets.UTF_8));
+                        lineStart = i + 1;
+                    }
+                }
+                if (!records.isEmpty() || buffer.position() >= segmentEnd - position) {
+                    return new Batch(records, segment, position + lineStart);
+                }
+                // A record longer than the buffer, written before appends were capped: read it whole.
+                capacity *= 2;
+            }
+        }
+    }
+
+    /** Records that the batch has been applied and deletes segments that are fully consumed. */
+    public void commit(Batch batch) throws IOException {
+        Path offset = directory.resolve(OFFSET_FILE);
+        Path staging = directory.resolve(OFFSET_FILE + ".tmp");
+        Files.writeString(staging, batch.segment() + ":" + batch.position(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.DSYNC);
+        Files.move(staging, offset, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        for (long segment = readSegment; segment < batch.segment(); segment++) {
+            Files.deleteIfExists(segmentPath(segment));
+        }
+        readSegment = batch.segment();
+        readPosition = batch.position();
+    }
+
+    /** Sets aside a record that can never be applied, for manual follow-up. */
+    public void reject(String record, String reason) {
+        try {
+            Files.writeString(directory.resolve(REJECTED_FILE), reason + "\t" + record + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.error("Could not record rejected webhook ({}): {}", reason, record, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            writer.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long lastNewlineEnd(FileChannel channel) throws IOException {
+        long size = channel.size();
+        ByteBuffer one = ByteBuffer.allocate(1);
+        for (long position = size - 1; position >= 0; position--) {
+            one.clear();
+            channel.read(one, position);
+            if (one.get(0) == '\n') {
+                return position + 1;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,111 @@
+-- Baseline: the schema Hibernate's ddl-auto=update produced for the current entities. Everything is
+-- IF NOT EXISTS so the same script brings an existing database (baselined at version 0) and an empty one
+-- to the same state.
+
+CREATE SEQUENCE IF NOT EXISTS member_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS room_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS donation_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS pastors (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name      VARCHAR(255),
+    last_name       VARCHAR(255),
+    email           VARCHAR(255) UNIQUE,
+    church_branch   VARCHAR(255),
+    country_code    VARCHAR(255),
+    created_at      TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS members (
+    id                          BIGINT PRIMARY KEY,
+    first_name                  VARCHAR(255),
+    last_name                   VARCHAR(255),
+    email                       VARCHAR(255) UNIQUE,
+    nationality                 VARCHAR(255),
+    country_of_residence        VARCHAR(255),
+    phone                       VARCHAR(255),
+    vetting_status              VARCHAR(255),
+    assigned_pastor_id          BIGINT REFERENCES pastors (id),
+    vetting_claimed_by          VARCHAR(255),
+    vetting_claim_expires_at    TIMESTAMP(6) WITH TIME ZONE,
+    approved_at                 TIMESTAMP(6) WITH TIME ZONE,
+    created_at                  TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS rooms (
+    id              BIGINT PRIMARY KEY,
+    room_number     VARCHAR(255) NOT NULL UNIQUE,
+    type            VARCHAR(255) NOT NULL,
+    capacity        INTEGER NOT NULL,
+    package_type    VARCHAR(255) NOT NULL,
+    price           NUMERIC(10, 2) NOT NULL,
+    status          VARCHAR(255) NOT NULL,
+    description     VARCHAR(255),
+    amenities       VARCHAR(255),
+    created_at      TIMESTAMP(6) WITH TIME ZONE,
+    updated_at      TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS bookings (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_reference   VARCHAR(255) NOT NULL UNIQUE,
+    room_id             BIGINT NOT NULL REFERENCES rooms (id),
+    guest_name          VARCHAR(255) NOT NULL,
+    guest_email         VARCHAR(255) NOT NULL,
+    guest_phone         VARCHAR(255),
+    check_in_date       DATE NOT NULL,
+    check_out_date      DATE NOT NULL,
+    number_of_nights    INTEGER,
+    total_amount        NUMERIC(10, 2) NOT NULL,
+    payment_method      VARCHAR(255) NOT NULL,
+    status              VARCHAR(255) NOT NULL,
+    special_requests    VARCHAR(255),
+    created_at          TIMESTAMP(6) WITH TIME ZONE,
+    updated_at          TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS payments (
+    id                      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_id              BIGINT NOT NULL REFERENCES bookings (id),
+    transaction_reference   VARCHAR(255) UNIQUE,
+    payment_reference       VARCHAR(255),
+    amount                  NUMERIC(10, 2) NOT NULL,
+    payment_method          VARCHAR(255) NOT NULL,
+    status                  VARCHAR(255) NOT NULL,
+    mpesa_receipt_number    VARCHAR(255),
+    phone_number            VARCHAR(255),
+    bank_reference          VARCHAR(255),
+    payment_date            TIMESTAMP(6) WITH TIME ZONE,
+    failure_reason          VARCHAR(255),
+    created_at              TIMESTAMP(6) WITH TIME ZONE,
+    updated_at              TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS donations (
+    id                      BIGINT PRIMARY KEY,
+    member_id               BIGINT REFERENCES members (id),
+    amount                  NUMERIC(38, 2),
+    currency                VARCHAR(255),
+    type                    VARCHAR(255),
+    campaign_code           VARCHAR(255),
+    transaction_reference   VARCHAR(255),
+    payment_method          VARCHAR(255),
+    donation_date           TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS daily_revenue (
+    revenue_date        DATE PRIMARY KEY,
+    booking_revenue     NUMERIC(14, 2) NOT NULL,
+    payment_revenue     NUMERIC(14, 2) NOT NULL,
+    updated_at          TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS scheduler_leases (
+    name        VARCHAR(100) PRIMARY KEY,
+    holder      VARCHAR(255) NOT NULL,
+    expires_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+-- Columns added after the first deployment, for databases whose tables predate them
+ALTER TABLE members ADD COLUMN IF NOT EXISTS vetting_claimed_by VARCHAR(255);
+ALTER TABLE members ADD COLUMN IF NOT EXISTS vetting_claim_expires_at TIMESTAMP(6) WITH TIME ZONE;
@@ -0,0 +1,70 @@
+-- Indexes for the repository queries, built CONCURRENTLY so a deploy does not block writes on live tables
+-- (Flyway runs an all-CONCURRENTLY script outside a transaction, so keep every statement here that way).
+-- Comments name the queries each one serves; QueryPlanVerifier checks that none of them falls back to a
+-- sequential scan.
+-- rooms and pastors stay small enough that their lookups need nothing beyond the primary and unique keys,
+-- apart from the caseload grouping below.
+
+-- Superseded by the composite and partial indexes below
+DROP INDEX CONCURRENTLY IF EXISTS idx_bookings_check_in_date;
+DROP INDEX CONCURRENTLY IF EXISTS idx_bookings_check_out_date;
+DROP INDEX CONCURRENTLY IF EXISTS idx_members_vetting_queue;
+
+-- bookings: check-ins, the front-desk manifest and active stays (range on check-in, then check-out, status)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_stay_dates
+    ON bookings (check_in_date, check_out_date, status);
+-- bookings: check-outs and the availability index's stays ending after a date
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_check_out_status
+    ON bookings (check_out_date, status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_room_id
+    ON bookings (room_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_guest_email
+    ON bookings (guest_email);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_status
+    ON bookings (status);
+-- bookings: hold expiry scans only the pending few, by id watermark
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_pending
+    ON bookings (id) INCLUDE (updated_at) WHERE status = 'PENDING';
+
+-- payments: listings by status, in date order or by id keyset
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_status_payment_date
+    ON payments (status, payment_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_status_id
+    ON payments (status, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_payment_date
+    ON payments (payment_date);
+-- payments: analytics and reconciliation ranges over the effective paid-at instant
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_paid_at
+    ON payments ((COALESCE(payment_date, created_at)));
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_booking_id
+    ON payments (booking_id);
+-- payments: webhook callbacks resolve payments by the reference sent to the provider
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_payment_reference
+    ON payments (payment_reference);
+-- payments: hold expiry over pending and processing payments
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_open
+    ON payments (id) INCLUDE (updated_at) WHERE status IN ('PENDING', 'PROCESSING');
+
+-- donations: a member's history and giving statements (member range, then date range)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_donations_member_date
+    ON donations (member_id, donation_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_donations_campaign_code
+    ON donations (campaign_code) WHERE campaign_code IS NOT NULL;
+-- donations: date-range analytics and the date-ordered fact stream
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_donations_donation_date
+    ON donations (donation_date);
+
+-- members: a pastor's members by id keyset, and rebalancing
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_members_assigned_pastor
+    ON members (assigned_pastor_id, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_members_vetting_status
+    ON members (vetting_status, id);
+-- members: the vetting queue claims the oldest pending members
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_members_pending_queue
+    ON members (created_at, id) WHERE vetting_status = 'PENDING';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_members_country
+    ON members (country_of_residence);
+
+-- pastors: caseload groups
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pastors_country_branch
+    ON pastors (country_code, church_branch);
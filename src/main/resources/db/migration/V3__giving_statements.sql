@@ -0,0 +1,28 @@
+-- Giving statement runs and their rendered partitions. Kept in the database rather than on a pod's disk so
+-- every replica can report a run's progress and serve its statements, and a restarted run skips the
+-- partitions that are already stored.
+
+CREATE TABLE IF NOT EXISTS giving_statement_runs (
+    statement_year          INTEGER PRIMARY KEY,
+    state                   VARCHAR(20) NOT NULL,
+    total_partitions        INTEGER NOT NULL,
+    completed_partitions    INTEGER NOT NULL,
+    skipped_partitions      INTEGER NOT NULL,
+    failed_partitions       INTEGER NOT NULL,
+    statements_written      BIGINT NOT NULL,
+    started_by              VARCHAR(255),
+    started_at              TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at              TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    finished_at             TIMESTAMP(6) WITH TIME ZONE
+);
+
+-- One NDJSON document per member-id partition of a year's run
+CREATE TABLE IF NOT EXISTS giving_statement_partitions (
+    statement_year  INTEGER NOT NULL,
+    first_id        BIGINT NOT NULL,
+    last_id         BIGINT NOT NULL,
+    statements      INTEGER NOT NULL,
+    content         TEXT NOT NULL,
+    rendered_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (statement_year, first_id)
+);
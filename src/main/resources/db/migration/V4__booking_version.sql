@@ -0,0 +1,4 @@
+-- Optimistic lock for bookings: a status change read before the hold expiry's conditional cancel commits must
+-- fail rather than overwrite CANCELLED. Adding a column with a constant default does not rewrite the table.
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,54 @@
+package com.kingdomseekers.config;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QueryPlanVerifierTest {
+
+    /** Mirrors spring.flyway.postgresql.transactional-lock=false, without which V2 blocks on Flyway's own lock. */
+    private static final Map<String, String> SESSION_LOCK = Map.of("flyway.postgresql.transactional.lock", "false");
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrate() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        Flyway.configure().dataSource(postgres.getPostgresDatabase()).configuration(SESSION_LOCK).load().migrate();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void everyCheckedQuery_ShouldHaveAnIndexPath() {
+        assertEquals(List.of(), new QueryPlanVerifier(jdbcTemplate).findSequentialScans());
+    }
+
+    @Test
+    void migrations_ShouldBeRepeatableOnAnExistingSchema() {
+        // The baseline is IF NOT EXISTS throughout, so a database built by ddl-auto can be brought under Flyway
+        Flyway.configure().dataSource(postgres.getPostgresDatabase()).configuration(SESSION_LOCK).table("flyway_rerun_history")
+                .baselineOnMigrate(true).baselineVersion("0").load().migrate();
+
+        Integer invalid = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_index WHERE NOT indisvalid", Integer.class);
+        assertEquals(0, invalid);
+        assertTrue(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_indexes WHERE indexname LIKE 'idx_%'", Integer.class) >= 20);
+    }
+}
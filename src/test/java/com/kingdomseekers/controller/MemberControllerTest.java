@@ -3,7 +3,9 @@ package com.kingdomseekers.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kingdomseekers.config.SecurityConfig;
 import com.kingdomseekers.entity.Member;
+import com.kingdomseekers.service.EntityStreamService;
 import com.kingdomseekers.service.MemberService;
+import com.kingdomseekers.service.VettingQueueService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,7 +22,12 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -38,6 +45,12 @@ public class MemberControllerTest {
     @MockBean
     private MemberService memberService;
 
+    @MockBean
+    private EntityStreamService entityStreamService;
+
+    @MockBean
+    private VettingQueueService vettingQueueService;
+
     private Member testMember;
     private List<Member> memberList;
 
@@ -48,7 +61,7 @@ public class MemberControllerTest {
         testMember.setFirstName("John");
         testMember.setLastName("Doe");
         testMember.setEmail("john.doe@example.com");
-        testMember.setPhoneNumber("+1234567890");
+        testMember.setPhone("+1234567890");
         testMember.setVettingStatus(Member.VettingStatus.PENDING);
 
         Member member2 = new Member();
@@ -56,7 +69,7 @@ public class MemberControllerTest {
         member2.setFirstName("Jane");
         member2.setLastName("Smith");
         member2.setEmail("jane.smith@example.com");
-        member2.setPhoneNumber("+0987654321");
+        member2.setPhone("+0987654321");
         member2.setVettingStatus(Member.VettingStatus.APPROVED);
 
         memberList = Arrays.asList(testMember, member2);
@@ -64,17 +77,39 @@ public class MemberControllerTest {
 
     @Test
     @WithMockUser
-    void getAllMembers_ShouldReturnAllMembers() throws Exception {
-        when(memberService.getAllMembers()).thenReturn(memberList);
+    void getAllMembers_ShouldReturnFirstPage() throws Exception {
+        when(memberService.getMembersAfter(null, 100)).thenReturn(memberList);
 
         mockMvc.perform(get("/api/members"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-After"))
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[0].firstName").value("John"))
                 .andExpect(jsonPath("$[1].id").value(2))
                 .andExpect(jsonPath("$[1].firstName").value("Jane"));
     }
 
+    @Test
+    @WithMockUser
+    void getAllMembers_WhenPageIsFull_ShouldReturnNextCursor() throws Exception {
+        when(memberService.getMembersAfter(1L, 2)).thenReturn(memberList);
+
+        mockMvc.perform(get("/api/members").param("after", "1").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-After", "2"))
+                .andExpect(jsonPath("$[1].id").value(2));
+    }
+
+    @Test
+    @WithMockUser
+    void streamAllMembers_WhenEveryStreamSlotIsTaken_ShouldBeUnavailable() throws Exception {
+        when(entityStreamService.reserve(any())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/members").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "30"));
+    }
+
     @Test
     @WithMockUser
     void getMemberById_WhenMemberExists_ShouldReturnMember() throws Exception {
@@ -111,7 +146,7 @@ public class MemberControllerTest {
     @WithMockUser
     void getMembersByVettingStatus_ShouldReturnFilteredMembers() throws Exception {
         List<Member> pendingMembers = Arrays.asList(testMember);
-        when(memberService.getMembersByVettingStatus(Member.VettingStatus.PENDING)).thenReturn(pendingMembers);
+        when(memberService.getMembersByVettingStatus(Member.VettingStatus.PENDING, null, 100)).thenReturn(pendingMembers);
 
         mockMvc.perform(get("/api/members/vetting/PENDING"))
                 .andExpect(status().isOk())
@@ -122,10 +157,48 @@ public class MemberControllerTest {
     @Test
     @WithMockUser
     void getMembersByPastor_ShouldReturnFilteredMembers() throws Exception {
-        when(memberService.getMembersByPastor(1L)).thenReturn(Arrays.asList(testMember));
+        when(memberService.getMembersByPastor(1L, null, 100)).thenReturn(Arrays.asList(testMember));
 
         mockMvc.perform(get("/api/members/pastor/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser
+    void updateVettingStatus_WhenNotPastor_ShouldBeForbidden() throws Exception {
+        mockMvc.perform(patch("/api/members/1/vetting").param("status", "APPROVED"))
+                .andExpect(status().isForbidden());
+
+        verify(memberService, never()).updateVettingStatus(anyLong(), any(), anyString());
+    }
+
+    @Test
+    @WithMockUser(username = "pastor", roles = "PASTOR")
+    void updateVettingStatus_WhenClaimedByAnotherReviewer_ShouldConflict() throws Exception {
+        when(memberService.updateVettingStatus(eq(1L), eq(Member.VettingStatus.APPROVED), eq("pastor")))
+                .thenThrow(new IllegalStateException("Member 1 is claimed by another reviewer"));
+
+        mockMvc.perform(patch("/api/members/1/vetting").param("status", "APPROVED"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @WithMockUser
+    void claimVettingBatch_WhenNotPastor_ShouldBeForbidden() throws Exception {
+        mockMvc.perform(post("/api/members/vetting/queue/claim"))
+                .andExpect(status().isForbidden());
+
+        verify(vettingQueueService, never()).claim(anyString(), anyInt());
+    }
+
+    @Test
+    @WithMockUser(username = "pastor", roles = "PASTOR")
+    void claimVettingBatch_WhenPastor_ShouldReturnClaimedMembers() throws Exception {
+        when(vettingQueueService.claim("pastor", 20)).thenReturn(List.of(testMember));
+
+        mockMvc.perform(post("/api/members/vetting/queue/claim"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1));
+    }
+}
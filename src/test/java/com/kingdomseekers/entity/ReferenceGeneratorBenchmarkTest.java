@@ -0,0 +1,52 @@
+package com.kingdomseekers.entity;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reference id throughput across threads: one node must sustain more than a million ids per second, within
+ * the 4096 ids per millisecond its sequence allows. Depends on the machine, so it is kept out of the normal
+ * build; run with {@code mvn test -Dtest=ReferenceGeneratorBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ReferenceGeneratorBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 1_000_000;
+
+    private static volatile long sink;
+
+    @Test
+    void throughput_ShouldSustainMillionsOfIdsPerSecond() throws Exception {
+        ReferenceGenerator generator = new ReferenceGenerator(9);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            pool.submit(() -> {
+                start.await();
+                long last = 0;
+                for (int i = 0; i < IDS_PER_THREAD; i++) {
+                    last = generator.nextId();
+                }
+                sink = last;
+                return null;
+            });
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+        double seconds = (System.nanoTime() - began) / 1_000_000_000.0;
+
+        double perSecond = THREADS * IDS_PER_THREAD / seconds;
+        assertTrue(perSecond > 1_000_000, "generated only " + (long) perSecond + " ids/s");
+    }
+}
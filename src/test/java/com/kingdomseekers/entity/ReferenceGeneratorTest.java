@@ -0,0 +1,80 @@
+package com.kingdomseekers.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReferenceGeneratorTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    void concurrentIds_ShouldBeUnique() throws Exception {
+        ReferenceGenerator generator = new ReferenceGenerator(7);
+        int perThread = 100_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet(THREADS * perThread);
+
+        runConcurrently(() -> {
+            for (int i = 0; i < perThread; i++) {
+                ids.add(generator.nextId());
+            }
+        });
+
+        assertEquals(THREADS * perThread, ids.size());
+    }
+
+    @Test
+    void differentNodes_ShouldNotCollide() {
+        ReferenceGenerator first = new ReferenceGenerator(1);
+        ReferenceGenerator second = new ReferenceGenerator(2);
+        for (int i = 0; i < 10_000; i++) {
+            assertNotEquals(first.nextId(), second.nextId());
+        }
+    }
+
+    @Test
+    void nextReference_ShouldBeShortAndPrefixed() {
+        String reference = new ReferenceGenerator(3).nextReference("HG");
+        assertTrue(reference.startsWith("HG-"));
+        assertTrue(reference.length() <= 16, reference);
+    }
+
+    @Test
+    void exhaustedSequences_ShouldWaitForTheClockRatherThanRunAhead() {
+        ReferenceGenerator generator = new ReferenceGenerator(9);
+        long epoch = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+        long previous = 0;
+        // Far more than one millisecond's 4096 sequence numbers
+        for (int i = 0; i < 50_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            assertTrue((id >>> 22) + epoch <= System.currentTimeMillis(), "id issued ahead of the clock");
+            previous = id;
+        }
+    }
+
+    private void runConcurrently(Runnable work) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            pool.submit(() -> {
+                start.await();
+                work.run();
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,141 @@
+package com.kingdomseekers.repository;
+
+import com.kingdomseekers.entity.Booking;
+import com.kingdomseekers.entity.Payment;
+import com.kingdomseekers.entity.Room;
+import com.kingdomseekers.event.LocalCacheInvalidationBus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Guards against N+1 regressions: every list use case must load a page of rows, including the data the
+ * JSON views touch, in a fixed number of statements regardless of row count. Runs on H2, which cannot apply
+ * the Postgres-only migrations, so Hibernate creates the schema instead.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(LocalCacheInvalidationBus.class)
+public class StatementCountTest {
+
+    private static final int ROWS = 10;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private Statistics statistics;
+    private LocalDate checkIn;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        checkIn = LocalDate.now().plusDays(7);
+        for (int i = 0; i < ROWS; i++) {
+            Room room = new Room();
+            room.setRoomNumber("T-" + i);
+            room.setType(Room.RoomType.STANDARD);
+            room.setCapacity(2);
+            room.setPackageType(Room.PackageType.BASIC);
+            room.setPrice(BigDecimal.valueOf(40));
+            entityManager.persist(room);
+
+            Booking booking = new Booking();
+            booking.setRoom(room);
+            booking.setGuestName("Guest " + i);
+            booking.setGuestEmail("guest@example.com");
+            booking.setCheckInDate(checkIn);
+            booking.setCheckOutDate(checkIn.plusDays(2));
+            booking.setTotalAmount(BigDecimal.valueOf(80));
+            booking.setPaymentMethod(Booking.PaymentMethod.M_PESA);
+            booking.setStatus(Booking.BookingStatus.CONFIRMED);
+            entityManager.persist(booking);
+
+            Payment payment = new Payment();
+            payment.setBooking(booking);
+            payment.setAmount(BigDecimal.valueOf(80));
+            payment.setPaymentMethod(Payment.PaymentMethod.M_PESA);
+            payment.setStatus(Payment.PaymentStatus.COMPLETED);
+            entityManager.persist(payment);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void bookingLists_ShouldLoadRoomsInOneStatement() {
+        assertBookingsLoadedInOneStatement(() -> bookingRepository.findByStatus(Booking.BookingStatus.CONFIRMED));
+        assertBookingsLoadedInOneStatement(() -> bookingRepository.findByGuestEmail("guest@example.com"));
+        assertBookingsLoadedInOneStatement(() -> bookingRepository.findActiveBookingsOnDate(checkIn));
+        assertBookingsLoadedInOneStatement(() -> bookingRepository.findCheckInsForDate(checkIn));
+        assertBookingsLoadedInOneStatement(() -> bookingRepository.findCheckOutsForDate(checkIn.plusDays(2)));
+        assertBookingsLoadedInOneStatement(() -> bookingRepository.findByCheckInDateBetween(checkIn, checkIn));
+        assertBookingsLoadedInOneStatement(() -> bookingRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 50)));
+    }
+
+    @Test
+    void bookingSummaries_ShouldUseOneStatement() {
+        assertEquals(1, countStatements(() ->
+                assertEquals(ROWS, bookingRepository.findSummariesAfter(0L, PageRequest.of(0, 50)).size())));
+    }
+
+    @Test
+    void paymentLists_ShouldLoadBookingsAndRoomsInOneStatement() {
+        assertPaymentsLoadedInOneStatement(() -> paymentRepository.findByStatus(Payment.PaymentStatus.COMPLETED));
+        assertPaymentsLoadedInOneStatement(() -> paymentRepository.findByPaymentMethod(Payment.PaymentMethod.M_PESA));
+        assertEquals(1, countStatements(() -> assertEquals(ROWS, paymentRepository
+                .findSummariesByStatusAfter(Payment.PaymentStatus.COMPLETED, 0L, PageRequest.of(0, 50)).size())));
+    }
+
+    private void assertBookingsLoadedInOneStatement(Supplier<List<Booking>> query) {
+        long statements = countStatements(() -> {
+            List<Booking> bookings = query.get();
+            assertFalse(bookings.isEmpty());
+            bookings.forEach(booking -> booking.getRoom().getRoomNumber());
+        });
+        assertEquals(1, statements);
+    }
+
+    private void assertPaymentsLoadedInOneStatement(Supplier<List<Payment>> query) {
+        long statements = countStatements(() -> {
+            List<Payment> payments = query.get();
+            assertEquals(ROWS, payments.size());
+            payments.forEach(payment -> payment.getBooking().getRoom().getRoomNumber());
+        });
+        assertEquals(1, statements);
+    }
+
+    private long countStatements(Runnable work) {
+        entityManager.clear();
+        statistics.clear();
+        work.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,168 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.entity.Booking;
+import com.kingdomseekers.entity.Room;
+import com.kingdomseekers.event.LocalCacheInvalidationBus;
+import com.kingdomseekers.repository.BookingRepository;
+import com.kingdomseekers.repository.RoomRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Races reservations through two {@link BookingService} instances standing in for two replicas. Nothing is
+ * shared between them but the database, so only the room row lock can keep the nights from being double-booked.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(LocalCacheInvalidationBus.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BookingServiceConcurrencyTest {
+
+    private static final int ROOMS = 4;
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 40;
+
+    private static final EmbeddedPostgres postgres = start();
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> roomIds = new ArrayList<>();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+        roomIds.clear();
+        for (int i = 0; i < ROOMS; i++) {
+            Room room = new Room();
+            room.setRoomNumber("C-" + i);
+            room.setType(Room.RoomType.STANDARD);
+            room.setCapacity(2);
+            room.setPackageType(Room.PackageType.BASIC);
+            room.setPrice(BigDecimal.valueOf(50));
+            roomIds.add(roomRepository.save(room).getId());
+        }
+    }
+
+    @Test
+    void concurrentReservationsOnTwoReplicas_ShouldNeverDoubleBookARoom() throws Exception {
+        List<BookingService> replicas = List.of(newReplica(), newReplica());
+        LocalDate start = LocalDate.now().plusDays(1);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            BookingService replica = replicas.get(t % replicas.size());
+            pool.submit(() -> {
+                ready.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    Room room = new Room();
+                    room.setId(roomIds.get(random.nextInt(ROOMS)));
+                    Booking booking = new Booking();
+                    booking.setRoom(room);
+                    booking.setGuestName("Guest");
+                    booking.setGuestEmail("guest@example.com");
+                    booking.setPaymentMethod(Booking.PaymentMethod.M_PESA);
+                    booking.setCheckInDate(start.plusDays(random.nextInt(30)));
+                    booking.setCheckOutDate(booking.getCheckInDate().plusDays(1 + random.nextInt(4)));
+                    try {
+                        replica.createBooking(booking);
+                        accepted.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        ready.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES));
+
+        List<Booking> saved = bookingRepository.findAll();
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD, accepted.get() + rejected.get());
+        assertEquals(accepted.get(), saved.size());
+        assertTrue(rejected.get() > 0, "the attempts should have contended for the same nights");
+
+        Map<Long, List<Booking>> byRoom = saved.stream()
+                .collect(Collectors.groupingBy(b -> b.getRoom().getId()));
+        for (List<Booking> bookings : byRoom.values()) {
+            List<Booking> sorted = new ArrayList<>(bookings);
+            sorted.sort(Comparator.comparing(Booking::getCheckInDate));
+            for (int i = 1; i < sorted.size(); i++) {
+                Booking previous = sorted.get(i - 1);
+                Booking current = sorted.get(i);
+                assertTrue(!current.getCheckInDate().isBefore(previous.getCheckOutDate()),
+                        "room " + current.getRoom().getId() + " double-booked: "
+                                + previous.getId() + " and " + current.getId());
+            }
+        }
+    }
+
+    private BookingService newReplica() {
+        return new BookingService(bookingRepository, roomRepository, mock(BookingStatsService.class),
+                mock(RevenueLedgerService.class), transactionManager);
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.entity.Booking;
+import com.kingdomseekers.event.BookingChangedEvent;
+import com.kingdomseekers.event.CacheInvalidation;
+import com.kingdomseekers.event.LocalCacheInvalidationBus;
+import com.kingdomseekers.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BookingStatsServiceTest {
+
+    private BookingRepository bookingRepository;
+    private LocalCacheInvalidationBus bus;
+    private BookingStatsService stats;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        bus = new LocalCacheInvalidationBus();
+        stats = new BookingStatsService(bookingRepository, bus);
+    }
+
+    @Test
+    void recountOverlappingALocalChange_ShouldBeRetried() {
+        // The first recount reads the database before a hold commits and returns after its event is applied.
+        when(bookingRepository.countGroupedByStatus())
+                .thenAnswer(invocation -> {
+                    stats.onBookingChanged(new BookingChangedEvent(1L, null, state(Booking.BookingStatus.PENDING)));
+                    return List.of();
+                })
+                .thenReturn(List.of(count(Booking.BookingStatus.PENDING, 1)));
+
+        stats.reconcile();
+
+        assertEquals(1, stats.getCount(Booking.BookingStatus.PENDING));
+        verify(bookingRepository, times(2)).countGroupedByStatus();
+    }
+
+    @Test
+    void remoteChange_ShouldBeRecountedInTheBackgroundNotOnRead() {
+        when(bookingRepository.countGroupedByStatus()).thenReturn(List.of(count(Booking.BookingStatus.CONFIRMED, 4)));
+
+        bus.connect().publish(new CacheInvalidation("Booking", 9L));
+        assertEquals(0, stats.getCount(Booking.BookingStatus.CONFIRMED));
+        verify(bookingRepository, never()).countGroupedByStatus();
+
+        stats.refreshIfStale();
+        stats.refreshIfStale();
+        assertEquals(4, stats.getCount(Booking.BookingStatus.CONFIRMED));
+        verify(bookingRepository, times(1)).countGroupedByStatus();
+    }
+
+    private static Booking.State state(Booking.BookingStatus status) {
+        return new Booking.State(status, 1L, null, null, null);
+    }
+
+    private static BookingRepository.StatusCount count(Booking.BookingStatus status, long total) {
+        return new BookingRepository.StatusCount() {
+            @Override
+            public Booking.BookingStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package com.kingdomseekers.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kingdomseekers.dto.BulkImportReport;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BulkImportServiceTest {
+
+    private final AtomicLong ids = new AtomicLong();
+    private final List<Item> unflushed = new ArrayList<>();
+    private final List<String> committed = new ArrayList<>();
+    private EntityManager entityManager;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        doAnswer(invocation -> {
+            Item item = invocation.getArgument(0);
+            item.id = ids.incrementAndGet();
+            unflushed.add(item);
+            return null;
+        }).when(entityManager).persist(any());
+        // Stands in for a constraint violation: any chunk containing "dup" fails as a whole.
+        doAnswer(invocation -> {
+            boolean failed = unflushed.stream().anyMatch(item -> item.name.equals("dup"));
+            List<Item> chunk = new ArrayList<>(unflushed);
+            unflushed.clear();
+            if (failed) {
+                throw new PersistenceException("duplicate key");
+            }
+            chunk.forEach(item -> committed.add(item.name));
+            return null;
+        }).when(entityManager).flush();
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void importRows_ShouldPersistInChunksAndReportBadRows() throws IOException {
+        List<List<Long>> chunks = new ArrayList<>();
+        BulkImportReport report = service(2, 10).importRows(csv(
+                "name,size",
+                "one,1",
+                "two,x",
+                "three,3",
+                "four,4,extra",
+                "five,5",
+                "six,6"), BulkImportService.Format.CSV, BulkImportServiceTest::item, item -> item.id, chunks::add);
+
+        assertEquals(6, report.totalRows());
+        assertEquals(4, report.imported());
+        assertEquals(2, report.failed());
+        assertEquals(List.of(2, 4), report.failures().stream().map(BulkImportReport.RowFailure::row).toList());
+        assertEquals(List.of("one", "three", "five", "six"), committed);
+        assertEquals(List.of(2, 2), chunks.stream().map(List::size).toList());
+    }
+
+    @Test
+    void failedChunk_ShouldBeRetriedRowByRow() throws IOException {
+        BulkImportReport report = service(3, 10).importRows(json(
+                "{\"name\":\"one\",\"size\":1}",
+                "{\"name\":\"dup\",\"size\":2}",
+                "{\"name\":\"three\",\"size\":3}",
+                "not json",
+                "{\"name\":\"four\",\"size\":4}"), BulkImportService.Format.NDJSON, BulkImportServiceTest::item, item -> item.id);
+
+        assertEquals(5, report.totalRows());
+        assertEquals(3, report.imported());
+        assertEquals(List.of(2, 4), report.failures().stream().map(BulkImportReport.RowFailure::row).toList());
+        assertEquals("duplicate key", report.failures().get(0).error());
+        assertEquals(List.of("one", "three", "four"), committed);
+    }
+
+    @Test
+    void report_ShouldListOnlyTheFirstFailures() throws IOException {
+        List<String> lines = new ArrayList<>(List.of("name,size"));
+        for (int i = 1; i <= 50; i++) {
+            lines.add(i % 2 == 0 ? "dup," + i : "row" + i + ",bad");
+        }
+        BulkImportReport report = service(4, 5).importRows(csv(lines.toArray(String[]::new)),
+                BulkImportService.Format.CSV, BulkImportServiceTest::item, item -> item.id);
+
+        assertEquals(50, report.failed());
+        assertEquals(List.of(1, 2, 3, 4, 5), report.failures().stream().map(BulkImportReport.RowFailure::row).toList());
+        assertEquals(45, report.omittedFailures());
+    }
+
+    private BulkImportService service(int chunkSize, int maxReportedFailures) {
+        return new BulkImportService(entityManager, new ObjectMapper(), transactionManager, chunkSize, maxReportedFailures);
+    }
+
+    private static Item item(Map<String, String> row) {
+        Item item = new Item();
+        item.name = BulkImportService.required(row, "name");
+        item.size = Integer.parseInt(BulkImportService.required(row, "size"));
+        return item;
+    }
+
+    private static ByteArrayInputStream csv(String... lines) {
+        return new ByteArrayInputStream((String.join("\r\n", lines) + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ByteArrayInputStream json(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class Item {
+        Long id;
+        String name;
+        int size;
+    }
+}
@@ -0,0 +1,70 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.event.CacheInvalidation;
+import com.kingdomseekers.event.LocalCacheInvalidationBus;
+import com.kingdomseekers.repository.DonationRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CampaignTotalsServiceTest {
+
+    @Test
+    void donationTakenOnAnotherReplica_ShouldReachTheTotals() {
+        List<DonationRepository.CampaignDonorTotal> rows = new ArrayList<>();
+        rows.add(total("DRIVE", "KES", 1L, "500.00", 1));
+        DonationRepository donationRepository = mock(DonationRepository.class);
+        when(donationRepository.streamCampaignDonorTotals()).thenAnswer(invocation -> new ArrayList<>(rows).stream());
+        LocalCacheInvalidationBus bus = new LocalCacheInvalidationBus();
+        CampaignTotalsService totals = new CampaignTotalsService(donationRepository, bus);
+        totals.reconcile();
+
+        totals.refreshIfStale();
+        verify(donationRepository, times(1)).streamCampaignDonorTotals();
+
+        rows.add(total("DRIVE", "KES", 2L, "250.00", 1));
+        bus.connect().publish(new CacheInvalidation("Donation", 2L));
+        totals.refreshIfStale();
+
+        assertEquals(2, totals.getSummary("DRIVE", 10).orElseThrow().gifts());
+        assertEquals(new BigDecimal("750.00"), totals.getSummary("DRIVE", 10).orElseThrow().currencies().get(0).total());
+    }
+
+    private static DonationRepository.CampaignDonorTotal total(String campaign, String currency, Long memberId,
+                                                               String amount, long gifts) {
+        return new DonationRepository.CampaignDonorTotal() {
+            @Override
+            public String getCampaignCode() {
+                return campaign;
+            }
+
+            @Override
+            public String getCurrency() {
+                return currency;
+            }
+
+            @Override
+            public Long getMemberId() {
+                return memberId;
+            }
+
+            @Override
+            public BigDecimal getTotal() {
+                return new BigDecimal(amount);
+            }
+
+            @Override
+            public long getGifts() {
+                return gifts;
+            }
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package com.kingdomseekers.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CsvReaderTest {
+
+    @Test
+    void next_ShouldHandleQuotingAndLineEndings() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(
+                "a,\"b,c\",\"say \"\"hi\"\"\"\r\n\"multi\nline\",,end\n\"\"\n"));
+
+        assertEquals(List.of("a", "b,c", "say \"hi\""), reader.next());
+        assertEquals(List.of("multi\nline", "", "end"), reader.next());
+        assertEquals(2, reader.recordNumber());
+        assertEquals(List.of(""), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_ShouldRejectAnUnterminatedQuote() {
+        CsvReader reader = new CsvReader(new StringReader("a,\"never closed\nb,c\n"));
+
+        assertThrows(IllegalArgumentException.class, reader::next);
+    }
+}
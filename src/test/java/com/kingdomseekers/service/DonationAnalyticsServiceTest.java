@@ -0,0 +1,203 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.dto.DonationTimeSeries;
+import com.kingdomseekers.dto.FxRateTable;
+import com.kingdomseekers.entity.Donation;
+import com.kingdomseekers.event.CacheInvalidation;
+import com.kingdomseekers.event.DonationChangedEvent;
+import com.kingdomseekers.event.LocalCacheInvalidationBus;
+import com.kingdomseekers.repository.DonationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DonationAnalyticsServiceTest {
+
+    private final List<Fact> facts = new ArrayList<>();
+    private DonationRepository donationRepository;
+    private LocalCacheInvalidationBus bus;
+    private DonationAnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        donationRepository = mock(DonationRepository.class);
+        when(donationRepository.streamFactsByDate()).thenAnswer(invocation -> new ArrayList<DonationRepository.DonationFact>(facts).stream());
+        FxRateService fxRateService = mock(FxRateService.class);
+        when(fxRateService.getTable()).thenReturn(new FxRateTable("test", "USD",
+                Map.of("USD", BigDecimal.ONE, "KES", new BigDecimal("0.00775")), Instant.now()));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        bus = new LocalCacheInvalidationBus();
+        service = new DonationAnalyticsService(donationRepository, fxRateService, transactionManager, bus);
+    }
+
+    @Test
+    void buckets_ShouldStartOnMondaysAndFirstsOfTheMonth() {
+        facts.add(fact("2026-03-02", Donation.DonationType.TITHE, "USD", "10.00", 1L));
+        facts.add(fact("2026-03-04", Donation.DonationType.OFFERING, "USD", "5.00", 1L));
+        facts.add(fact("2026-03-09", Donation.DonationType.TITHE, "USD", "20.00", 2L));
+        facts.add(fact("2026-04-01", Donation.DonationType.TITHE, "USD", "1.00", 3L));
+        service.rebuild();
+
+        List<DonationTimeSeries.Bucket> weeks = only(series(DonationAnalyticsService.Granularity.WEEK));
+        assertEquals(List.of(LocalDate.parse("2026-03-02"), LocalDate.parse("2026-03-09"), LocalDate.parse("2026-03-30")),
+                weeks.stream().map(DonationTimeSeries.Bucket::start).toList());
+        assertEquals(2, weeks.get(0).gifts());
+        assertEquals(1, weeks.get(0).donors());
+        assertEquals(new BigDecimal("15.00"), weeks.get(0).total());
+
+        List<DonationTimeSeries.Bucket> months = only(series(DonationAnalyticsService.Granularity.MONTH));
+        assertEquals(List.of(LocalDate.parse("2026-03-01"), LocalDate.parse("2026-04-01")),
+                months.stream().map(DonationTimeSeries.Bucket::start).toList());
+        assertEquals(new BigDecimal("35.00"), months.get(0).total());
+        assertEquals(2, months.get(0).donors());
+
+        DonationTimeSeries byType = service.getTimeSeries(DonationAnalyticsService.Granularity.MONTH,
+                DonationAnalyticsService.GroupBy.TYPE, LocalDate.parse("2026-03-01"), LocalDate.parse("2026-03-31"), null, null);
+        assertEquals(List.of("OFFERING", "TITHE"), byType.series().stream().map(DonationTimeSeries.Series::key).toList());
+    }
+
+    @Test
+    void totals_ShouldConvertExactlyAndListCurrenciesWithoutARate() {
+        facts.add(fact("2026-05-01", Donation.DonationType.TITHE, "KES", "1000.00", 1L));
+        facts.add(fact("2026-05-01", Donation.DonationType.TITHE, "usd", "10.00", 2L));
+        facts.add(fact("2026-05-01", Donation.DonationType.TITHE, "GBP", "50.00", 3L));
+        for (int i = 0; i < 1000; i++) {
+            facts.add(fact("2026-05-02", Donation.DonationType.OFFERING, "USD", "0.10", 4L));
+        }
+        service.rebuild();
+
+        DonationTimeSeries days = service.getTimeSeries(DonationAnalyticsService.Granularity.DAY,
+                DonationAnalyticsService.GroupBy.NONE, null, null, null, null);
+        List<DonationTimeSeries.Bucket> buckets = only(days);
+        assertEquals(new BigDecimal("17.75"), buckets.get(0).total());
+        assertEquals(new BigDecimal("8.88"), buckets.get(0).average());
+        assertEquals(3, buckets.get(0).gifts());
+        assertEquals(new BigDecimal("100.00"), buckets.get(1).total());
+        assertEquals(new BigDecimal("0.10"), buckets.get(1).average());
+        assertEquals(List.of("GBP"), days.unconvertedCurrencies());
+        assertEquals("USD", days.baseCurrency());
+    }
+
+    @Test
+    void inserts_ShouldBeAppendedAndUpdatesShouldTriggerARebuild() {
+        facts.add(fact("2026-06-01", Donation.DonationType.TITHE, "USD", "10.00", 1L));
+        service.rebuild();
+
+        service.onDonationChanged(new DonationChangedEvent(2L, null, state("2026-05-31", "USD", "4.00", 2L)));
+        assertEquals(new BigDecimal("14.00"), only(series(DonationAnalyticsService.Granularity.MONTH)).stream()
+                .map(DonationTimeSeries.Bucket::total).reduce(BigDecimal.ZERO, BigDecimal::add));
+
+        service.refreshIfStale();
+        verify(donationRepository, times(1)).streamFactsByDate();
+
+        facts.set(0, fact("2026-06-01", Donation.DonationType.TITHE, "USD", "12.00", 1L));
+        facts.add(fact("2026-05-31", Donation.DonationType.TITHE, "USD", "4.00", 2L));
+        service.onDonationChanged(new DonationChangedEvent(1L, state("2026-06-01", "USD", "10.00", 1L),
+                state("2026-06-01", "USD", "12.00", 1L)));
+        service.refreshIfStale();
+        verify(donationRepository, times(2)).streamFactsByDate();
+        assertEquals(new BigDecimal("12.00"), only(series(DonationAnalyticsService.Granularity.MONTH)).get(1).total());
+    }
+
+    @Test
+    void changeDuringRebuild_ShouldLeaveTheCacheStale() {
+        Fact late = fact("2026-07-01", Donation.DonationType.TITHE, "USD", "7.00", 1L);
+        when(donationRepository.streamFactsByDate())
+                .thenAnswer(invocation -> {
+                    // Committed after the rebuild's snapshot, delivered before its swap
+                    service.onDonationChanged(new DonationChangedEvent(1L, null, state("2026-07-01", "USD", "7.00", 1L)));
+                    return new ArrayList<DonationRepository.DonationFact>().stream();
+                })
+                .thenAnswer(invocation -> new ArrayList<DonationRepository.DonationFact>(List.of(late)).stream());
+        service.rebuild();
+
+        service.refreshIfStale();
+        verify(donationRepository, times(2)).streamFactsByDate();
+        assertEquals(new BigDecimal("7.00"), only(series(DonationAnalyticsService.Granularity.DAY)).get(0).total());
+    }
+
+    @Test
+    void donationTakenOnAnotherReplica_ShouldTriggerARebuild() {
+        facts.add(fact("2026-08-03", Donation.DonationType.TITHE, "USD", "10.00", 1L));
+        service.rebuild();
+
+        facts.add(fact("2026-08-04", Donation.DonationType.TITHE, "USD", "5.00", 2L));
+        bus.connect().publish(new CacheInvalidation("Donation", 2L));
+        service.refreshIfStale();
+
+        verify(donationRepository, times(2)).streamFactsByDate();
+        assertEquals(2, only(series(DonationAnalyticsService.Granularity.DAY)).size());
+    }
+
+    private DonationTimeSeries series(DonationAnalyticsService.Granularity granularity) {
+        return service.getTimeSeries(granularity, DonationAnalyticsService.GroupBy.NONE, null, null, null, null);
+    }
+
+    private static List<DonationTimeSeries.Bucket> only(DonationTimeSeries series) {
+        assertEquals(1, series.series().size());
+        return series.series().get(0).buckets();
+    }
+
+    private static Instant noon(String day) {
+        return LocalDate.parse(day).atStartOfDay(ZoneId.systemDefault()).plusHours(12).toInstant();
+    }
+
+    private static Fact fact(String day, Donation.DonationType type, String currency, String amount, Long memberId) {
+        return new Fact(noon(day), type, null, currency, memberId, new BigDecimal(amount));
+    }
+
+    private static Donation.State state(String day, String currency, String amount, Long memberId) {
+        return new Donation.State(null, currency, memberId, new BigDecimal(amount), Donation.DonationType.TITHE, noon(day));
+    }
+
+    private record Fact(Instant donationDate, Donation.DonationType type, String campaignCode, String currency,
+                        Long memberId, BigDecimal amount) implements DonationRepository.DonationFact {
+
+        @Override
+        public Instant getDonationDate() {
+            return donationDate;
+        }
+
+        @Override
+        public Donation.DonationType getType() {
+            return type;
+        }
+
+        @Override
+        public String getCampaignCode() {
+            return campaignCode;
+        }
+
+        @Override
+        public String getCurrency() {
+            return currency;
+        }
+
+        @Override
+        public Long getMemberId() {
+            return memberId;
+        }
+
+        @Override
+        public BigDecimal getAmount() {
+            return amount;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.kingdomseekers.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class EntityStreamServiceTest {
+
+    private final EntityStreamService streams = new EntityStreamService(mock(EntityManager.class), new ObjectMapper(),
+            mock(PlatformTransactionManager.class), 1);
+
+    @Test
+    void reserve_WhenEverySlotIsTaken_ShouldBeEmptyUntilTheStreamEnds() throws IOException {
+        StreamingResponseBody first = streams.reserve(out -> out.write('x')).orElseThrow();
+        assertTrue(streams.reserve(out -> out.write('y')).isEmpty());
+
+        first.writeTo(new ByteArrayOutputStream());
+
+        assertTrue(streams.reserve(out -> out.write('y')).isPresent());
+    }
+
+    @Test
+    void reserve_WhenTheStreamFails_ShouldStillFreeTheSlot() {
+        Optional<StreamingResponseBody> failing = streams.reserve(out -> {
+            throw new IOException("client went away");
+        });
+
+        assertThrows(IOException.class, () -> failing.orElseThrow().writeTo(new ByteArrayOutputStream()));
+        assertTrue(streams.reserve(out -> out.write('y')).isPresent());
+    }
+}
@@ -0,0 +1,51 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.event.LocalCacheInvalidationBus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FxRateServiceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reloadOnOneReplica_ShouldReachTheOthers() throws IOException {
+        Path file = rates("2026-10-01", "0.00775");
+        String location = file.toUri().toString();
+        LocalCacheInvalidationBus busOnA = new LocalCacheInvalidationBus();
+        FxRateService ratesOnA = new FxRateService(new DefaultResourceLoader(), location, busOnA);
+        FxRateService ratesOnB = new FxRateService(new DefaultResourceLoader(), location, busOnA.connect());
+
+        rates("2026-10-15", "0.00780");
+        ratesOnA.reload();
+
+        assertEquals("2026-10-15", ratesOnB.getTable().version());
+        assertEquals(new BigDecimal("0.00780"), ratesOnB.getTable().rates().get("KES"));
+    }
+
+    @Test
+    void refresh_ShouldKeepTheTableWhenTheFileIsBroken() throws IOException {
+        Path file = rates("2026-10-01", "0.00775");
+        FxRateService rates = new FxRateService(new DefaultResourceLoader(), file.toUri().toString(),
+                new LocalCacheInvalidationBus());
+
+        Files.writeString(file, "base=USD\n");
+        rates.refresh();
+
+        assertEquals("2026-10-01", rates.getTable().version());
+    }
+
+    private Path rates(String version, String kes) throws IOException {
+        return Files.writeString(dir.resolve("fx-rates.properties"),
+                "version=" + version + "\nbase=USD\nrate.KES=" + kes + "\n");
+    }
+}
@@ -0,0 +1,226 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.entity.Booking;
+import com.kingdomseekers.entity.Room;
+import com.kingdomseekers.event.BookingChangedEvent;
+import com.kingdomseekers.event.LocalCacheInvalidationBus;
+import com.kingdomseekers.repository.BookingRepository;
+import com.kingdomseekers.repository.PaymentRepository;
+import com.kingdomseekers.repository.RoomRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Expires holds against a real database: the version bump on cancel must stop a confirmation that read the
+ * booking first, and a release on one replica must reach another replica's availability index and counts.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(LocalCacheInvalidationBus.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class HoldExpiryServiceTest {
+
+    private static final EmbeddedPostgres postgres = start();
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BookingService bookingService;
+    private Long roomId;
+    private LocalDate checkIn;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+        Room room = new Room();
+        room.setRoomNumber("H-1");
+        room.setType(Room.RoomType.STANDARD);
+        room.setCapacity(2);
+        room.setPackageType(Room.PackageType.BASIC);
+        room.setPrice(BigDecimal.valueOf(50));
+        roomId = roomRepository.save(room).getId();
+        checkIn = LocalDate.now().plusDays(1);
+        bookingService = new BookingService(bookingRepository, roomRepository, mock(BookingStatsService.class),
+                mock(RevenueLedgerService.class), transactionManager);
+    }
+
+    @Test
+    void confirmationReadBeforeTheCancel_ShouldFailRatherThanReviveTheHold() {
+        Long id = hold().getId();
+        TransactionTemplate confirm = new TransactionTemplate(transactionManager);
+        TransactionTemplate expiry = new TransactionTemplate(transactionManager);
+        expiry.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> confirm.executeWithoutResult(status -> {
+            Booking booking = bookingRepository.findById(id).orElseThrow();
+            assertEquals(List.of(id), expiry.execute(s ->
+                    bookingRepository.cancelExpiredHolds(List.of(id), Instant.now(), Instant.now())));
+            booking.setStatus(Booking.BookingStatus.CONFIRMED);
+            bookingRepository.saveAndFlush(booking);
+        }));
+
+        assertEquals(Booking.BookingStatus.CANCELLED, bookingRepository.findById(id).orElseThrow().getStatus());
+    }
+
+    @Test
+    void confirmedHold_ShouldNotBeCancelled() {
+        Long id = hold().getId();
+        bookingService.updateBookingStatus(id, Booking.BookingStatus.CONFIRMED);
+
+        List<Long> cancelled = new TransactionTemplate(transactionManager).execute(status ->
+                bookingRepository.cancelExpiredHolds(List.of(id), Instant.now(), Instant.now()));
+
+        assertEquals(List.of(), cancelled);
+        assertEquals(Booking.BookingStatus.CONFIRMED, bookingRepository.findById(id).orElseThrow().getStatus());
+    }
+
+    @Test
+    void lapsedHold_ShouldBeReleasedOnEveryReplica() throws Exception {
+        hold();
+        // Two connected in-process buses stand in for LISTEN/NOTIFY
+        LocalCacheInvalidationBus busOnA = new LocalCacheInvalidationBus();
+        LocalCacheInvalidationBus busOnB = busOnA.connect();
+        RoomAvailabilityIndex indexOnA = new RoomAvailabilityIndex(bookingRepository, busOnA);
+        RoomAvailabilityIndex indexOnB = new RoomAvailabilityIndex(bookingRepository, busOnB);
+        BookingStatsService statsOnB = new BookingStatsService(bookingRepository, busOnB);
+        indexOnA.rebuild();
+        indexOnB.rebuild();
+        statsOnB.reconcile();
+        assertFalse(indexOnB.isAvailable(roomId, checkIn, checkIn.plusDays(2)));
+        assertEquals(1, statsOnB.getCount(Booking.BookingStatus.PENDING));
+
+        SchedulerLeases leases = mock(SchedulerLeases.class);
+        when(leases.tryAcquire(eq(HoldExpiryService.LEASE), any())).thenReturn(true);
+        HoldExpiryService expiryOnA = new HoldExpiryService(bookingRepository, paymentRepository, leases,
+                event -> {
+                    // Delivered after commit, as the @TransactionalEventListener would be
+                    if (event instanceof BookingChangedEvent changed) {
+                        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                            @Override
+                            public void afterCommit() {
+                                indexOnA.onBookingChanged(changed);
+                            }
+                        });
+                    }
+                },
+                transactionManager, new SimpleMeterRegistry(), Duration.ZERO, Duration.ofMinutes(15),
+                Duration.ofMinutes(1), Duration.ofHours(1), Duration.ofMinutes(5), 200);
+        expiryOnA.heartbeat();
+        expiryOnA.start();
+        try {
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (!indexOnB.isAvailable(roomId, checkIn, checkIn.plusDays(2)) && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+        } finally {
+            expiryOnA.stop();
+        }
+
+        assertTrue(indexOnB.isAvailable(roomId, checkIn, checkIn.plusDays(2)));
+        statsOnB.refreshIfStale();
+        assertEquals(0, statsOnB.getCount(Booking.BookingStatus.PENDING));
+        assertEquals(1, statsOnB.getCount(Booking.BookingStatus.CANCELLED));
+    }
+
+    @Test
+    void holdCommittedBelowTheNewestId_ShouldBeScheduledOnTheNextCatchUp() {
+        Booking late = hold();
+        bookingService.updateBookingStatus(late.getId(), Booking.BookingStatus.CONFIRMED);
+        checkIn = checkIn.plusDays(5);
+        bookingService.updateBookingStatus(hold().getId(), Booking.BookingStatus.CONFIRMED);
+
+        SchedulerLeases leases = mock(SchedulerLeases.class);
+        when(leases.tryAcquire(eq(HoldExpiryService.LEASE), any())).thenReturn(true);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        HoldExpiryService expiry = new HoldExpiryService(bookingRepository, paymentRepository, leases, event -> { },
+                transactionManager, meterRegistry, Duration.ofMinutes(30), Duration.ofMinutes(15),
+                Duration.ofMinutes(1), Duration.ofHours(1), Duration.ofMinutes(5), 200);
+        expiry.heartbeat();
+        assertEquals(0, meterRegistry.get("holds.scheduled").gauge().value());
+
+        // The older row turns into a hold after the newer id was already seen, as another replica's slow commit would
+        Booking booking = bookingRepository.findById(late.getId()).orElseThrow();
+        booking.setStatus(Booking.BookingStatus.PENDING);
+        bookingRepository.save(booking);
+        expiry.heartbeat();
+
+        assertEquals(1, meterRegistry.get("holds.scheduled").gauge().value());
+    }
+
+    private Booking hold() {
+        Room room = new Room();
+        room.setId(roomId);
+        Booking booking = new Booking();
+        booking.setRoom(room);
+        booking.setGuestName("Guest");
+        booking.setGuestEmail("guest@example.com");
+        booking.setPaymentMethod(Booking.PaymentMethod.M_PESA);
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkIn.plusDays(2));
+        return bookingService.createBooking(booking);
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.entity.Member;
+import com.kingdomseekers.repository.MemberRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Search latency over a 500k-member directory: p99 must stay under 10ms for a mix of full names, surnames,
+ * three-letter prefixes, one-typo surnames, email fragments and phone fragments. Too slow and memory-hungry
+ * for every build; run with {@code mvn test -Dtest=MemberSearchIndexBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class MemberSearchIndexBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberSearchIndexBenchmarkTest.class);
+
+    private static final int MEMBERS = 500_000;
+    private static final int WARMUP_QUERIES = 5_000;
+    private static final int MEASURED_QUERIES = 20_000;
+    private static final long P99_LIMIT_NANOS = 10_000_000;
+
+    private static final String[] FIRST_NAMES = {
+            "Grace", "John", "Mary", "Peter", "Faith", "James", "Joseph", "Esther", "David", "Ruth", "Samuel",
+            "Mercy", "Daniel", "Joyce", "Paul", "Ann", "Stephen", "Lucy", "Michael", "Jane", "Brian", "Caroline",
+            "Kevin", "Purity", "Dennis", "Naomi", "Collins", "Sharon", "Victor", "Eunice", "George", "Winnie",
+            "Francis", "Beatrice", "Patrick", "Gladys", "Charles", "Agnes", "Moses", "Dorcas", "Isaac", "Lydia",
+            "Emmanuel", "Rose", "Timothy", "Miriam", "Martin", "Irene", "Simon", "Priscilla"};
+    private static final String[] LAST_NAMES = {
+            "Wanjiru", "Otieno", "Kamau", "Mwangi", "Njeri", "Ochieng", "Akinyi", "Kiprop", "Chebet", "Wambui",
+            "Odhiambo", "Mutua", "Kariuki", "Atieno", "Kimani", "Nyambura", "Omondi", "Wafula", "Cherono", "Njoroge",
+            "Korir", "Achieng", "Maina", "Wekesa", "Muthoni", "Kiptoo", "Adhiambo", "Ndungu", "Jepchirchir", "Gitau",
+            "Owino", "Wairimu", "Kibet", "Nafula", "Karanja", "Awino", "Rotich", "Nyaga", "Barasa", "Wangari",
+            "Okoth", "Mugo", "Langat", "Nekesa", "Kinyua", "Auma", "Kosgei", "Wanjiku", "Simiyu", "Macharia",
+            "Onyango", "Githinji", "Tanui", "Makokha", "Muriuki", "Anyango", "Ruto", "Kerubo", "Nyongesa", "Waweru",
+            "Opiyo", "Gathoni", "Bett", "Masika", "Kiragu", "Ouma", "Cheruiyot", "Moraa", "Juma", "Wanyama",
+            "Obuya", "Kahindi", "Sang", "Nasimiyu", "Ngugi", "Oduor", "Kirui", "Nyokabi", "Mwita", "Chelangat"};
+    private static final String[] COUNTRIES = {"KE", "KE", "KE", "UG", "TZ"};
+
+    @Test
+    void search_ShouldAnswerWithinTenMillisecondsAtP99() {
+        List<Row> rows = directory(new Random(42));
+        MemberRepository memberRepository = mock(MemberRepository.class);
+        when(memberRepository.streamSearchFields()).thenAnswer(invocation ->
+                rows.stream().map(MemberRepository.SearchFields.class::cast));
+        MemberSearchIndex index = new MemberSearchIndex(memberRepository, mock(PlatformTransactionManager.class));
+
+        long buildStarted = System.nanoTime();
+        index.rebuild();
+        long buildMillis = (System.nanoTime() - buildStarted) / 1_000_000;
+        long reconcileStarted = System.nanoTime();
+        index.rebuild();
+        long reconcileMillis = (System.nanoTime() - reconcileStarted) / 1_000_000;
+        assertEquals(MEMBERS, index.size());
+
+        Random random = new Random(7);
+        List<String> queries = IntStream.range(0, WARMUP_QUERIES + MEASURED_QUERIES)
+                .mapToObj(i -> query(rows.get(random.nextInt(rows.size())), random))
+                .toList();
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            index.search(queries.get(i), null, null, null, 20);
+        }
+        long[] nanos = new long[MEASURED_QUERIES];
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            String query = queries.get(WARMUP_QUERIES + i);
+            String country = i % 10 == 0 ? "KE" : null;
+            long started = System.nanoTime();
+            index.search(query, null, country, null, 20);
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+        long p50 = nanos[MEASURED_QUERIES / 2];
+        long p99 = nanos[MEASURED_QUERIES * 99 / 100];
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        String figures = String.format("Member search over %d members: build %d ms, reconcile %d ms, p50 %.2f ms, "
+                        + "p99 %.2f ms, max %.2f ms, heap used %d MB", MEMBERS, buildMillis, reconcileMillis, p50 / 1e6,
+                p99 / 1e6, nanos[MEASURED_QUERIES - 1] / 1e6, (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+        log.info(figures);
+
+        assertTrue(p99 < P99_LIMIT_NANOS, figures);
+    }
+
+    private static List<Row> directory(Random random) {
+        List<Row> rows = new ArrayList<>(MEMBERS);
+        for (int i = 1; i <= MEMBERS; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String email = (first.charAt(0) + "." + last + i).toLowerCase() + "@example.com";
+            String phone = "07" + (10_000_000 + random.nextInt(90_000_000));
+            rows.add(new Row((long) i, first, last, email, phone, Member.VettingStatus.APPROVED,
+                    COUNTRIES[random.nextInt(COUNTRIES.length)], (long) random.nextInt(200)));
+        }
+        return rows;
+    }
+
+    private static String query(Row row, Random random) {
+        String last = row.lastName();
+        return switch (random.nextInt(6)) {
+            case 0 -> row.firstName() + " " + last;
+            case 1 -> last;
+            case 2 -> last.substring(0, 3);
+            case 3 -> typo(last, random);
+            case 4 -> row.email().substring(0, row.email().indexOf('@'));
+            default -> row.phone().substring(0, 7);
+        };
+    }
+
+    /** Swaps two adjacent letters, past the first so the surname keeps its initial. */
+    private static String typo(String name, Random random) {
+        char[] letters = name.toLowerCase().toCharArray();
+        int at = 1 + random.nextInt(letters.length - 2);
+        char swapped = letters[at];
+        letters[at] = letters[at + 1];
+        letters[at + 1] = swapped;
+        return new String(letters);
+    }
+
+    private record Row(Long id, String firstName, String lastName, String email, String phone,
+                       Member.VettingStatus vettingStatus, String country, Long pastorId)
+            implements MemberRepository.SearchFields {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getFirstName() {
+            return firstName;
+        }
+
+        @Override
+        public String getLastName() {
+            return lastName;
+        }
+
+        @Override
+        public String getEmail() {
+            return email;
+        }
+
+        @Override
+        public String getPhone() {
+            return phone;
+        }
+
+        @Override
+        public Member.VettingStatus getVettingStatus() {
+            return vettingStatus;
+        }
+
+        @Override
+        public String getCountryOfResidence() {
+            return country;
+        }
+
+        @Override
+        public Long getAssignedPastorId() {
+            return pastorId;
+        }
+    }
+}
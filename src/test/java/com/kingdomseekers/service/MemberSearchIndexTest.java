@@ -0,0 +1,174 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.dto.MemberSearchHit;
+import com.kingdomseekers.entity.Member;
+import com.kingdomseekers.entity.Pastor;
+import com.kingdomseekers.repository.MemberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MemberSearchIndexTest {
+
+    private MemberRepository memberRepository;
+    private MemberSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        memberRepository = mock(MemberRepository.class);
+        index = new MemberSearchIndex(memberRepository, mock(PlatformTransactionManager.class));
+        index.track(member(1L, "Grace", "Wanjiru", "grace.wanjiru@example.com", "+254 712 345 678", "KE", 10L));
+        index.track(member(2L, "Gracious", "Otieno", "gotieno@example.com", "0722000111", "KE", null));
+        index.track(member(3L, "John", "Kamau", "jkamau@example.org", "0733999888", "UG", 10L));
+    }
+
+    @Test
+    void prefix_ShouldMatchNamesAndExactShouldNotWiden() {
+        assertEquals(Set.of(1L, 2L), Set.copyOf(ids(index.search("grac", null, null, null, 10))));
+        assertEquals(List.of(1L), ids(index.search("grace", null, null, null, 10)));
+    }
+
+    @Test
+    void misspelledName_ShouldMatchWithinOneEdit() {
+        assertEquals(List.of(3L), ids(index.search("kamua", null, null, null, 10)));
+        assertEquals(List.of(1L), ids(index.search("wanjiur grace", null, null, null, 10)));
+    }
+
+    @Test
+    void phone_ShouldMatchAcrossNationalAndInternationalFormats() {
+        assertEquals(List.of(1L), ids(index.search("0712345", null, null, null, 10)));
+        assertEquals(List.of(2L), ids(index.search("+254722", null, null, null, 10)));
+    }
+
+    @Test
+    void filters_ShouldCombineWithTheQuery() {
+        assertEquals(List.of(1L), ids(index.search("example", null, "ke", 10L, 10)));
+        assertEquals(List.of(3L), ids(index.search("example", null, "UG", null, 10)));
+        assertTrue(index.search("grace", Member.VettingStatus.APPROVED, null, null, 10).isEmpty());
+    }
+
+    @Test
+    void update_ShouldReplaceTheOldTerms() {
+        index.track(member(3L, "John", "Mwangi", "jkamau@example.org", "0733999888", "UG", 10L));
+
+        assertTrue(ids(index.search("kamau", null, null, null, 10)).isEmpty());
+        assertEquals(List.of(3L), ids(index.search("mwangi", null, null, null, 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void prefixMatches_ShouldOutrankExactMatchesThatMissOtherTokens() {
+        index.track(member(4L, "Grace", "Akinyi", "gakinyi@example.com", null, "KE", null));
+        index.track(member(5L, "Gracey", "Wanjiku", "gwanjiku@example.com", null, "KE", null));
+
+        assertEquals(List.of(1L, 5L), ids(index.search("wanj grace", null, null, null, 2)));
+        assertEquals(List.of(4L), ids(index.search("grace", null, null, null, 1)));
+    }
+
+    @Test
+    void rebuild_ShouldDropDeletedMembersAndKeepNewerTrackedState() {
+        when(memberRepository.streamSearchFields()).thenAnswer(invocation -> {
+            // Saved while the rebuild streams its (older) snapshot
+            index.track(member(3L, "John", "Mwangi", "jkamau@example.org", "0733999888", "UG", 10L));
+            index.track(member(4L, "Faith", "Njeri", "fnjeri@example.com", null, "KE", null));
+            return Stream.of(
+                    row(1L, "Grace", "Akinyi", "grace.wanjiru@example.com", "+254 712 345 678", "KE", 10L),
+                    row(3L, "John", "Kamau", "jkamau@example.org", "0733999888", "UG", 10L));
+        });
+
+        index.rebuild();
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(1L), ids(index.search("akinyi", null, null, null, 10)));
+        assertTrue(ids(index.search("otieno", null, null, null, 10)).isEmpty());
+        assertTrue(ids(index.search("kamau", null, null, null, 10)).isEmpty());
+        assertEquals(List.of(3L), ids(index.search("mwangi", null, null, null, 10)));
+        assertEquals(List.of(4L), ids(index.search("njeri", null, null, null, 10)));
+    }
+
+    @Test
+    void blankQuery_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> index.search("  ", null, null, null, 10));
+    }
+
+    private static List<Long> ids(List<MemberSearchHit> hits) {
+        return hits.stream().map(MemberSearchHit::id).toList();
+    }
+
+    private static Member member(Long id, String firstName, String lastName, String email, String phone,
+                                 String country, Long pastorId) {
+        Member member = new Member();
+        member.setId(id);
+        member.setFirstName(firstName);
+        member.setLastName(lastName);
+        member.setEmail(email);
+        member.setPhone(phone);
+        member.setCountryOfResidence(country);
+        if (pastorId != null) {
+            Pastor pastor = new Pastor();
+            pastor.setId(pastorId);
+            member.setAssignedPastor(pastor);
+        }
+        return member;
+    }
+
+    private static MemberRepository.SearchFields row(Long id, String firstName, String lastName, String email,
+                                                     String phone, String country, Long pastorId) {
+        return new Row(id, firstName, lastName, email, phone, Member.VettingStatus.PENDING, country, pastorId);
+    }
+
+    private record Row(Long id, String firstName, String lastName, String email, String phone,
+                       Member.VettingStatus vettingStatus, String country, Long pastorId)
+            implements MemberRepository.SearchFields {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getFirstName() {
+            return firstName;
+        }
+
+        @Override
+        public String getLastName() {
+            return lastName;
+        }
+
+        @Override
+        public String getEmail() {
+            return email;
+        }
+
+        @Override
+        public String getPhone() {
+            return phone;
+        }
+
+        @Override
+        public Member.VettingStatus getVettingStatus() {
+            return vettingStatus;
+        }
+
+        @Override
+        public String getCountryOfResidence() {
+            return country;
+        }
+
+        @Override
+        public Long getAssignedPastorId() {
+            return pastorId;
+        }
+    }
+}
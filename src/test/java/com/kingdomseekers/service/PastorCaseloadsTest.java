@@ -0,0 +1,92 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.dto.CaseloadRebalance;
+import com.kingdomseekers.dto.PastorCaseload;
+import com.kingdomseekers.repository.PastorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PastorCaseloadsTest {
+
+    private PastorCaseloads caseloads;
+
+    @BeforeEach
+    void setUp() {
+        PastorRepository pastorRepository = mock(PastorRepository.class);
+        when(pastorRepository.findCaseloads()).thenReturn(List.of(
+                caseload(1L, "KE", "Nairobi Central", 10),
+                caseload(2L, "KE", "Nairobi Central", 2),
+                caseload(3L, "KE", "Mombasa", 0),
+                caseload(4L, "UG", "Kampala", 5)));
+        caseloads = new PastorCaseloads(pastorRepository);
+        caseloads.reload();
+    }
+
+    @Test
+    void claim_ShouldChargeTheLeastLoadedPastorInTheCountry() {
+        assertEquals(Optional.of(3L), caseloads.claimLeastLoaded("ke"));
+        assertEquals(Optional.of(3L), caseloads.claimLeastLoaded("KE"));
+        assertEquals(Optional.of(2L), caseloads.claimLeastLoaded("KE"));
+        assertEquals(2, load(caseloads.snapshot("KE", "Mombasa"), 3L));
+    }
+
+    @Test
+    void claim_ShouldFallBackToAnyPastorWhenTheCountryHasNone() {
+        assertEquals(Optional.of(3L), caseloads.claimLeastLoaded("TZ"));
+    }
+
+    @Test
+    void plan_ShouldLeaveNoTwoPastorsMoreThanOneApart() {
+        List<CaseloadRebalance.Move> plan = caseloads.planRebalance("KE", null);
+        plan.forEach(move -> caseloads.moved(move.fromPastorId(), move.toPastorId(), move.members()));
+
+        List<PastorCaseload> after = caseloads.snapshot("KE", null);
+        assertEquals(12, after.stream().mapToLong(PastorCaseload::members).sum());
+        assertEquals(4, after.get(0).members());
+        assertEquals(4, after.get(after.size() - 1).members());
+        assertEquals(5, load(caseloads.snapshot("UG", null), 4L));
+    }
+
+    @Test
+    void planWithoutCountry_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> caseloads.planRebalance(null, null));
+        assertThrows(IllegalArgumentException.class, () -> caseloads.planRebalance(" ", null));
+    }
+
+    @Test
+    void branchWithoutCountry_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> caseloads.snapshot(null, "Mombasa"));
+    }
+
+    private static long load(List<PastorCaseload> caseloads, Long pastorId) {
+        return caseloads.stream().filter(c -> c.pastorId().equals(pastorId)).findFirst().orElseThrow().members();
+    }
+
+    private static PastorRepository.Caseload caseload(Long pastorId, String country, String branch, long members) {
+        return new PastorRepository.Caseload() {
+            public Long getPastorId() {
+                return pastorId;
+            }
+
+            public String getCountryCode() {
+                return country;
+            }
+
+            public String getChurchBranch() {
+                return branch;
+            }
+
+            public long getMembers() {
+                return members;
+            }
+        };
+    }
+}
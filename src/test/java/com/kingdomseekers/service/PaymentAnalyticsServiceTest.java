@@ -0,0 +1,77 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.entity.Payment;
+import com.kingdomseekers.event.CacheInvalidation;
+import com.kingdomseekers.event.CacheInvalidationBus;
+import com.kingdomseekers.event.LocalCacheInvalidationBus;
+import com.kingdomseekers.event.PaymentChangedEvent;
+import com.kingdomseekers.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PaymentAnalyticsServiceTest {
+
+    private static final Instant FROM = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2026-02-01T00:00:00Z");
+
+    private PaymentRepository paymentRepository;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository = mock(PaymentRepository.class);
+        when(paymentRepository.sumByMethodAndStatus(any(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void invalidationFromAnotherReplica_ShouldDropTheCachedRanges() {
+        LocalCacheInvalidationBus bus = new LocalCacheInvalidationBus();
+        PaymentAnalyticsService service = new PaymentAnalyticsService(paymentRepository, bus, 64, Duration.ofHours(1));
+
+        service.getAnalytics(FROM, TO);
+        service.getAnalytics(FROM, TO);
+        verify(paymentRepository, times(1)).sumByMethodAndStatus(FROM, TO);
+
+        bus.connect().publish(new CacheInvalidation("Payment", 42L));
+        service.getAnalytics(FROM, TO);
+        verify(paymentRepository, times(2)).sumByMethodAndStatus(FROM, TO);
+
+        bus.connect().publish(new CacheInvalidation("Room", 1L));
+        service.getAnalytics(FROM, TO);
+        verify(paymentRepository, times(2)).sumByMethodAndStatus(FROM, TO);
+    }
+
+    @Test
+    void paymentChange_ShouldBeAnnounced() {
+        CacheInvalidationBus bus = mock(CacheInvalidationBus.class);
+        PaymentAnalyticsService service = new PaymentAnalyticsService(paymentRepository, bus, 64, Duration.ofHours(1));
+
+        service.onPaymentChanged(new PaymentChangedEvent(42L, null, null));
+        verify(bus, never()).publish(any());
+
+        service.onPaymentChanged(new PaymentChangedEvent(42L, null, new Payment.State(null, null, null, FROM)));
+        verify(bus).publish(argThat(invalidation ->
+                "Payment".equals(invalidation.entity()) && Long.valueOf(42L).equals(invalidation.id())));
+    }
+
+    @Test
+    void expiredRanges_ShouldBeRecomputed() {
+        PaymentAnalyticsService service = new PaymentAnalyticsService(paymentRepository,
+                new LocalCacheInvalidationBus(), 64, Duration.ZERO);
+
+        service.getAnalytics(FROM, TO);
+        service.getAnalytics(FROM, TO);
+        verify(paymentRepository, times(2)).sumByMethodAndStatus(FROM, TO);
+    }
+}
@@ -0,0 +1,210 @@
+package com.kingdomseekers.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kingdomseekers.dto.PaymentCallback;
+import com.kingdomseekers.entity.Booking;
+import com.kingdomseekers.entity.Payment;
+import com.kingdomseekers.repository.BookingRepository;
+import com.kingdomseekers.repository.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PaymentCallbackProcessorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    /** Payments in the database by payment reference; each read returns fresh copies, as a new session would. */
+    private final Map<String, BigDecimal> pending = new HashMap<>();
+    private final Set<String> appliedInDatabase = new HashSet<>();
+    /** References another replica commits between our duplicate check and our flush. */
+    private final Set<String> appliedConcurrently = new HashSet<>();
+    private final List<Payment> unflushed = new ArrayList<>();
+    private final List<Payment> committed = new ArrayList<>();
+    private WebhookJournal journal;
+    private PaymentRepository paymentRepository;
+    private BookingRepository bookingRepository;
+    private BookingService bookingService;
+    private PaymentCallbackProcessor processor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        journal = mock(WebhookJournal.class);
+        paymentRepository = mock(PaymentRepository.class);
+        bookingRepository = mock(BookingRepository.class);
+        bookingService = mock(BookingService.class);
+        when(paymentRepository.streamTransactionReferences()).thenAnswer(invocation -> appliedInDatabase.stream());
+        when(paymentRepository.findExistingTransactionReferences(any())).thenAnswer(invocation ->
+                ((Collection<String>) invocation.getArgument(0)).stream().filter(appliedInDatabase::contains).toList());
+        when(paymentRepository.findByPaymentReferenceIn(any())).thenAnswer(invocation ->
+                ((Collection<String>) invocation.getArgument(0)).stream()
+                        .filter(pending::containsKey)
+                        .map(reference -> payment(reference, pending.get(reference)))
+                        .toList());
+        when(paymentRepository.save(any())).thenAnswer(invocation -> {
+            unflushed.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        doAnswer(invocation -> {
+            List<Payment> chunk = new ArrayList<>(unflushed);
+            unflushed.clear();
+            if (chunk.stream().anyMatch(payment -> appliedConcurrently.contains(payment.getTransactionReference()))) {
+                throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+            }
+            committed.addAll(chunk);
+            return null;
+        }).when(paymentRepository).flush();
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        processor = new PaymentCallbackProcessor(journal, paymentRepository, bookingRepository, bookingService,
+                objectMapper, transactionManager, meterRegistry, 200, 1000, "KES");
+    }
+
+    @Test
+    void replays_ShouldBeDroppedWithinABatchAndAgainstAppliedPayments() throws Exception {
+        pending.put("PAY-1", new BigDecimal("100.00"));
+        pending.put("PAY-2", new BigDecimal("50.00"));
+        appliedInDatabase.add("TX-OLD");
+        processor.loadAppliedReferences();
+
+        processor.process(List.of(
+                record(success("TX-1", "PAY-1", "100.00")),
+                record(success("TX-1", "PAY-1", "100.00")),
+                record(success("TX-OLD", "PAY-2", "50.00"))));
+
+        assertEquals(List.of("TX-1"), committed.stream().map(Payment::getTransactionReference).toList());
+        assertEquals(1, count("applied"));
+        assertEquals(2, count("duplicate"));
+        verify(journal, never()).reject(anyString(), anyString());
+    }
+
+    @Test
+    void callbacks_ShouldSettleOrFailThePayment() throws Exception {
+        pending.put("PAY-1", new BigDecimal("100.00"));
+        pending.put("PAY-2", new BigDecimal("75.00"));
+        processor.loadAppliedReferences();
+
+        processor.process(List.of(
+                record(success("TX-1", "PAY-1", "100.00")),
+                record(new PaymentCallback(Payment.PaymentMethod.M_PESA, "TX-2", "PAY-2", null, false,
+                        null, null, null, null, null, "insufficient funds", Instant.now()))));
+
+        Map<String, Payment> byReference = new HashMap<>();
+        committed.forEach(payment -> byReference.put(payment.getPaymentReference(), payment));
+        assertEquals(Payment.PaymentStatus.COMPLETED, byReference.get("PAY-1").getStatus());
+        assertEquals("RCPT-TX-1", byReference.get("PAY-1").getMpesaReceiptNumber());
+        assertEquals(Payment.PaymentStatus.FAILED, byReference.get("PAY-2").getStatus());
+        assertEquals("insufficient funds", byReference.get("PAY-2").getFailureReason());
+        verify(bookingService).tryUpdateBookingStatus(1L, Booking.BookingStatus.CONFIRMED);
+    }
+
+    @Test
+    void mismatchedAmountOrCurrency_ShouldBeRejected() throws Exception {
+        pending.put("PAY-1", new BigDecimal("100.00"));
+        pending.put("PAY-2", new BigDecimal("100.00"));
+        processor.loadAppliedReferences();
+
+        processor.process(List.of(
+                record(success("TX-1", "PAY-1", "1.00")),
+                record(new PaymentCallback(Payment.PaymentMethod.CREDIT_CARD, "TX-2", "PAY-2", null, true,
+                        new BigDecimal("100.00"), "USD", null, null, null, null, Instant.now()))));
+
+        assertEquals(List.of(), committed);
+        verify(journal).reject(contains("TX-1"), contains("amount"));
+        verify(journal).reject(contains("TX-2"), contains("currency"));
+        verify(bookingService, never()).tryUpdateBookingStatus(any(), any());
+        assertEquals(2, count("rejected"));
+    }
+
+    @Test
+    void bookingReferenceCallback_ShouldPayExactlyTheBookingTotal() throws Exception {
+        Booking booking = booking();
+        booking.setBookingReference("BK-1");
+        booking.setTotalAmount(new BigDecimal("150.00"));
+        when(bookingRepository.findByBookingReference("BK-1")).thenReturn(Optional.of(booking));
+        processor.loadAppliedReferences();
+
+        processor.process(List.of(
+                record(new PaymentCallback(Payment.PaymentMethod.M_PESA, "TX-1", null, "BK-1", true,
+                        new BigDecimal("15.00"), null, null, null, null, null, Instant.now())),
+                record(new PaymentCallback(Payment.PaymentMethod.M_PESA, "TX-2", null, "BK-1", true,
+                        new BigDecimal("150.00"), null, null, null, null, null, Instant.now()))));
+
+        assertEquals(1, committed.size());
+        assertEquals("TX-2", committed.get(0).getTransactionReference());
+        assertEquals(new BigDecimal("150.00"), committed.get(0).getAmount());
+        verify(journal).reject(contains("TX-1"), contains("amount"));
+    }
+
+    @Test
+    void referenceAppliedConcurrently_ShouldOnlyDropThatCallback() throws Exception {
+        pending.put("PAY-1", new BigDecimal("100.00"));
+        pending.put("PAY-2", new BigDecimal("100.00"));
+        pending.put("PAY-3", new BigDecimal("100.00"));
+        appliedConcurrently.add("TX-2");
+        processor.loadAppliedReferences();
+
+        processor.process(List.of(
+                record(success("TX-1", "PAY-1", "100.00")),
+                record(success("TX-2", "PAY-2", "100.00")),
+                record(success("TX-3", "PAY-3", "100.00"))));
+
+        assertEquals(List.of("TX-1", "TX-3"), committed.stream().map(Payment::getTransactionReference).toList());
+        assertEquals(2, count("applied"));
+        assertEquals(1, count("duplicate"));
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("webhooks.payments.processed", "outcome", outcome).count();
+    }
+
+    private String record(PaymentCallback callback) throws Exception {
+        return objectMapper.writeValueAsString(callback);
+    }
+
+    private static PaymentCallback success(String transactionReference, String paymentReference, String amount) {
+        return new PaymentCallback(Payment.PaymentMethod.M_PESA, transactionReference, paymentReference, null, true,
+                new BigDecimal(amount), "KES", "RCPT-" + transactionReference, "254700000000", null, null, Instant.now());
+    }
+
+    private static Payment payment(String reference, BigDecimal amount) {
+        Payment payment = new Payment();
+        payment.setPaymentReference(reference);
+        payment.setAmount(amount);
+        payment.setPaymentMethod(Payment.PaymentMethod.M_PESA);
+        payment.setBooking(booking());
+        return payment;
+    }
+
+    private static Booking booking() {
+        Booking booking = new Booking();
+        booking.setId(1L);
+        return booking;
+    }
+}
@@ -0,0 +1,163 @@
+package com.kingdomseekers.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kingdomseekers.dto.PaymentCallback;
+import com.kingdomseekers.entity.Booking;
+import com.kingdomseekers.entity.Payment;
+import com.kingdomseekers.entity.Room;
+import com.kingdomseekers.event.LocalCacheInvalidationBus;
+import com.kingdomseekers.repository.BookingRepository;
+import com.kingdomseekers.repository.PaymentRepository;
+import com.kingdomseekers.repository.RoomRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Settles callbacks through a real transaction manager: confirming the booking joins the batch transaction,
+ * so a booking that cannot be confirmed must not roll back the payments settled alongside it.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(LocalCacheInvalidationBus.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PaymentCallbackSettlementTest {
+
+    private static final EmbeddedPostgres postgres = start();
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private WebhookJournal journal;
+    private PaymentCallbackProcessor processor;
+    private Room room;
+    private LocalDate checkIn;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+        room = new Room();
+        room.setRoomNumber("S-1");
+        room.setType(Room.RoomType.STANDARD);
+        room.setCapacity(2);
+        room.setPackageType(Room.PackageType.BASIC);
+        room.setPrice(BigDecimal.valueOf(50));
+        room = roomRepository.save(room);
+        checkIn = LocalDate.now().plusDays(3);
+        journal = mock(WebhookJournal.class);
+        BookingService bookingService = new BookingService(bookingRepository, roomRepository,
+                mock(BookingStatsService.class), mock(RevenueLedgerService.class), transactionManager);
+        processor = new PaymentCallbackProcessor(journal, paymentRepository, bookingRepository, bookingService,
+                objectMapper, transactionManager, new SimpleMeterRegistry(), 200, 1000, "KES");
+        processor.loadAppliedReferences();
+    }
+
+    @Test
+    void bookingWhoseNightsAreTaken_ShouldNotRollBackTheBatch() throws Exception {
+        // A stay saved before overlaps were checked, which the pending hold now collides with
+        booking(Booking.BookingStatus.CONFIRMED, checkIn);
+        Booking clashing = booking(Booking.BookingStatus.PENDING, checkIn);
+        Booking free = booking(Booking.BookingStatus.PENDING, checkIn.plusDays(10));
+        payment("PAY-1", clashing);
+        payment("PAY-2", free);
+
+        processor.process(List.of(record(success("TX-1", "PAY-1")), record(success("TX-2", "PAY-2"))));
+
+        assertEquals(Payment.PaymentStatus.COMPLETED, status("PAY-1"));
+        assertEquals(Payment.PaymentStatus.COMPLETED, status("PAY-2"));
+        assertEquals(Booking.BookingStatus.PENDING, bookingRepository.findById(clashing.getId()).orElseThrow().getStatus());
+        assertEquals(Booking.BookingStatus.CONFIRMED, bookingRepository.findById(free.getId()).orElseThrow().getStatus());
+        verify(journal, never()).reject(anyString(), anyString());
+    }
+
+    private Booking booking(Booking.BookingStatus status, LocalDate from) {
+        Booking booking = new Booking();
+        booking.setRoom(room);
+        booking.setGuestName("Guest");
+        booking.setGuestEmail("guest@example.com");
+        booking.setPaymentMethod(Booking.PaymentMethod.M_PESA);
+        booking.setCheckInDate(from);
+        booking.setCheckOutDate(from.plusDays(2));
+        booking.setTotalAmount(new BigDecimal("100.00"));
+        booking.setStatus(status);
+        return bookingRepository.save(booking);
+    }
+
+    private void payment(String reference, Booking booking) {
+        Payment payment = new Payment();
+        payment.setPaymentReference(reference);
+        payment.setBooking(booking);
+        payment.setAmount(booking.getTotalAmount());
+        payment.setPaymentMethod(Payment.PaymentMethod.M_PESA);
+        paymentRepository.save(payment);
+    }
+
+    private Payment.PaymentStatus status(String reference) {
+        return paymentRepository.findByPaymentReferenceIn(List.of(reference)).get(0).getStatus();
+    }
+
+    private String record(PaymentCallback callback) throws Exception {
+        return objectMapper.writeValueAsString(callback);
+    }
+
+    private static PaymentCallback success(String transactionReference, String paymentReference) {
+        return new PaymentCallback(Payment.PaymentMethod.M_PESA, transactionReference, paymentReference, null, true,
+                new BigDecimal("100.00"), "KES", "RCPT-" + transactionReference, "254700000000", null, null, Instant.now());
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
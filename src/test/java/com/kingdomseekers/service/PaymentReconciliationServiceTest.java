@@ -0,0 +1,146 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.dto.ReconciliationReport;
+import com.kingdomseekers.entity.Payment;
+import com.kingdomseekers.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PaymentReconciliationServiceTest {
+
+    private static final Instant FROM = Instant.parse("2026-03-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2026-03-03T00:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    private PaymentReconciliationService service;
+
+    @BeforeEach
+    void setUp() {
+        PaymentRepository paymentRepository = mock(PaymentRepository.class);
+        when(paymentRepository.streamForReconciliation(FROM, TO)).thenAnswer(invocation -> Stream.of(
+                row(1L, null, "QA1", null, "100.00", Payment.PaymentStatus.COMPLETED),
+                row(2L, "QA2", null, null, "50.00", Payment.PaymentStatus.COMPLETED),
+                row(3L, null, "QA3", null, "75.00", Payment.PaymentStatus.PENDING),
+                row(4L, null, null, "QA4", "1200.00", Payment.PaymentStatus.COMPLETED),
+                row(5L, null, "QA6", null, "10.00", Payment.PaymentStatus.COMPLETED),
+                row(6L, null, "QA7", null, "10.00", Payment.PaymentStatus.PENDING)));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        service = new PaymentReconciliationService(paymentRepository, transactionManager);
+    }
+
+    @Test
+    void statement_ShouldBeSortedIntoMatchesAndExceptions() throws IOException {
+        Path statement = statement(
+                "\"Receipt No.\",Completion Time,Details,Paid In,Withdrawn",
+                "QA1,2026-03-01 10:00,\"Payment, room 4\",100.00,",
+                "QA2,2026-03-01 11:00,\"Two-line",
+                "note\",50.00,",
+                "QA1,2026-03-01 12:00,\"Repeat of \"\"QA1\"\"\",100.00,",
+                "QA3,2026-03-02 09:00,Still pending,75.00,",
+                "qa4 ,2026-03-02 10:00,Short,\"1,199.00\",",
+                "QX9,2026-03-02 11:00,Unknown,20.00,",
+                "",
+                ",2026-03-02 12:00,Balance,,",
+                "QA5,2026-03-02 13:00,Withdrawal,,300.00");
+
+        ReconciliationReport report = service.reconcile(statement, FROM, TO);
+
+        assertEquals(8, report.linesRead());
+        assertEquals(2, report.linesIgnored());
+        assertEquals(2, report.matched());
+        assertEquals(List.of(4L), report.duplicateLines().stream().map(ReconciliationReport.StatementLine::line).toList());
+        assertEquals(List.of(3L), report.statusMismatches().stream().map(ReconciliationReport.StatusMismatch::paymentId).toList());
+        assertEquals(1, report.amountMismatches().size());
+        ReconciliationReport.AmountMismatch short4 = report.amountMismatches().get(0);
+        assertEquals(4L, short4.paymentId());
+        assertEquals("QA4", short4.line().reference());
+        assertEquals(new BigDecimal("1199.00"), short4.line().amount());
+        assertEquals(6L, short4.line().line());
+        assertEquals(List.of("QX9"), report.unmatchedLines().stream().map(ReconciliationReport.StatementLine::reference).toList());
+        assertEquals(List.of(5L), report.unmatchedPayments().stream().map(ReconciliationReport.UnmatchedPayment::paymentId).toList());
+    }
+
+    @Test
+    void headerWithoutAnAmountColumn_ShouldBeRejected() throws IOException {
+        Path statement = statement("Reference,Details", "QA1,Payment");
+
+        assertThrows(IllegalArgumentException.class, () -> service.reconcile(statement, FROM, TO));
+    }
+
+    @Test
+    void unterminatedQuote_ShouldBeRejected() throws IOException {
+        Path statement = statement("Reference,Amount", "QA1,\"100.00", "QA2,50.00");
+
+        assertThrows(IllegalArgumentException.class, () -> service.reconcile(statement, FROM, TO));
+    }
+
+    private Path statement(String... lines) throws IOException {
+        return Files.writeString(dir.resolve("statement.csv"), String.join("\r\n", lines) + "\r\n");
+    }
+
+    private static PaymentRepository.ReconciliationRow row(Long id, String transactionReference, String receipt,
+                                                           String bankReference, String amount,
+                                                           Payment.PaymentStatus status) {
+        return new PaymentRepository.ReconciliationRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getPaymentReference() {
+                return "PAY-" + id;
+            }
+
+            @Override
+            public String getTransactionReference() {
+                return transactionReference;
+            }
+
+            @Override
+            public String getMpesaReceiptNumber() {
+                return receipt;
+            }
+
+            @Override
+            public String getBankReference() {
+                return bankReference;
+            }
+
+            @Override
+            public BigDecimal getAmount() {
+                return new BigDecimal(amount);
+            }
+
+            @Override
+            public Payment.PaymentStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public Instant getPaidAt() {
+                return FROM;
+            }
+        };
+    }
+}
@@ -0,0 +1,152 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.entity.Booking;
+import com.kingdomseekers.entity.Payment;
+import com.kingdomseekers.entity.Room;
+import com.kingdomseekers.event.LocalCacheInvalidationBus;
+import com.kingdomseekers.repository.BookingRepository;
+import com.kingdomseekers.repository.DailyRevenueRepository;
+import com.kingdomseekers.repository.PaymentRepository;
+import com.kingdomseekers.repository.RoomRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Recomputes the ledger against a real database: completed payments are summed per local calendar day in SQL,
+ * so a payment late in the evening must land on that day and pending payments must not count.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(LocalCacheInvalidationBus.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RevenueLedgerServiceTest {
+
+    private static final EmbeddedPostgres postgres = start();
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private DailyRevenueRepository dailyRevenueRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private RevenueLedgerService ledger;
+    private Booking booking;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        dailyRevenueRepository.deleteAll();
+        paymentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+        Room room = new Room();
+        room.setRoomNumber("L-1");
+        room.setType(Room.RoomType.STANDARD);
+        room.setCapacity(2);
+        room.setPackageType(Room.PackageType.BASIC);
+        room.setPrice(BigDecimal.valueOf(50));
+        booking = new Booking();
+        booking.setRoom(roomRepository.save(room));
+        booking.setGuestName("Guest");
+        booking.setGuestEmail("guest@example.com");
+        booking.setPaymentMethod(Booking.PaymentMethod.M_PESA);
+        booking.setCheckInDate(LocalDate.parse("2026-03-01"));
+        booking.setCheckOutDate(LocalDate.parse("2026-03-03"));
+        booking.setTotalAmount(new BigDecimal("100.00"));
+        booking.setStatus(Booking.BookingStatus.CONFIRMED);
+        booking = bookingRepository.save(booking);
+        SchedulerLeases leases = mock(SchedulerLeases.class);
+        when(leases.tryAcquire(anyString(), any())).thenReturn(true);
+        ledger = new RevenueLedgerService(dailyRevenueRepository, bookingRepository, paymentRepository, leases,
+                transactionManager, Duration.ofMinutes(15));
+    }
+
+    @Test
+    void rebuild_ShouldSumCompletedPaymentsPerLocalDay() {
+        payment("PAY-1", Payment.PaymentStatus.COMPLETED, "60.00", at("2026-03-01", 23, 30));
+        payment("PAY-2", Payment.PaymentStatus.COMPLETED, "40.00", at("2026-03-01", 0, 15));
+        payment("PAY-3", Payment.PaymentStatus.COMPLETED, "25.00", at("2026-03-02", 9, 0));
+        payment("PAY-4", Payment.PaymentStatus.PENDING, "99.00", at("2026-03-01", 12, 0));
+
+        ledger.rebuild();
+
+        LocalDate first = LocalDate.parse("2026-03-01");
+        LocalDate second = LocalDate.parse("2026-03-02");
+        assertEquals(0, new BigDecimal("100.00").compareTo(ledger.getPaymentRevenue(first, first)));
+        assertEquals(0, new BigDecimal("25.00").compareTo(ledger.getPaymentRevenue(second, second)));
+        assertEquals(0, new BigDecimal("100.00").compareTo(ledger.getBookingRevenue(first, second)));
+
+        // Nothing drifted, so two reconciles in a row leave the ledger as it is
+        ledger.reconcile();
+        ledger.reconcile();
+        assertEquals(0, new BigDecimal("125.00").compareTo(ledger.getPaymentRevenue(first, second)));
+    }
+
+    private void payment(String reference, Payment.PaymentStatus status, String amount, Instant paidAt) {
+        Payment payment = new Payment();
+        payment.setPaymentReference(reference);
+        payment.setBooking(booking);
+        payment.setAmount(new BigDecimal(amount));
+        payment.setPaymentMethod(Payment.PaymentMethod.M_PESA);
+        payment.setStatus(status);
+        payment.setPaymentDate(paidAt);
+        paymentRepository.save(payment);
+    }
+
+    private static Instant at(String day, int hour, int minute) {
+        return LocalDate.parse(day).atTime(hour, minute).atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.kingdomseekers.service;
+
+import com.kingdomseekers.entity.Member;
+import com.kingdomseekers.entity.Pastor;
+import com.kingdomseekers.entity.Room;
+import com.kingdomseekers.event.CacheInvalidation;
+import com.kingdomseekers.event.LocalCacheInvalidationBus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SecondLevelCacheEvictorTest {
+
+    private final LocalCacheInvalidationBus bus = new LocalCacheInvalidationBus();
+    private final LocalCacheInvalidationBus otherReplica = bus.connect();
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = mock(Cache.class);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        new SecondLevelCacheEvictor(entityManagerFactory, bus, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void rowInvalidation_ShouldEvictTheRowAndItsNaturalIds() {
+        otherReplica.publish(new CacheInvalidation("Member", 7L));
+
+        verify(cache).evictEntityData(Member.class, 7L);
+        verify(cache).evictNaturalIdData(Member.class);
+        verify(cache, never()).evictEntityData(Member.class);
+    }
+
+    @Test
+    void everything_ShouldClearEveryCachedType() {
+        otherReplica.publish(CacheInvalidation.everything());
+
+        verify(cache).evictEntityData(Room.class);
+        verify(cache).evictEntityData(Pastor.class);
+        verify(cache).evictEntityData(Member.class);
+    }
+
+    @Test
+    void uncachedEntity_ShouldBeIgnored() {
+        otherReplica.publish(new CacheInvalidation("Booking", 1L));
+
+        verify(cache, never()).evictEntityData(any(Class.class), any());
+    }
+
+    @Test
+    void ownInvalidation_ShouldNotComeBack() {
+        bus.publish(new CacheInvalidation("Member", 7L));
+
+        verify(cache, never()).evictEntityData(Member.class, 7L);
+    }
+}
@@ -0,0 +1,115 @@
+package com.kingdomseekers.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WebhookJournalTest {
+
+    private static final Duration NO_WAIT = Duration.ofMillis(10);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void committedRecords_ShouldNotBeRedeliveredAfterRestart() throws Exception {
+        WebhookJournal journal = new WebhookJournal(directory, DataSize.ofMegabytes(1));
+        journal.append("{\"n\":1}");
+        journal.append("{\"n\":2}");
+        journal.append("{\"n\":3}");
+
+        WebhookJournal.Batch first = journal.poll(2, NO_WAIT);
+        assertEquals(List.of("{\"n\":1}", "{\"n\":2}"), first.records());
+        journal.commit(first);
+        journal.close();
+
+        WebhookJournal reopened = new WebhookJournal(directory, DataSize.ofMegabytes(1));
+        assertEquals(List.of("{\"n\":3}"), reopened.poll(10, NO_WAIT).records());
+        reopened.close();
+    }
+
+    @Test
+    void uncommittedRecords_ShouldBeRedelivered() throws Exception {
+        WebhookJournal journal = new WebhookJournal(directory, DataSize.ofMegabytes(1));
+        journal.append("a");
+        assertEquals(List.of("a"), journal.poll(10, NO_WAIT).records());
+        journal.close();
+
+        WebhookJournal reopened = new WebhookJournal(directory, DataSize.ofMegabytes(1));
+        assertEquals(List.of("a"), reopened.poll(10, NO_WAIT).records());
+        reopened.close();
+    }
+
+    @Test
+    void partialRecord_ShouldBeDiscardedOnRecovery() throws Exception {
+        WebhookJournal journal = new WebhookJournal(directory, DataSize.ofMegabytes(1));
+        journal.append("complete");
+        journal.close();
+        try (var files = Files.list(directory)) {
+            Path segment = files.filter(path -> path.getFileName().toString().startsWith("segment-")).findFirst().orElseThrow();
+            Files.writeString(segment, "torn", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        }
+
+        WebhookJournal reopened = new WebhookJournal(directory, DataSize.ofMegabytes(1));
+        reopened.append("next");
+        assertEquals(List.of("complete", "next"), reopened.poll(10, NO_WAIT).records());
+        reopened.close();
+    }
+
+    @Test
+    void consumedSegments_ShouldBeDeletedOnCommit() throws Exception {
+        WebhookJournal journal = new WebhookJournal(directory, DataSize.ofBytes(16));
+        for (int i = 0; i < 10; i++) {
+            journal.append("record-" + i);
+        }
+        int delivered = 0;
+        WebhookJournal.Batch batch;
+        while (!(batch = journal.poll(3, NO_WAIT)).isEmpty()) {
+            delivered += batch.records().size();
+            journal.commit(batch);
+        }
+        assertEquals(10, delivered);
+        try (var files = Files.list(directory)) {
+            assertTrue(files.filter(path -> path.getFileName().toString().startsWith("segment-")).count() <= 1);
+        }
+        journal.close();
+    }
+
+    @Test
+    void oversizedRecords_ShouldBeRefusedOnAppend() throws Exception {
+        WebhookJournal journal = new WebhookJournal(directory, DataSize.ofMegabytes(4));
+        assertThrows(IllegalArgumentException.class, () -> journal.append("x".repeat(WebhookJournal.MAX_RECORD_BYTES + 1)));
+        journal.append("small");
+        assertEquals(List.of("small"), journal.poll(10, NO_WAIT).records());
+        journal.close();
+    }
+
+    @Test
+    void recordLongerThanTheReadBuffer_ShouldStillBeDelivered() throws Exception {
+        String large = "y".repeat(3 * 1024 * 1024);
+        WebhookJournal journal = new WebhookJournal(directory, DataSize.ofMegabytes(16));
+        journal.close();
+        try (var files = Files.list(directory)) {
+            Path segment = files.filter(path -> path.getFileName().toString().startsWith("segment-")).findFirst().orElseThrow();
+            Files.writeString(segment, large + "\nafter\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        }
+
+        WebhookJournal reopened = new WebhookJournal(directory, DataSize.ofMegabytes(16));
+        WebhookJournal.Batch batch = reopened.poll(10, NO_WAIT);
+        assertEquals(List.of(large, "after"), batch.records());
+        reopened.commit(batch);
+        assertTrue(reopened.poll(10, NO_WAIT).isEmpty());
+        reopened.close();
+    }
+}